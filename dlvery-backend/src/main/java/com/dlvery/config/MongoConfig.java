@@ -0,0 +1,137 @@
+package com.dlvery.config;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.WriteConcernResolver;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MongoDB client and template settings. The driver defaults (100 connections, a 2 minute pool wait, no
+ * socket timeout) let requests queue on the pool invisibly under load; these settings bound the pool wait
+ * and per-operation time, and {@link MongoPoolMetrics} times every checkout. The settings are applied
+ * after {@code spring.data.mongodb.uri}, so they take precedence over the same options in the URI, and
+ * they apply to both the blocking and the reactive client.
+ * <p>
+ * Two templates are defined: the primary {@code mongoTemplate}, also used by the repositories, resolves
+ * the write concern per collection from {@code mongo.write-concern.<collection>}; {@code reportMongoTemplate}
+ * reads with {@code mongo.reports.read-preference} so report queries can be served by secondaries.
+ */
+@Configuration
+public class MongoConfig {
+    private static final Logger logger = LoggerFactory.getLogger(MongoConfig.class);
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${mongo.pool.max-size:100}")
+    private int poolMaxSize;
+
+    @Value("${mongo.pool.min-size:0}")
+    private int poolMinSize;
+
+    @Value("${mongo.pool.max-wait-ms:2000}")
+    private long poolMaxWaitMs;
+
+    @Value("${mongo.pool.max-connecting:2}")
+    private int poolMaxConnecting;
+
+    @Value("${mongo.pool.max-idle-ms:60000}")
+    private long poolMaxIdleMs;
+
+    @Value("${mongo.timeouts.connect-ms:5000}")
+    private int connectTimeoutMs;
+
+    @Value("${mongo.timeouts.socket-read-ms:30000}")
+    private int socketReadTimeoutMs;
+
+    @Value("${mongo.timeouts.server-selection-ms:5000}")
+    private long serverSelectionTimeoutMs;
+
+    @Value("${mongo.reports.read-preference:secondaryPreferred}")
+    private String reportReadPreference;
+
+    @Bean
+    public MongoPoolMetrics mongoPoolMetrics(MeterRegistry meterRegistry) {
+        Gauge.builder("mongodb.driver.pool.max", () -> poolMaxSize)
+                .description("Configured maximum connections per server pool; compare with mongodb.driver.pool.checkedout")
+                .register(meterRegistry);
+        return new MongoPoolMetrics(meterRegistry);
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoClientTuning(MongoPoolMetrics poolMetrics) {
+        logger.info("Mongo pool: maxSize={}, minSize={}, maxWaitMs={}, socketReadMs={}",
+                poolMaxSize, poolMinSize, poolMaxWaitMs, socketReadTimeoutMs);
+        return settings -> settings
+                .applyToConnectionPoolSettings(pool -> pool
+                        .maxSize(poolMaxSize)
+                        .minSize(poolMinSize)
+                        .maxWaitTime(poolMaxWaitMs, TimeUnit.MILLISECONDS)
+                        .maxConnecting(poolMaxConnecting)
+                        .maxConnectionIdleTime(poolMaxIdleMs, TimeUnit.MILLISECONDS)
+                        .addConnectionPoolListener(poolMetrics))
+                .applyToSocketSettings(socket -> socket
+                        .connectTimeout(connectTimeoutMs, TimeUnit.MILLISECONDS)
+                        .readTimeout(socketReadTimeoutMs, TimeUnit.MILLISECONDS))
+                .applyToClusterSettings(cluster -> cluster
+                        .serverSelectionTimeout(serverSelectionTimeoutMs, TimeUnit.MILLISECONDS));
+    }
+
+    @Bean
+    @Primary
+    public MongoTemplate mongoTemplate(MongoDatabaseFactory mongoDatabaseFactory, MongoConverter mongoConverter) {
+        MongoTemplate template = new MongoTemplate(mongoDatabaseFactory, mongoConverter);
+        template.setWriteConcernResolver(writeConcernResolver(writeConcerns(environment)));
+        return template;
+    }
+
+    @Bean
+    public MongoTemplate reportMongoTemplate(MongoDatabaseFactory mongoDatabaseFactory, MongoConverter mongoConverter) {
+        MongoTemplate template = new MongoTemplate(mongoDatabaseFactory, mongoConverter);
+        template.setReadPreference(ReadPreference.valueOf(reportReadPreference));
+        return template;
+    }
+
+    /**
+     * Reads {@code mongo.write-concern.[<collection>]=<name>}, e.g. {@code majority}, {@code w1} or
+     * {@code unacknowledged}; the brackets keep underscores in collection names.
+     */
+    static Map<String, WriteConcern> writeConcerns(Environment environment) {
+        Map<String, String> names = Binder.get(environment)
+                .bind("mongo.write-concern", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of());
+        Map<String, WriteConcern> concerns = new HashMap<>();
+        names.forEach((collection, name) -> {
+            WriteConcern concern = WriteConcern.valueOf(name);
+            if (concern == null) {
+                throw new IllegalArgumentException("Unknown write concern for " + collection + ": " + name);
+            }
+            concerns.put(collection, concern);
+        });
+        return concerns;
+    }
+
+    /** Collections without an entry keep the template's default write concern. */
+    static WriteConcernResolver writeConcernResolver(Map<String, WriteConcern> concerns) {
+        return action -> concerns.getOrDefault(action.getCollectionName(), action.getDefaultWriteConcern());
+    }
+}
@@ -0,0 +1,45 @@
+package com.dlvery.config;
+
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times how long operations wait for a pooled connection. Spring Boot already publishes the pool size,
+ * checked-out count and wait queue size ({@code mongodb.driver.pool.*}); this adds the wait itself, tagged
+ * with the outcome, so pool exhaustion shows up as latency and {@code outcome=timeout} rather than only as
+ * slower requests.
+ */
+public class MongoPoolMetrics implements ConnectionPoolListener {
+    private final Timer checkedOut;
+    private final Timer timedOut;
+    private final Timer failed;
+
+    public MongoPoolMetrics(MeterRegistry meterRegistry) {
+        checkedOut = checkoutTimer(meterRegistry, "success");
+        timedOut = checkoutTimer(meterRegistry, "timeout");
+        failed = checkoutTimer(meterRegistry, "error");
+    }
+
+    private static Timer checkoutTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("mongodb.driver.pool.checkout")
+                .description("Time spent waiting for a connection from the MongoDB pool")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        checkedOut.record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        Timer timer = event.getReason() == ConnectionCheckOutFailedEvent.Reason.TIMEOUT ? timedOut : failed;
+        timer.record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+}
@@ -1,7 +1,10 @@
 package com.dlvery.config;
 
+import com.dlvery.security.CostAwareBCryptPasswordEncoder;
 import com.dlvery.security.JwtRequestFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -12,6 +15,8 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -30,6 +35,13 @@ public class SecurityConfig {
     @Lazy
     private JwtRequestFilter jwtRequestFilter;
 
+    @Value("${server.port:8080}")
+    private int serverPort = 8080;
+
+    /** Port of the actuator endpoints; kept off the load balancer, so only scrapers inside the network reach it. */
+    @Value("${management.server.port:${server.port:8080}}")
+    private int managementPort = 8080;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         logger.info("Configuring Spring Security Filter Chain");
@@ -38,7 +50,12 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // Streamed responses finish on an ASYNC dispatch; the original request was already authorized.
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers("/api/health").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers(managementPortOnly(serverPort, managementPort, "/actuator/prometheus")).permitAll()
+                        .requestMatchers("/actuator/**").hasAuthority("ADMIN")
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/admin/**").hasAuthority("ADMIN")
                         .requestMatchers("/api/inventory/**").hasAnyAuthority("ADMIN", "INVENTORY")
@@ -51,6 +68,15 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Matches {@code pattern} only on a request that arrived on a separate management port. When actuator
+     * shares the public port nothing matches, and the endpoint falls under the ADMIN rule for {@code /actuator/**}.
+     */
+    static RequestMatcher managementPortOnly(int serverPort, int managementPort, String pattern) {
+        RequestMatcher path = AntPathRequestMatcher.antMatcher(pattern);
+        return request -> managementPort != serverPort && request.getLocalPort() == managementPort && path.matches(request);
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -64,8 +90,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BCryptPasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:10}") int strength) {
+        return new CostAwareBCryptPasswordEncoder(strength);
     }
 
     @Bean
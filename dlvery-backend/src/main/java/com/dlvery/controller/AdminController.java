@@ -1,13 +1,30 @@
 package com.dlvery.controller;
 
+import com.dlvery.dto.CacheStatistics;
+import com.dlvery.dto.CursorPage;
+import com.dlvery.dto.IndexReport;
+import com.dlvery.dto.RollupRebuildStatus;
 import com.dlvery.model.AuditLog;
 import com.dlvery.repository.AuditLogRepository;
+import com.dlvery.service.AuditLogService;
+import com.dlvery.service.DeliveryStatsService;
+import com.dlvery.service.MongoIndexService;
+import com.dlvery.service.SkuCache;
+import com.dlvery.service.UserCache;
+import com.dlvery.util.NdjsonUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -15,8 +32,75 @@ public class AdminController {
     @Autowired
     private AuditLogRepository auditLogRepository;
 
+    @Autowired
+    private AuditLogService auditLogService;
+
+    @Autowired
+    private MongoIndexService mongoIndexService;
+
+    @Autowired
+    private DeliveryStatsService deliveryStatsService;
+
+    @Autowired
+    private SkuCache skuCache;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping("/audit-logs")
     public ResponseEntity<List<AuditLog>> getAuditLogs() {
         return ResponseEntity.ok(auditLogRepository.findAll());
     }
-}
\ No newline at end of file
+
+    @GetMapping("/audit-logs/page")
+    public ResponseEntity<CursorPage<AuditLog>> getAuditLogPage(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String entity,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        return ResponseEntity.ok(auditLogService.getPage(after, limit, entity, from, to));
+    }
+
+    @GetMapping(value = "/audit-logs/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAuditLogs(
+            @RequestParam(required = false) String entity,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(NdjsonUtil.write(objectMapper, () -> auditLogService.stream(entity, from, to)));
+    }
+
+    @GetMapping("/indexes")
+    public ResponseEntity<IndexReport> getIndexReport() {
+        return ResponseEntity.ok(mongoIndexService.report());
+    }
+
+    @PostMapping("/indexes")
+    public ResponseEntity<IndexReport> ensureIndexes() {
+        mongoIndexService.ensureIndexes();
+        return ResponseEntity.ok(mongoIndexService.report());
+    }
+
+    @GetMapping("/delivery-stats/rebuild")
+    public ResponseEntity<RollupRebuildStatus> getDeliveryStatsRebuild() {
+        return ResponseEntity.ok(deliveryStatsService.getRebuildStatus());
+    }
+
+    @PostMapping("/delivery-stats/rebuild")
+    public ResponseEntity<RollupRebuildStatus> rebuildDeliveryStats() {
+        return ResponseEntity.accepted().body(deliveryStatsService.startRebuild());
+    }
+
+    @GetMapping("/caches")
+    public ResponseEntity<Map<String, CacheStatistics>> getCacheStatistics() {
+        Map<String, CacheStatistics> statistics = new LinkedHashMap<>();
+        statistics.put("sku", skuCache.getStatistics());
+        statistics.put("users", userCache.getStatistics());
+        return ResponseEntity.ok(statistics);
+    }
+}
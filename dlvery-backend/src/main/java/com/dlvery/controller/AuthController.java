@@ -3,8 +3,10 @@ package com.dlvery.controller;
 import com.dlvery.dto.UserDTO;
 import com.dlvery.model.User;
 import com.dlvery.security.JwtUtil;
+import com.dlvery.security.ClientIpResolver;
 import com.dlvery.service.UserService;
 import com.dlvery.service.AuthService; // ADDED: Import AuthService
+import com.dlvery.service.LoginGovernor;
 import com.dlvery.exception.BadRequestException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -12,9 +14,11 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger; // ADDED: For logging
 import org.slf4j.LoggerFactory; // ADDED: For logging
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -27,12 +31,21 @@ public class AuthController {
     private JwtUtil jwtUtil;
     @Autowired
     private AuthService authService; // ADDED: Autowire AuthService
+    @Autowired
+    private LoginGovernor loginGovernor;
+    @Autowired
+    private ClientIpResolver clientIpResolver;
 
     // ADDED: Logger
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
 
+    // Logins are rate limited and hashed off the request thread; see LoginGovernor.
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody UserDTO userDTO) {
+    public CompletableFuture<ResponseEntity<?>> login(@Valid @RequestBody UserDTO userDTO, HttpServletRequest request) {
+        return loginGovernor.submit(userDTO.getUsername(), clientIpResolver.resolve(request), () -> authenticate(userDTO));
+    }
+
+    private ResponseEntity<?> authenticate(UserDTO userDTO) {
         try {
             // ADDED: Log request
             logger.debug("Login attempt for username: {}", userDTO.getUsername());
@@ -40,10 +53,12 @@ public class AuthController {
                     new UsernamePasswordAuthenticationToken(userDTO.getUsername(), userDTO.getPassword()));
             User user = userService.findByUsername(userDTO.getUsername())
                     .orElseThrow(() -> new BadRequestException("Invalid credentials"));
-            String token = jwtUtil.generateToken(user.getUsername(), user.getRole());
+            // The role comes from the authentication just made, which is never served from the user cache.
+            String role = auth.getAuthorities().iterator().next().getAuthority();
+            String token = jwtUtil.generateToken(user.getUsername(), role);
             // ADDED: Log success
             logger.info("Login successful for username: {}", userDTO.getUsername());
-            return ResponseEntity.ok(new AuthResponse(token, user.getRole(), user.getId(), user.getAgentId()));
+            return ResponseEntity.ok(new AuthResponse(token, role, user.getId(), user.getAgentId()));
         } catch (Exception e) {
             // ADDED: Log error
             logger.error("Login failed for username: {}. Error: {}", userDTO.getUsername(), e.getMessage());
@@ -53,9 +68,10 @@ public class AuthController {
 
     // ADDED: New login endpoint using AuthService
     @PostMapping("/login-service")
-    public ResponseEntity<?> loginWithService(@Valid @RequestBody UserDTO userDTO) {
+    public CompletableFuture<ResponseEntity<?>> loginWithService(@Valid @RequestBody UserDTO userDTO, HttpServletRequest request) {
         logger.debug("Login-service attempt for username: {}", userDTO.getUsername());
-        return ResponseEntity.ok(authService.login(userDTO));
+        return loginGovernor.submit(userDTO.getUsername(), clientIpResolver.resolve(request),
+                () -> ResponseEntity.ok(authService.login(userDTO)));
     }
 
     @PostMapping("/signup")
@@ -31,12 +31,15 @@
 package com.dlvery.controller;
 
 import com.dlvery.model.Delivery;
+import com.dlvery.service.DeliveryEventService;
 import com.dlvery.service.DeliveryService;
 import com.dlvery.exception.BadRequestException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import jakarta.validation.Valid;
 import java.util.List;
 
@@ -45,6 +48,8 @@ import java.util.List;
 public class DeliveryController {
     @Autowired
     private DeliveryService service;
+    @Autowired
+    private DeliveryEventService eventService;
 
     @PostMapping
     public ResponseEntity<?> addDelivery(@Valid @RequestBody Delivery delivery, Authentication auth) {
@@ -60,6 +65,11 @@ public class DeliveryController {
         return ResponseEntity.ok(service.getDeliveriesByAgent(auth.getName()));
     }
 
+    @GetMapping(value = "/agent/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToDeliveries(Authentication auth) {
+        return eventService.subscribe(auth.getName());
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<?> updateDelivery(@PathVariable String id, @Valid @RequestBody Delivery delivery, Authentication auth) {
         try {
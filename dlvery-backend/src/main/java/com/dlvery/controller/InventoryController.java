@@ -1,14 +1,38 @@
 
 package com.dlvery.controller;
 
+import com.dlvery.dto.AssignmentRequest;
+import com.dlvery.dto.BulkAssignmentResult;
+import com.dlvery.dto.CursorPage;
+import com.dlvery.dto.DeliveryReport;
+import com.dlvery.dto.LowStockAlert;
+import com.dlvery.model.ImportJob;
 import com.dlvery.model.Inventory;
+import com.dlvery.service.BulkAssignmentService;
+import com.dlvery.service.DeliveryReportService;
+import com.dlvery.service.ExportService;
+import com.dlvery.service.InventoryImportJobService;
 import com.dlvery.service.InventoryService;
+import com.dlvery.service.LowStockAlertService;
+import com.dlvery.util.NdjsonUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/inventory")
@@ -18,6 +42,24 @@ public class InventoryController {
     @Autowired
     private InventoryService inventoryService;
 
+    @Autowired
+    private InventoryImportJobService importJobService;
+
+    @Autowired
+    private BulkAssignmentService bulkAssignmentService;
+
+    @Autowired
+    private DeliveryReportService deliveryReportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private LowStockAlertService lowStockAlertService;
+
     @PostMapping
     public ResponseEntity<Inventory> addInventory(@RequestBody Inventory item) {
         return ResponseEntity.ok(inventoryService.addInventory(item));
@@ -28,6 +70,38 @@ public class InventoryController {
         return ResponseEntity.ok(inventoryService.getAllInventory());
     }
 
+    @GetMapping("/sku/{sku}")
+    public ResponseEntity<Inventory> getInventoryBySku(@PathVariable String sku) {
+        return ResponseEntity.ok(inventoryService.getInventoryBySku(sku));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<Inventory>> getInventoryPage(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String category) {
+        return ResponseEntity.ok(inventoryService.getInventoryPage(after, limit, category));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamInventory(@RequestParam(required = false) String category) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(NdjsonUtil.write(objectMapper, () -> inventoryService.streamInventory(category)));
+    }
+
+    /** Items at or below their low-stock threshold, read from memory rather than the collection. */
+    @GetMapping("/low-stock")
+    public ResponseEntity<List<LowStockAlert>> getLowStock() {
+        return ResponseEntity.ok(lowStockAlertService.getAlerts());
+    }
+
+    /** A {@code SNAPSHOT} of the low items, then one {@code LOW}, {@code CLEARED} or {@code REMOVED} event per transition. */
+    @GetMapping(value = "/low-stock/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToLowStock() {
+        return lowStockAlertService.subscribe();
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Inventory> updateInventory(@PathVariable String id, @RequestBody Inventory item) {
         return ResponseEntity.ok(inventoryService.updateInventory(id, item));
@@ -39,10 +113,84 @@ public class InventoryController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Streams every item (optionally one category) as CSV or NDJSON; gzip-encoded when the client sends
+     * {@code Accept-Encoding: gzip}. Written on the request thread, so long exports are not cut off by the
+     * async request timeout.
+     */
+    @GetMapping("/export")
+    public void exportInventory(@RequestParam(required = false) String format,
+                                @RequestParam(required = false) String category,
+                                HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String exportFormat = ExportService.exportFormat(format);
+        exportService.exportInventory(category, exportFormat, () -> exportBody(request, response, "inventory", exportFormat));
+    }
+
+    @GetMapping("/export/deliveries")
+    public void exportDeliveries(@RequestParam(required = false) String format,
+                                 @RequestParam(required = false) String status,
+                                 @RequestParam(required = false) String startDate,
+                                 @RequestParam(required = false) String endDate,
+                                 @RequestParam(required = false) String agentId,
+                                 @RequestParam(required = false) String sku,
+                                 HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String exportFormat = ExportService.exportFormat(format);
+        exportService.exportDeliveries(status, startDate, endDate, agentId, sku, exportFormat,
+                () -> exportBody(request, response, "deliveries", exportFormat));
+    }
+
+    private static OutputStream exportBody(HttpServletRequest request, HttpServletResponse response, String name,
+                                           String format) throws IOException {
+        boolean ndjson = ExportService.NDJSON.equals(format);
+        response.setContentType(ndjson ? MediaType.APPLICATION_NDJSON_VALUE : "text/csv");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(name + (ndjson ? ".ndjson" : ".csv")).build().toString());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return new GZIPOutputStream(response.getOutputStream(), 64 * 1024);
+        }
+        return response.getOutputStream();
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJob> uploadInventoryFile(@RequestParam("file") MultipartFile file,
+                                                         @RequestParam(defaultValue = "insert") String mode,
+                                                         @RequestParam(required = false) String format) {
+        return ResponseEntity.accepted().body(importJobService.submit(file, mode, format));
+    }
+
+    /**
+     * Raw-body upload, e.g. {@code Content-Type: text/csv} or {@code application/x-ndjson} with
+     * {@code Content-Encoding: gzip} or {@code zstd}. The body is streamed to the spool file, so it is bound
+     * by {@code inventory.import.max-upload-bytes} rather than the multipart size limit.
+     */
     @PostMapping("/upload")
-    public ResponseEntity<String> uploadInventoryFile(@RequestParam("file") MultipartFile file) {
-        inventoryService.uploadInventoryFile(file);
-        return ResponseEntity.ok("Inventory uploaded successfully");
+    public ResponseEntity<ImportJob> uploadInventoryBody(HttpServletRequest request,
+                                                         @RequestParam(defaultValue = "insert") String mode,
+                                                         @RequestParam(required = false) String format,
+                                                         @RequestParam(required = false) String fileName) throws IOException {
+        return ResponseEntity.accepted().body(importJobService.submit(request.getInputStream(), fileName,
+                request.getContentType(), request.getHeader(HttpHeaders.CONTENT_ENCODING), mode, format));
+    }
+
+    @GetMapping("/upload/{jobId}")
+    public ResponseEntity<ImportJob> getImportJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(importJobService.getJob(jobId));
     }
 
     @PostMapping("/assign")
@@ -56,6 +204,16 @@ public class InventoryController {
         return ResponseEntity.ok("Assigned for delivery");
     }
 
+    @PostMapping(value = "/assign/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkAssignmentResult> assignForDeliveryBulk(@RequestBody List<AssignmentRequest> assignments) {
+        return ResponseEntity.ok(bulkAssignmentService.assign(assignments));
+    }
+
+    @PostMapping(value = "/assign/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BulkAssignmentResult> assignForDeliveryBulkNdjson(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(bulkAssignmentService.assign(bulkAssignmentService.readNdjson(request.getInputStream())));
+    }
+
     @GetMapping("/track/sku/{sku}")
     public ResponseEntity<List<Object>> trackDeliveryBySku(@PathVariable String sku) {
         return ResponseEntity.ok(inventoryService.trackDeliveryBySku(sku));
@@ -82,4 +240,15 @@ public class InventoryController {
     public ResponseEntity<List<Object>> reportPendingByAgent(@PathVariable String agentId) {
         return ResponseEntity.ok(inventoryService.reportPendingByAgent(agentId));
     }
-}
\ No newline at end of file
+
+    @GetMapping("/report/summary")
+    public ResponseEntity<DeliveryReport> reportSummary(
+            @RequestParam String groupBy,
+            @RequestParam String startDate,
+            @RequestParam String endDate,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String agentId,
+            @RequestParam(required = false) Integer top) {
+        return ResponseEntity.ok(deliveryReportService.report(groupBy, startDate, endDate, status, agentId, top));
+    }
+}
@@ -0,0 +1,37 @@
+package com.dlvery.controller;
+
+import com.dlvery.model.Delivery;
+import com.dlvery.service.DeliveryTrackingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+/**
+ * Reactive counterparts of {@code /api/inventory/track/**}. Spring MVC subscribes to the returned
+ * {@link Flux} and completes the response on an async dispatch, so the servlet thread is released while
+ * MongoDB answers. {@code Accept: application/x-ndjson} streams one delivery per line as it arrives;
+ * {@code application/json} collects the results into an array.
+ */
+@RestController
+@RequestMapping("/api/inventory/track/reactive")
+@PreAuthorize("hasAnyRole('INVENTORY', 'ADMIN')")
+public class ReactiveTrackingController {
+
+    @Autowired
+    private DeliveryTrackingService deliveryTrackingService;
+
+    @GetMapping(value = "/sku/{sku}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Delivery> trackDeliveryBySku(@PathVariable String sku) {
+        return deliveryTrackingService.trackBySku(sku);
+    }
+
+    @GetMapping(value = "/agent/{agentId}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Delivery> trackDeliveryByAgent(@PathVariable String agentId) {
+        return deliveryTrackingService.trackByAgent(agentId);
+    }
+}
@@ -0,0 +1,60 @@
+package com.dlvery.dto;
+
+public class AssignmentResult {
+    public static final String ASSIGNED = "ASSIGNED";
+    public static final String REJECTED = "REJECTED";
+
+    private int index;
+    private String sku;
+    private String status;
+    private String deliveryId;
+    private String message;
+
+    public AssignmentResult() {
+    }
+
+    public AssignmentResult(int index, String sku) {
+        this.index = index;
+        this.sku = sku;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getDeliveryId() {
+        return deliveryId;
+    }
+
+    public void setDeliveryId(String deliveryId) {
+        this.deliveryId = deliveryId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
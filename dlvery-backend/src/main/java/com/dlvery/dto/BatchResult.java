@@ -0,0 +1,105 @@
+package com.dlvery.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchResult {
+    private int batchNumber;
+    private int rows;
+    private int inserted;
+    private int skippedDuplicates;
+    private int updated;
+    private int unchanged;
+    private int deleted;
+    private int skippedDeletes;
+    private int malformed;
+    private List<RowError> malformedRows = new ArrayList<>();
+
+    public BatchResult() {
+    }
+
+    public BatchResult(int batchNumber) {
+        this.batchNumber = batchNumber;
+    }
+
+    public int getBatchNumber() {
+        return batchNumber;
+    }
+
+    public void setBatchNumber(int batchNumber) {
+        this.batchNumber = batchNumber;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public void setRows(int rows) {
+        this.rows = rows;
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(int inserted) {
+        this.inserted = inserted;
+    }
+
+    public int getSkippedDuplicates() {
+        return skippedDuplicates;
+    }
+
+    public void setSkippedDuplicates(int skippedDuplicates) {
+        this.skippedDuplicates = skippedDuplicates;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public void setUnchanged(int unchanged) {
+        this.unchanged = unchanged;
+    }
+
+    public int getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(int deleted) {
+        this.deleted = deleted;
+    }
+
+    /** SKUs missing from a sync file that were kept because deliveries refer to them. */
+    public int getSkippedDeletes() {
+        return skippedDeletes;
+    }
+
+    public void setSkippedDeletes(int skippedDeletes) {
+        this.skippedDeletes = skippedDeletes;
+    }
+
+    public int getMalformed() {
+        return malformed;
+    }
+
+    public void setMalformed(int malformed) {
+        this.malformed = malformed;
+    }
+
+    public List<RowError> getMalformedRows() {
+        return malformedRows;
+    }
+
+    public void setMalformedRows(List<RowError> malformedRows) {
+        this.malformedRows = malformedRows;
+    }
+}
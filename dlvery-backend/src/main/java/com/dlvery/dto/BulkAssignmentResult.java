@@ -0,0 +1,47 @@
+package com.dlvery.dto;
+
+import java.util.List;
+
+public class BulkAssignmentResult {
+    private int assigned;
+    private int rejected;
+    private List<AssignmentResult> results;
+
+    public BulkAssignmentResult() {
+    }
+
+    public BulkAssignmentResult(List<AssignmentResult> results) {
+        this.results = results;
+        for (AssignmentResult result : results) {
+            if (AssignmentResult.ASSIGNED.equals(result.getStatus())) {
+                assigned++;
+            } else {
+                rejected++;
+            }
+        }
+    }
+
+    public int getAssigned() {
+        return assigned;
+    }
+
+    public void setAssigned(int assigned) {
+        this.assigned = assigned;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<AssignmentResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<AssignmentResult> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,61 @@
+package com.dlvery.dto;
+
+import com.dlvery.model.Delivery;
+
+import java.time.LocalDateTime;
+
+public class DeliveryEvent {
+    /** A delivery was created for, or reassigned to, the agent. */
+    public static final String ASSIGNED = "ASSIGNED";
+    /** The delivery's status changed. */
+    public static final String STATUS_CHANGED = "STATUS_CHANGED";
+    /** The delivery was reassigned away from the agent. */
+    public static final String UNASSIGNED = "UNASSIGNED";
+
+    private String type;
+    private String previousStatus;
+    private Delivery delivery;
+    private LocalDateTime timestamp;
+
+    public DeliveryEvent() {
+    }
+
+    public DeliveryEvent(String type, Delivery delivery, String previousStatus) {
+        this.type = type;
+        this.delivery = delivery;
+        this.previousStatus = previousStatus;
+        this.timestamp = LocalDateTime.now();
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public void setPreviousStatus(String previousStatus) {
+        this.previousStatus = previousStatus;
+    }
+
+    public Delivery getDelivery() {
+        return delivery;
+    }
+
+    public void setDelivery(Delivery delivery) {
+        this.delivery = delivery;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+}
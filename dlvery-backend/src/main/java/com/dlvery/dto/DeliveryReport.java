@@ -0,0 +1,70 @@
+package com.dlvery.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DeliveryReport {
+    private String groupBy;
+    private String startDate;
+    private String endDate;
+    private long totalCount;
+    private long totalQuantity;
+    private List<ReportGroup> groups = new ArrayList<>();
+
+    public DeliveryReport() {
+    }
+
+    public DeliveryReport(String groupBy, String startDate, String endDate) {
+        this.groupBy = groupBy;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public String getGroupBy() {
+        return groupBy;
+    }
+
+    public void setGroupBy(String groupBy) {
+        this.groupBy = groupBy;
+    }
+
+    public String getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(String startDate) {
+        this.startDate = startDate;
+    }
+
+    public String getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(String endDate) {
+        this.endDate = endDate;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(long totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public long getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public void setTotalQuantity(long totalQuantity) {
+        this.totalQuantity = totalQuantity;
+    }
+
+    public List<ReportGroup> getGroups() {
+        return groups;
+    }
+
+    public void setGroups(List<ReportGroup> groups) {
+        this.groups = groups;
+    }
+}
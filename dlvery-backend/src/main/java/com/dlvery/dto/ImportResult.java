@@ -0,0 +1,109 @@
+package com.dlvery.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportResult {
+    private long rows;
+    private long inserted;
+    private long skippedDuplicates;
+    private long updated;
+    private long unchanged;
+    private long deleted;
+    private long skippedDeletes;
+    private long malformed;
+    private boolean aborted;
+    private List<BatchResult> batches = new ArrayList<>();
+
+    public void addBatch(BatchResult batch) {
+        batches.add(batch);
+        rows += batch.getRows();
+        inserted += batch.getInserted();
+        skippedDuplicates += batch.getSkippedDuplicates();
+        updated += batch.getUpdated();
+        unchanged += batch.getUnchanged();
+        deleted += batch.getDeleted();
+        skippedDeletes += batch.getSkippedDeletes();
+        malformed += batch.getMalformed();
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(long inserted) {
+        this.inserted = inserted;
+    }
+
+    public long getSkippedDuplicates() {
+        return skippedDuplicates;
+    }
+
+    public void setSkippedDuplicates(long skippedDuplicates) {
+        this.skippedDuplicates = skippedDuplicates;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(long updated) {
+        this.updated = updated;
+    }
+
+    public long getUnchanged() {
+        return unchanged;
+    }
+
+    public void setUnchanged(long unchanged) {
+        this.unchanged = unchanged;
+    }
+
+    public long getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(long deleted) {
+        this.deleted = deleted;
+    }
+
+    public long getSkippedDeletes() {
+        return skippedDeletes;
+    }
+
+    public void setSkippedDeletes(long skippedDeletes) {
+        this.skippedDeletes = skippedDeletes;
+    }
+
+    public long getMalformed() {
+        return malformed;
+    }
+
+    public void setMalformed(long malformed) {
+        this.malformed = malformed;
+    }
+
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    public void setAborted(boolean aborted) {
+        this.aborted = aborted;
+    }
+
+    public List<BatchResult> getBatches() {
+        return batches;
+    }
+
+    public void setBatches(List<BatchResult> batches) {
+        this.batches = batches;
+    }
+}
@@ -0,0 +1,43 @@
+package com.dlvery.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class IndexReport {
+    private List<IndexUsage> indexes = new ArrayList<>();
+    private List<QueryPlan> queryPlans = new ArrayList<>();
+    private List<QueryPlan> collectionScans = new ArrayList<>();
+    private List<String> failures = new ArrayList<>();
+
+    public List<IndexUsage> getIndexes() {
+        return indexes;
+    }
+
+    public void setIndexes(List<IndexUsage> indexes) {
+        this.indexes = indexes;
+    }
+
+    public List<QueryPlan> getQueryPlans() {
+        return queryPlans;
+    }
+
+    public void setQueryPlans(List<QueryPlan> queryPlans) {
+        this.queryPlans = queryPlans;
+    }
+
+    public List<QueryPlan> getCollectionScans() {
+        return collectionScans;
+    }
+
+    public void setCollectionScans(List<QueryPlan> collectionScans) {
+        this.collectionScans = collectionScans;
+    }
+
+    public List<String> getFailures() {
+        return failures;
+    }
+
+    public void setFailures(List<String> failures) {
+        this.failures = failures;
+    }
+}
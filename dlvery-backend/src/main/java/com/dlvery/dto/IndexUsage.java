@@ -0,0 +1,63 @@
+package com.dlvery.dto;
+
+import java.util.Date;
+import java.util.Map;
+
+public class IndexUsage {
+    private String collection;
+    private String name;
+    private Map<String, Object> key;
+    private long ops;
+    private Date since;
+
+    public IndexUsage() {
+    }
+
+    public IndexUsage(String collection, String name, Map<String, Object> key, long ops, Date since) {
+        this.collection = collection;
+        this.name = name;
+        this.key = key;
+        this.ops = ops;
+        this.since = since;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public void setCollection(String collection) {
+        this.collection = collection;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Map<String, Object> getKey() {
+        return key;
+    }
+
+    public void setKey(Map<String, Object> key) {
+        this.key = key;
+    }
+
+    public long getOps() {
+        return ops;
+    }
+
+    public void setOps(long ops) {
+        this.ops = ops;
+    }
+
+    public Date getSince() {
+        return since;
+    }
+
+    public void setSince(Date since) {
+        this.since = since;
+    }
+}
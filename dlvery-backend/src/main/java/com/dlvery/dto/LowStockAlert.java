@@ -0,0 +1,76 @@
+package com.dlvery.dto;
+
+import com.dlvery.model.Inventory;
+
+import java.time.LocalDateTime;
+
+/** An item whose quantity is at or below its low-stock threshold. */
+public class LowStockAlert {
+    private String sku;
+    private String name;
+    private int quantity;
+    private int lowStockThreshold;
+    private Long version;
+    private LocalDateTime since;
+
+    public LowStockAlert() {
+    }
+
+    public LowStockAlert(Inventory item, LocalDateTime since) {
+        this.sku = item.getSku();
+        this.name = item.getName();
+        this.quantity = item.getQuantity();
+        this.lowStockThreshold = item.getLowStockThreshold();
+        this.version = item.getVersion();
+        this.since = since;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public int getLowStockThreshold() {
+        return lowStockThreshold;
+    }
+
+    public void setLowStockThreshold(int lowStockThreshold) {
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /** When the item went low; kept while it stays low. */
+    public LocalDateTime getSince() {
+        return since;
+    }
+
+    public void setSince(LocalDateTime since) {
+        this.since = since;
+    }
+}
@@ -0,0 +1,50 @@
+package com.dlvery.dto;
+
+import java.time.LocalDateTime;
+
+public class LowStockEvent {
+    /** The item's quantity fell to or below its threshold. */
+    public static final String LOW = "LOW";
+    /** The item is back above its threshold. */
+    public static final String CLEARED = "CLEARED";
+    /** A low item was deleted. */
+    public static final String REMOVED = "REMOVED";
+
+    private String type;
+    private LowStockAlert alert;
+    private LocalDateTime timestamp;
+
+    public LowStockEvent() {
+    }
+
+    public LowStockEvent(String type, LowStockAlert alert) {
+        this.type = type;
+        this.alert = alert;
+        this.timestamp = LocalDateTime.now();
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    /** The item's stock level after the change; for {@code REMOVED}, as last known. */
+    public LowStockAlert getAlert() {
+        return alert;
+    }
+
+    public void setAlert(LowStockAlert alert) {
+        this.alert = alert;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+}
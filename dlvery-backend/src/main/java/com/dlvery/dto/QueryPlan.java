@@ -0,0 +1,77 @@
+package com.dlvery.dto;
+
+public class QueryPlan {
+    public static final String EXPLAIN = "explain";
+    public static final String PROFILER = "profiler";
+
+    private String source;
+    private String collection;
+    private String query;
+    private String stage;
+    private String indexName;
+    private Long millis;
+
+    public QueryPlan() {
+    }
+
+    public QueryPlan(String source, String collection, String query, String stage, String indexName, Long millis) {
+        this.source = source;
+        this.collection = collection;
+        this.query = query;
+        this.stage = stage;
+        this.indexName = indexName;
+        this.millis = millis;
+    }
+
+    public boolean isCollectionScan() {
+        return "COLLSCAN".equals(stage);
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public void setCollection(String collection) {
+        this.collection = collection;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    public void setStage(String stage) {
+        this.stage = stage;
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    public void setIndexName(String indexName) {
+        this.indexName = indexName;
+    }
+
+    public Long getMillis() {
+        return millis;
+    }
+
+    public void setMillis(Long millis) {
+        this.millis = millis;
+    }
+}
@@ -0,0 +1,40 @@
+package com.dlvery.dto;
+
+public class ReportGroup {
+    private String key;
+    private long count;
+    private long quantity;
+
+    public ReportGroup() {
+    }
+
+    public ReportGroup(String key, long count, long quantity) {
+        this.key = key;
+        this.count = count;
+        this.quantity = quantity;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(long quantity) {
+        this.quantity = quantity;
+    }
+}
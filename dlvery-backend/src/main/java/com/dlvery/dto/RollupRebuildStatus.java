@@ -0,0 +1,64 @@
+package com.dlvery.dto;
+
+import java.time.LocalDateTime;
+
+public class RollupRebuildStatus {
+    public static final String IDLE = "IDLE";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    private String status = IDLE;
+    private long buckets;
+    private String message;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    public RollupRebuildStatus() {
+    }
+
+    public RollupRebuildStatus(String status, LocalDateTime startedAt) {
+        this.status = status;
+        this.startedAt = startedAt;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public long getBuckets() {
+        return buckets;
+    }
+
+    public void setBuckets(long buckets) {
+        this.buckets = buckets;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
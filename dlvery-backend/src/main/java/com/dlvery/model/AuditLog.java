@@ -2,10 +2,13 @@ package com.dlvery.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
 @Document(collection = "audit_logs")
+@CompoundIndex(name = "entity_id", def = "{'entity': 1, '_id': 1}")
 @SuppressWarnings("unused")
 public class AuditLog {
     @Id
@@ -14,5 +17,6 @@ public class AuditLog {
     private String entity;
     private String entityId;
     private String userId;
+    @Indexed
     private String timestamp;
 }
\ No newline at end of file
@@ -1,15 +1,24 @@
 package com.dlvery.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 
 @Document(collection = "deliveries")
+// agentId_status also serves findByAgentId through its prefix.
+@CompoundIndexes({
+        @CompoundIndex(name = "agentId_status", def = "{'agentId': 1, 'status': 1}"),
+        @CompoundIndex(name = "status_deliveryDate", def = "{'status': 1, 'deliveryDate': 1}")
+})
 public class Delivery {
 
     @Id
     private String id;
+    @Indexed
     private String sku;
     private int quantity;
     private String agentId;
@@ -0,0 +1,75 @@
+package com.dlvery.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/** One rollup bucket: the deliveries of one day with the same status, agent and SKU. */
+@Document(collection = "delivery_stats_daily")
+@CompoundIndex(name = "day_status_agentId_sku", def = "{'day': 1, 'status': 1, 'agentId': 1, 'sku': 1}", unique = true)
+public class DeliveryStatsDaily {
+    @Id
+    private String id;
+    private String day;
+    private String status;
+    private String agentId;
+    private String sku;
+    private long count;
+    private long quantity;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getDay() {
+        return day;
+    }
+
+    public void setDay(String day) {
+        this.day = day;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getAgentId() {
+        return agentId;
+    }
+
+    public void setAgentId(String agentId) {
+        this.agentId = agentId;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(long quantity) {
+        this.quantity = quantity;
+    }
+}
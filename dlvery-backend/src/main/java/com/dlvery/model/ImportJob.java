@@ -0,0 +1,243 @@
+package com.dlvery.model;
+
+import com.dlvery.dto.RowError;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Document(collection = "import_jobs")
+public class ImportJob {
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+    public static final String MODE_INSERT = "INSERT";
+    public static final String MODE_SYNC = "SYNC";
+    public static final String FORMAT_CSV = "CSV";
+    public static final String FORMAT_NDJSON = "NDJSON";
+
+    @Id
+    private String id;
+    private String fileName;
+    private String status;
+    private String mode;
+    private String format;
+    private String compression;
+    private String spoolPath;
+    private long fileSize;
+    private long decodedSize;
+    private long rowsProcessed;
+    private long inserted;
+    private long skippedDuplicates;
+    private long updated;
+    private long unchanged;
+    private long deleted;
+    private long skippedDeletes;
+    private long malformed;
+    private double rowsPerSecond;
+    private String message;
+    private List<RowError> errors = new ArrayList<>();
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    /** {@code gzip} or {@code zstd} when the upload was compressed, otherwise {@code null}. */
+    public String getCompression() {
+        return compression;
+    }
+
+    public void setCompression(String compression) {
+        this.compression = compression;
+    }
+
+    @JsonIgnore
+    public String getSpoolPath() {
+        return spoolPath;
+    }
+
+    public void setSpoolPath(String spoolPath) {
+        this.spoolPath = spoolPath;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    /** Size of the upload after decompression, as spooled to disk. */
+    public long getDecodedSize() {
+        return decodedSize;
+    }
+
+    public void setDecodedSize(long decodedSize) {
+        this.decodedSize = decodedSize;
+    }
+
+    public long getRowsProcessed() {
+        return rowsProcessed;
+    }
+
+    public void setRowsProcessed(long rowsProcessed) {
+        this.rowsProcessed = rowsProcessed;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(long inserted) {
+        this.inserted = inserted;
+    }
+
+    public long getSkippedDuplicates() {
+        return skippedDuplicates;
+    }
+
+    public void setSkippedDuplicates(long skippedDuplicates) {
+        this.skippedDuplicates = skippedDuplicates;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(long updated) {
+        this.updated = updated;
+    }
+
+    public long getUnchanged() {
+        return unchanged;
+    }
+
+    public void setUnchanged(long unchanged) {
+        this.unchanged = unchanged;
+    }
+
+    public long getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(long deleted) {
+        this.deleted = deleted;
+    }
+
+    public long getSkippedDeletes() {
+        return skippedDeletes;
+    }
+
+    public void setSkippedDeletes(long skippedDeletes) {
+        this.skippedDeletes = skippedDeletes;
+    }
+
+    public long getMalformed() {
+        return malformed;
+    }
+
+    public void setMalformed(long malformed) {
+        this.malformed = malformed;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
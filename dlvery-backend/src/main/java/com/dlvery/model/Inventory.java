@@ -2,12 +2,16 @@
 package com.dlvery.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "inventory")
+@CompoundIndex(name = "category_id", def = "{'category': 1, '_id': 1}")
 public class Inventory {
     @Id
     private String id;
+    @Indexed(unique = true)
     private String sku;
     private String name;
     private String category;
@@ -16,6 +20,7 @@ public class Inventory {
     private String expiryDate;
     private int quantity;
     private int lowStockThreshold;
+    private Long version;
 
     public String getId() {
         return id;
@@ -88,4 +93,12 @@ public class Inventory {
     public void setLowStockThreshold(int lowStockThreshold) {
         this.lowStockThreshold = lowStockThreshold;
     }
-}
\ No newline at end of file
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,39 @@
+package com.dlvery.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/** Content hash of the last synced supplier row for one SKU; the id is the SKU itself. */
+@Document(collection = "inventory_fingerprints")
+public class InventoryFingerprint {
+    @Id
+    private String sku;
+    private long hash;
+    private LocalDateTime syncedAt;
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    public void setHash(long hash) {
+        this.hash = hash;
+    }
+
+    public LocalDateTime getSyncedAt() {
+        return syncedAt;
+    }
+
+    public void setSyncedAt(LocalDateTime syncedAt) {
+        this.syncedAt = syncedAt;
+    }
+}
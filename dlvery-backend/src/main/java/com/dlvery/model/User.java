@@ -1,6 +1,7 @@
 package com.dlvery.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import com.fasterxml.jackson.annotation.JsonIgnore; // ADDED: To prevent password serialization
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties; // ADDED: To handle MongoDB proxies
@@ -10,10 +11,13 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties; // ADDED: To handl
 public class User {
     @Id
     private String id;
+    @Indexed(unique = true)
     private String username;
     private String password;
+    @Indexed(unique = true, sparse = true)
     private String email;
     private String role;
+    @Indexed(sparse = true)
     private String agentId;
 
     // Default constructor
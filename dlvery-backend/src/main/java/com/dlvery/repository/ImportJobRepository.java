@@ -0,0 +1,7 @@
+package com.dlvery.repository;
+
+import com.dlvery.model.ImportJob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface ImportJobRepository extends MongoRepository<ImportJob, String> {
+}
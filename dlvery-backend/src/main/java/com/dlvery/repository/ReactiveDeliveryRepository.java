@@ -0,0 +1,11 @@
+package com.dlvery.repository;
+
+import com.dlvery.model.Delivery;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveDeliveryRepository extends ReactiveMongoRepository<Delivery, String> {
+    Flux<Delivery> findBySku(String sku);
+
+    Flux<Delivery> findByAgentId(String agentId);
+}
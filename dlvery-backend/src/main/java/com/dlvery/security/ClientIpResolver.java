@@ -0,0 +1,80 @@
+package com.dlvery.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the address of the client that sent a request when the app sits behind load balancers. The
+ * {@code X-Forwarded-For} header is only believed when the direct peer is a trusted proxy, and is then read
+ * from the right, skipping further trusted proxies, so a client cannot pick its own address by sending the
+ * header itself. With no trusted proxies configured the peer address is used as is.
+ * <p>
+ * Only loopback is trusted by default. The load balancer's address ranges must be listed explicitly in
+ * {@code security.trusted-proxies}: trusting a whole private range would let any client inside it choose
+ * its own per-IP login bucket by sending the header.
+ */
+@Component
+public class ClientIpResolver {
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+    /** Only literal addresses are matched: anything else would make {@link IpAddressMatcher} resolve it through DNS. */
+    private static final Pattern IP_LITERAL = Pattern.compile("[0-9A-Fa-f:.]+");
+
+    /** Comma-separated addresses or CIDR ranges of the proxies in front of the app. */
+    @Value("${security.trusted-proxies:127.0.0.0/8,::1}")
+    private String trustedProxies = "127.0.0.0/8,::1";
+
+    private final List<IpAddressMatcher> matchers = new ArrayList<>();
+
+    @PostConstruct
+    public void init() {
+        matchers.clear();
+        for (String proxy : trustedProxies.split(",")) {
+            if (!proxy.isBlank()) {
+                matchers.add(new IpAddressMatcher(proxy.trim()));
+            }
+        }
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String client = request.getRemoteAddr();
+        String forwardedFor = request.getHeader(FORWARDED_FOR);
+        if (!isTrusted(client) || forwardedFor == null) {
+            return client;
+        }
+        String[] hops = forwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                continue;
+            }
+            client = hop;
+            if (!isTrusted(hop)) {
+                break;
+            }
+        }
+        return client;
+    }
+
+    private boolean isTrusted(String address) {
+        if (address == null || !IP_LITERAL.matcher(address).matches()) {
+            return false;
+        }
+        for (IpAddressMatcher matcher : matchers) {
+            try {
+                if (matcher.matches(address)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+}
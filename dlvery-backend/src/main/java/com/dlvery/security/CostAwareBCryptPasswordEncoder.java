@@ -0,0 +1,41 @@
+package com.dlvery.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder that asks for a re-encode whenever a stored hash was made with a different cost than
+ * the configured one, lower or higher. Spring Security's {@code DaoAuthenticationProvider} then
+ * rehashes the password on the next successful login through {@code UserDetailsPasswordService}.
+ */
+public class CostAwareBCryptPasswordEncoder extends BCryptPasswordEncoder {
+    private static final Pattern BCRYPT = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}$");
+
+    private final int strength;
+
+    public CostAwareBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int cost = costOf(encodedPassword);
+        return cost > 0 && cost != strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    /** Returns the cost factor of a BCrypt hash, or -1 if the value is not a BCrypt hash. */
+    public static int costOf(String encodedPassword) {
+        if (encodedPassword == null) {
+            return -1;
+        }
+        Matcher matcher = BCRYPT.matcher(encodedPassword);
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+}
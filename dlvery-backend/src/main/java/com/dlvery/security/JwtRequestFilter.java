@@ -121,7 +121,12 @@
 
 package com.dlvery.security;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -134,6 +139,8 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -142,26 +149,49 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /** Fraction of authenticated API requests logged at INFO; 0 disables request logging. */
+    @Value("${jwt.filter.log-sample-rate:0}")
+    private double logSampleRate;
+
+    private Timer validTokens;
+    private Timer invalidTokens;
+
     private static final Logger logger = LoggerFactory.getLogger(JwtRequestFilter.class);
 
     // ADDED: Define public endpoints to skip
     private static final String[] PUBLIC_ENDPOINTS = {"/api/auth/", "/api/health"};
 
+    @PostConstruct
+    public void initMetrics() {
+        validTokens = Timer.builder("auth.jwt.validation").description("Time to verify a bearer token and read its claims")
+                .tag("outcome", "valid").register(meterRegistry);
+        invalidTokens = Timer.builder("auth.jwt.validation").description("Time to verify a bearer token and read its claims")
+                .tag("outcome", "invalid").register(meterRegistry);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
         String authHeader = request.getHeader("Authorization");
         String username = null;
+        String role = null;
         String jwt = null;
-
-        logger.debug("Processing request for URI: {}", request.getRequestURI());
-        logger.debug("Authorization header: {}", authHeader);
+        // Checked once per request; the header and token are never logged.
+        boolean debug = logger.isDebugEnabled();
+        String requestURI = request.getRequestURI();
+        if (debug) {
+            logger.debug("Processing request for URI: {}", requestURI);
+        }
 
         // ADDED: Skip filtering for public endpoints
-        String requestURI = request.getRequestURI();
         for (String publicEndpoint : PUBLIC_ENDPOINTS) {
             if (requestURI.startsWith(publicEndpoint)) {
-                logger.debug("Skipping JWT filter for public endpoint: {}", requestURI);
+                if (debug) {
+                    logger.debug("Skipping JWT filter for public endpoint: {}", requestURI);
+                }
                 chain.doFilter(request, response);
                 return;
             }
@@ -169,31 +199,38 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             jwt = authHeader.substring(7);
-            logger.debug("Extracted JWT: {}", jwt.substring(0, Math.min(jwt.length(), 10)) + "...");
+            long start = System.nanoTime();
             try {
-                username = jwtUtil.getUsernameFromToken(jwt);
-                logger.debug("Extracted username: {}", username);
+                // Single verification pass; subject and role come from the same (possibly cached) claims.
+                Claims claims = jwtUtil.parseClaims(jwt);
+                validTokens.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                username = claims.getSubject();
+                role = claims.get("role", String.class);
             } catch (Exception e) {
-                logger.error("Failed to extract username from token: {}", e.getMessage());
+                // Expired and forged tokens are counted by auth.jwt.validation{outcome=invalid}; logging each
+                // one at ERROR let a client flood the log.
+                invalidTokens.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                if (debug) {
+                    logger.debug("Token validation failed for URI {}: {}", requestURI, e.getMessage());
+                }
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (jwtUtil.validateToken(jwt)) {
-                String role = jwtUtil.getRoleFromToken(jwt);
-                logger.debug("Extracted role: {}", role);
-                UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                        username, null, Collections.singletonList(new SimpleGrantedAuthority(role)));
-                auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(auth);
+        if (username != null && role != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
+                    username, null, Collections.singletonList(new SimpleGrantedAuthority(role)));
+            auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(auth);
+            if (debug) {
                 logger.debug("Authentication set for user: {} with role: {}", username, role);
-            } else {
-                logger.debug("Token validation failed for user: {}", username);
             }
-        } else {
+        } else if (debug) {
             logger.debug("No authentication set: username={}, auth={}",
                     username, SecurityContextHolder.getContext().getAuthentication());
         }
+        if (logSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+            logger.info("Sampled request: {} {} user={} role={}", request.getMethod(), requestURI, username, role);
+        }
         chain.doFilter(request, response);
     }
 }
\ No newline at end of file
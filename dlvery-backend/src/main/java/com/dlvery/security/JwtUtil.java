@@ -1,10 +1,22 @@
 package com.dlvery.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import javax.crypto.SecretKey;
 import org.slf4j.Logger; // ADDED: For debugging
 import org.slf4j.LoggerFactory; // ADDED: For debugging
@@ -15,9 +27,21 @@ public class JwtUtil {
     @Value("${jwt.secret}")
     private String secret;
 
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private long claimsCacheMaxSize = 10000;
+
+    @Value("${jwt.claims-cache.max-ttl-seconds:300}")
+    private long claimsCacheMaxTtlSeconds = 300;
+
     // ADDED: Logger to debug issues
     private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
 
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private Cache<String, Claims> claimsCache;
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
     // ADDED: Ensure secret is initialized
     @PostConstruct
     public void init() {
@@ -25,13 +49,18 @@ public class JwtUtil {
             logger.error("JWT secret is not configured properly");
             throw new IllegalStateException("JWT secret must be configured in application.properties");
         }
+        // The key and parser are immutable and thread-safe, so they are built once instead of per call.
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        if (claimsCacheMaxSize > 0) {
+            claimsCache = Caffeine.newBuilder()
+                    .maximumSize(claimsCacheMaxSize)
+                    .expireAfter(new ClaimsExpiry(TimeUnit.SECONDS.toNanos(claimsCacheMaxTtlSeconds)))
+                    .build();
+        }
         logger.info("JWT secret loaded successfully");
     }
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
-    }
-
     public String generateToken(String username, String role) {
         // ADDED: Log to ensure secret is loaded
         logger.debug("Generating token for username: {}, role: {}, secret: {}", username, role, secret != null ? "loaded" : "null");
@@ -40,31 +69,43 @@ public class JwtUtil {
                 .claim("role", role)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + 86400000))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * Verifies the token once and returns its claims. Verified claims are cached by the SHA-256 of the
+     * token until the token expires (or the cache TTL passes), so repeat calls skip signature checks.
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims parseClaims(String token) {
+        if (claimsCache == null) {
+            return parser.parseSignedClaims(token).getPayload();
+        }
+        String key = tokenHash(token);
+        Claims claims = claimsCache.getIfPresent(key);
+        if (claims != null && !isExpired(claims)) {
+            cacheHits.increment();
+            return claims;
+        }
+        cacheMisses.increment();
+        claims = parser.parseSignedClaims(token).getPayload();
+        claimsCache.put(key, claims);
+        return claims;
+    }
+
     public String getUsernameFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        return parseClaims(token).getSubject();
     }
 
     public String getRoleFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .get("role", String.class);
+        return parseClaims(token).get("role", String.class);
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parser().verifyWith(getSigningKey()).build().parseSignedClaims(token);
+            parseClaims(token);
             return true;
         } catch (Exception e) {
             // ADDED: Log validation errors
@@ -72,4 +113,59 @@ public class JwtUtil {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    public long getCacheSize() {
+        return claimsCache == null ? 0 : claimsCache.estimatedSize();
+    }
+
+    private static boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.getTime() <= System.currentTimeMillis();
+    }
+
+    private static String tokenHash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /** Evicts cached claims no later than the token's own expiry. */
+    private static class ClaimsExpiry implements Expiry<String, Claims> {
+        private final long maxTtlNanos;
+
+        ClaimsExpiry(long maxTtlNanos) {
+            this.maxTtlNanos = maxTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return maxTtlNanos;
+            }
+            long remaining = TimeUnit.MILLISECONDS.toNanos(expiration.getTime() - System.currentTimeMillis());
+            return Math.max(0, Math.min(remaining, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.dlvery.service;
+
+import com.dlvery.dto.CursorPage;
+import com.dlvery.exception.BadRequestException;
+import com.dlvery.model.AuditLog;
+import com.dlvery.util.MongoPaging;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.stream.Stream;
+
+@Service
+public class AuditLogService {
+    // Audit reads are reporting queries; they may lag the primary slightly.
+    @Autowired
+    @Qualifier("reportMongoTemplate")
+    private MongoTemplate mongoTemplate;
+
+    public CursorPage<AuditLog> getPage(String after, Integer limit, String entity, String from, String to) {
+        return MongoPaging.page(mongoTemplate, filter(entity, from, to), after, limit, AuditLog.class, AuditLog::getId);
+    }
+
+    /** Streams matching audit logs off a server-side cursor; the caller must close the stream. */
+    public Stream<AuditLog> stream(String entity, String from, String to) {
+        return mongoTemplate.stream(MongoPaging.streamQuery(filter(entity, from, to)), AuditLog.class);
+    }
+
+    /**
+     * Builds the audit log filter. Timestamps are stored as ISO-8601 strings, so range bounds are compared
+     * as strings; a date-only {@code to} includes the whole day.
+     */
+    Criteria filter(String entity, String from, String to) {
+        Criteria criteria = new Criteria();
+        if (entity != null && !entity.isEmpty()) {
+            criteria.and("entity").is(entity);
+        }
+        if (from != null || to != null) {
+            Criteria timestamp = criteria.and("timestamp");
+            if (from != null) {
+                timestamp.gte(parseBound(from, false));
+            }
+            if (to != null) {
+                timestamp.lt(parseBound(to, true));
+            }
+        }
+        return criteria;
+    }
+
+    private static String parseBound(String value, boolean upper) {
+        try {
+            if (value.length() == 10) {
+                LocalDate date = LocalDate.parse(value);
+                return (upper ? date.plusDays(1) : date).atStartOfDay().toString();
+            }
+            LocalDateTime dateTime = LocalDateTime.parse(value);
+            return (upper ? dateTime.plusNanos(1) : dateTime).toString();
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid date format: " + value);
+        }
+    }
+}
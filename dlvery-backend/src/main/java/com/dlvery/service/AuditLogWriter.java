@@ -0,0 +1,187 @@
+package com.dlvery.service;
+
+import com.dlvery.model.AuditLog;
+import com.dlvery.util.MpscRingBuffer;
+import com.dlvery.util.ThreadFactories;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Takes audit events off the request path. Events go into a bounded lock-free ring buffer and a single
+ * background thread writes them with one {@code insertAll} per batch, either when a batch fills up or
+ * when the flush interval elapses. What happens when the buffer is full is set by the overflow policy:
+ * {@code DROP} discards the event, {@code BLOCK} waits up to the block timeout before dropping, and
+ * {@code CALLER_RUNS} writes it synchronously on the calling thread. Pending events are flushed on shutdown.
+ */
+@Component
+public class AuditLogWriter {
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+    public static final String DROP = "DROP";
+    public static final String BLOCK = "BLOCK";
+    public static final String CALLER_RUNS = "CALLER_RUNS";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${audit.writer.capacity:8192}")
+    private int capacity = 8192;
+
+    @Value("${audit.writer.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${audit.writer.flush-interval-ms:200}")
+    private long flushIntervalMs = 200;
+
+    @Value("${audit.writer.overflow-policy:BLOCK}")
+    private String overflowPolicy = BLOCK;
+
+    @Value("${audit.writer.block-timeout-ms:50}")
+    private long blockTimeoutMs = 50;
+
+    @Value("${audit.writer.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs = 10000;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private MpscRingBuffer<AuditLog> buffer;
+    private Thread consumer;
+    private volatile boolean running;
+    private Counter dropped;
+    private Counter failed;
+    private Timer flushTimer;
+
+    @PostConstruct
+    public void start() {
+        buffer = new MpscRingBuffer<>(capacity);
+        Gauge.builder("audit.queue.depth", buffer, MpscRingBuffer::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+        dropped = Counter.builder("audit.dropped").description("Audit events discarded because the queue was full")
+                .register(meterRegistry);
+        failed = Counter.builder("audit.write.failed").description("Audit events lost to failed batch inserts")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("audit.flush").description("Latency of one batched audit insert")
+                .register(meterRegistry);
+        running = true;
+        consumer = ThreadFactories.named("audit-writer-", virtualThreads).newThread(this::drainLoop);
+        consumer.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (consumer.isAlive()) {
+            logger.warn("Audit writer did not finish within {} ms, {} events left unwritten", shutdownTimeoutMs, buffer.size());
+        }
+    }
+
+    /** Queues an audit event. Never throws; an event rejected by the overflow policy is counted as dropped. */
+    public void write(AuditLog log) {
+        if (buffer.offer(log)) {
+            if (buffer.size() >= batchSize) {
+                LockSupport.unpark(consumer);
+            }
+            return;
+        }
+        switch (overflowPolicy.toUpperCase()) {
+            case CALLER_RUNS -> insert(List.of(log));
+            case BLOCK -> {
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+                LockSupport.unpark(consumer);
+                while (!buffer.offer(log)) {
+                    if (System.nanoTime() - deadline >= 0) {
+                        drop(log);
+                        return;
+                    }
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+                }
+            }
+            default -> drop(log);
+        }
+    }
+
+    public int getQueueDepth() {
+        return buffer.size();
+    }
+
+    public long getDropped() {
+        return (long) dropped.count();
+    }
+
+    private void drop(AuditLog log) {
+        dropped.increment();
+        // Under sustained overload every event would log; report the first drop and then every 1000th.
+        long total = (long) dropped.count();
+        if (total == 1 || total % 1000 == 0) {
+            logger.warn("Audit queue full, dropped {} event for {} {} ({} dropped so far)",
+                    log.getAction(), log.getEntity(), log.getEntityId(), total);
+        }
+    }
+
+    private void drainLoop() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        long lastFlush = System.nanoTime();
+        while (running) {
+            buffer.drainTo(batch, batchSize - batch.size());
+            long now = System.nanoTime();
+            if (batch.size() >= batchSize || (!batch.isEmpty() && now - lastFlush >= flushIntervalNanos)) {
+                insert(batch);
+                batch.clear();
+                lastFlush = now;
+            } else {
+                LockSupport.parkNanos(this, Math.max(0, flushIntervalNanos - (now - lastFlush)));
+            }
+        }
+        // Shutdown: producers may still be publishing slots they already claimed, so drain until empty.
+        while (true) {
+            buffer.drainTo(batch, batchSize - batch.size());
+            if (batch.size() >= batchSize || (buffer.size() == 0 && !batch.isEmpty())) {
+                insert(batch);
+                batch.clear();
+            } else if (buffer.size() == 0) {
+                break;
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        logger.info("Audit writer stopped");
+    }
+
+    private void insert(List<AuditLog> batch) {
+        long start = System.nanoTime();
+        try {
+            mongoTemplate.insertAll(batch);
+        } catch (RuntimeException e) {
+            failed.increment(batch.size());
+            logger.error("Failed to write {} audit events: {}", batch.size(), e.getMessage());
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
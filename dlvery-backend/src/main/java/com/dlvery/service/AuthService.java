@@ -36,10 +36,12 @@ public class AuthService {
             );
             User user = userService.findByUsername(userDTO.getUsername())
                     .orElseThrow(() -> new BadRequestException("Invalid credentials"));
-            String token = jwtUtil.generateToken(user.getUsername(), user.getRole());
+            // The role comes from the authentication just made, which is never served from the user cache.
+            String role = auth.getAuthorities().iterator().next().getAuthority();
+            String token = jwtUtil.generateToken(user.getUsername(), role);
             // ADDED: Log success
             logger.info("Login successful for username: {}", userDTO.getUsername());
-            return new AuthResponse(token, user.getRole(), user.getId(), user.getAgentId());
+            return new AuthResponse(token, role, user.getId(), user.getAgentId());
         } catch (Exception e) {
             // ADDED: Log error
             logger.error("Login failed for username: {}. Error: {}", userDTO.getUsername(), e.getMessage());
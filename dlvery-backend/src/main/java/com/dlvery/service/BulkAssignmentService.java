@@ -0,0 +1,330 @@
+package com.dlvery.service;
+
+import com.dlvery.dto.AssignmentRequest;
+import com.dlvery.dto.AssignmentResult;
+import com.dlvery.dto.BulkAssignmentResult;
+import com.dlvery.exception.BadRequestException;
+import com.dlvery.model.Delivery;
+import com.dlvery.model.Inventory;
+import com.dlvery.util.ThreadFactories;
+import com.dlvery.repository.InventoryRepository;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Assigns many parcels in one call. Items are grouped by SKU so each SKU costs one conditional stock
+ * decrement for the whole group (groups are reserved concurrently), and all resulting deliveries are
+ * written with a single unordered bulk insert. Every item gets its own result, in request order.
+ */
+@Service
+public class BulkAssignmentService {
+    private static final Logger logger = LoggerFactory.getLogger(BulkAssignmentService.class);
+    private static final int PARTIAL_RETRIES = 3;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private DeliveryStatsService deliveryStatsService;
+
+    @Autowired
+    private DeliveryEventService deliveryEventService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${inventory.assign.max-batch-size:10000}")
+    private int maxBatchSize = 10000;
+
+    /** Largest quantity one item may ask for, so a group's total stays far from overflowing. */
+    @Value("${inventory.assign.max-item-quantity:100000}")
+    private int maxItemQuantity = 100000;
+
+    @Value("${inventory.assign.parallelism:4}")
+    private int parallelism = 4;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newFixedThreadPool(parallelism, ThreadFactories.named("bulk-assign-", virtualThreads));
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    /** Reads newline-delimited JSON assignments, one object per line. */
+    public List<AssignmentRequest> readNdjson(InputStream in) {
+        List<AssignmentRequest> requests = new ArrayList<>();
+        try (MappingIterator<AssignmentRequest> iterator = objectMapper.readerFor(AssignmentRequest.class).readValues(in)) {
+            while (iterator.hasNext()) {
+                if (requests.size() >= maxBatchSize) {
+                    throw new BadRequestException("At most " + maxBatchSize + " assignments per request");
+                }
+                requests.add(iterator.next());
+            }
+        } catch (IOException | RuntimeException e) {
+            if (e instanceof BadRequestException) {
+                throw (BadRequestException) e;
+            }
+            throw new BadRequestException("Invalid NDJSON assignment payload: " + e.getMessage());
+        }
+        return requests;
+    }
+
+    public BulkAssignmentResult assign(List<AssignmentRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BadRequestException("No assignments supplied");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new BadRequestException("At most " + maxBatchSize + " assignments per request");
+        }
+        AssignmentResult[] results = new AssignmentResult[requests.size()];
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            AssignmentRequest request = requests.get(i);
+            results[i] = new AssignmentResult(i, request.getSku());
+            String invalid = validate(request);
+            if (invalid != null) {
+                reject(results[i], invalid);
+            } else {
+                groups.computeIfAbsent(request.getSku(), sku -> new ArrayList<>()).add(i);
+            }
+        }
+
+        List<CompletableFuture<List<Integer>>> reservations = new ArrayList<>();
+        RuntimeException failure = null;
+        for (Map.Entry<String, List<Integer>> group : groups.entrySet()) {
+            try {
+                reservations.add(CompletableFuture.supplyAsync(
+                        () -> reserveGroup(group.getKey(), group.getValue(), requests, results), executor));
+            } catch (RuntimeException e) {
+                failure = e;
+                break;
+            }
+        }
+        // Every submitted group is awaited, even after a failure, so no reservation is left unaccounted for.
+        List<Integer> accepted = new ArrayList<>();
+        for (CompletableFuture<List<Integer>> reservation : reservations) {
+            try {
+                accepted.addAll(reservation.join());
+            } catch (CompletionException e) {
+                RuntimeException cause = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+                if (failure == null) {
+                    failure = cause;
+                } else {
+                    failure.addSuppressed(cause);
+                }
+            }
+        }
+        if (failure != null) {
+            releaseReserved(accepted, requests, failure);
+            throw failure;
+        }
+        accepted.sort(null);
+
+        if (!accepted.isEmpty()) {
+            insertDeliveries(accepted, requests, results);
+        }
+        BulkAssignmentResult result = new BulkAssignmentResult(Arrays.asList(results));
+        logger.info("Bulk assignment: items={}, skus={}, assigned={}, rejected={}",
+                requests.size(), groups.size(), result.getAssigned(), result.getRejected());
+        return result;
+    }
+
+    /**
+     * Reserves stock for every item of one SKU. The whole group is tried first; when stock is short the
+     * items that fit the available quantity (in request order) are reserved together and the rest rejected.
+     * Any other failure, such as MongoDB being unreachable, rejects the whole group; stock is only ever
+     * reserved by the last step, so nothing is held for a rejected group.
+     */
+    private List<Integer> reserveGroup(String sku, List<Integer> indices, List<AssignmentRequest> requests, AssignmentResult[] results) {
+        try {
+            return reserveGroupOrPartial(sku, indices, requests, results);
+        } catch (RuntimeException e) {
+            logger.warn("Reservation for SKU {} failed: {}", sku, e.getMessage());
+            rejectAll(indices, results, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private List<Integer> reserveGroupOrPartial(String sku, List<Integer> indices, List<AssignmentRequest> requests,
+                                                AssignmentResult[] results) {
+        long total = total(indices, requests);
+        // A total past int range cannot be in stock; go straight to reserving the items that fit.
+        if (total <= Integer.MAX_VALUE) {
+            try {
+                stockReservationService.reserve(sku, (int) total);
+                return indices;
+            } catch (BadRequestException e) {
+                logger.debug("Group reservation for SKU {} failed, trying partial: {}", sku, e.getMessage());
+            }
+        }
+        for (int attempt = 0; attempt < PARTIAL_RETRIES; attempt++) {
+            Optional<Inventory> current = inventoryRepository.findBySku(sku);
+            if (current.isEmpty()) {
+                rejectAll(indices, results, "Inventory item not found for SKU: " + sku);
+                return List.of();
+            }
+            List<Integer> fitting = new ArrayList<>();
+            long sum = 0;
+            for (int index : indices) {
+                int quantity = requests.get(index).getQuantity();
+                if (sum + quantity <= current.get().getQuantity()) {
+                    fitting.add(index);
+                    sum += quantity;
+                }
+            }
+            if (fitting.isEmpty()) {
+                break;
+            }
+            try {
+                stockReservationService.reserve(sku, (int) sum);
+                List<Integer> rest = new ArrayList<>(indices);
+                rest.removeAll(fitting);
+                rejectAll(rest, results, "Insufficient stock for SKU: " + sku);
+                return fitting;
+            } catch (BadRequestException e) {
+                logger.debug("Partial reservation for SKU {} lost a race, retrying", sku);
+            }
+        }
+        rejectAll(indices, results, "Insufficient stock for SKU: " + sku);
+        return List.of();
+    }
+
+    /** Gives back the stock of every accepted item after the request failed before any delivery was written. */
+    private void releaseReserved(List<Integer> accepted, List<AssignmentRequest> requests, RuntimeException failure) {
+        Map<String, Long> reserved = new LinkedHashMap<>();
+        for (int index : accepted) {
+            reserved.merge(requests.get(index).getSku(), (long) requests.get(index).getQuantity(), Long::sum);
+        }
+        reserved.forEach((sku, quantity) -> {
+            try {
+                // Each total was reserved as one int, so it fits.
+                stockReservationService.release(sku, Math.toIntExact(quantity));
+            } catch (RuntimeException e) {
+                logger.error("Could not release {} units of SKU {} after a failed bulk assignment", quantity, sku, e);
+                failure.addSuppressed(e);
+            }
+        });
+    }
+
+    private void insertDeliveries(List<Integer> accepted, List<AssignmentRequest> requests, AssignmentResult[] results) {
+        List<Delivery> deliveries = new ArrayList<>(accepted.size());
+        for (int index : accepted) {
+            AssignmentRequest request = requests.get(index);
+            Delivery delivery = InventoryServiceImpl.pendingDelivery(request.getSku(), request.getQuantity(),
+                    request.getAgentId(), request.getCustomerName(), request.getAddress());
+            // Ids are assigned up front so every result can name its delivery without re-reading it.
+            delivery.setId(new ObjectId().toHexString());
+            deliveries.add(delivery);
+        }
+        boolean[] failed = new boolean[deliveries.size()];
+        String failure = null;
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Delivery.class).insert(deliveries).execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                failed[error.getIndex()] = true;
+                failure = error.getMessage();
+            }
+        } catch (RuntimeException e) {
+            Arrays.fill(failed, true);
+            failure = e.getMessage();
+        }
+        Map<String, Long> toRelease = new LinkedHashMap<>();
+        List<Delivery> created = new ArrayList<>(deliveries.size());
+        for (int i = 0; i < deliveries.size(); i++) {
+            AssignmentResult result = results[accepted.get(i)];
+            Delivery delivery = deliveries.get(i);
+            if (failed[i]) {
+                toRelease.merge(delivery.getSku(), (long) delivery.getQuantity(), Long::sum);
+                reject(result, "Failed to create delivery: " + failure);
+            } else {
+                result.setStatus(AssignmentResult.ASSIGNED);
+                result.setDeliveryId(delivery.getId());
+                created.add(delivery);
+            }
+        }
+        toRelease.forEach((sku, quantity) -> stockReservationService.release(sku, Math.toIntExact(quantity)));
+        deliveryStatsService.recordCreated(created);
+        deliveryEventService.publishCreated(created);
+    }
+
+    private String validate(AssignmentRequest request) {
+        if (request.getSku() == null || request.getSku().isBlank()) {
+            return "SKU is required";
+        }
+        if (request.getQuantity() <= 0) {
+            return "Quantity must be positive";
+        }
+        if (request.getQuantity() > maxItemQuantity) {
+            return "Quantity must be at most " + maxItemQuantity;
+        }
+        if (request.getAgentId() == null || request.getAgentId().isBlank()) {
+            return "Agent ID is required";
+        }
+        if (request.getCustomerName() == null || request.getCustomerName().isBlank()) {
+            return "Customer name is required";
+        }
+        if (request.getAddress() == null || request.getAddress().isBlank()) {
+            return "Address is required";
+        }
+        return null;
+    }
+
+    private static long total(List<Integer> indices, List<AssignmentRequest> requests) {
+        long total = 0;
+        for (int index : indices) {
+            total += requests.get(index).getQuantity();
+        }
+        return total;
+    }
+
+    private static void rejectAll(List<Integer> indices, AssignmentResult[] results, String message) {
+        for (int index : indices) {
+            reject(results[index], message);
+        }
+    }
+
+    private static void reject(AssignmentResult result, String message) {
+        result.setStatus(AssignmentResult.REJECTED);
+        result.setMessage(message);
+    }
+}
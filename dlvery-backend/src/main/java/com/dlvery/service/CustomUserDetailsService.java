@@ -4,6 +4,7 @@ import com.dlvery.model.User;
 import com.dlvery.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -14,22 +15,26 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import java.util.Collections;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private static final Logger logger = LoggerFactory.getLogger(CustomUserDetailsService.class);
 
+    @Autowired
+    private UserCache userCache;
+
     @Autowired
     private UserRepository userRepository;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         logger.debug("Loading user by username: {}", username);
+        // Never cached: a changed password or role must take effect on the next login, on every instance.
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> {
                     logger.error("User not found: {}", username);
                     return new UsernameNotFoundException("User not found: " + username);
                 });
-        logger.info("User loaded: {}", username);
+        logger.debug("User loaded: {}", username);
         // ADDED: Log the role being assigned
         logger.debug("Assigning authority: {}", user.getRole());
         return new org.springframework.security.core.userdetails.User(
@@ -38,4 +43,21 @@ public class CustomUserDetailsService implements UserDetailsService {
                 Collections.singletonList(new SimpleGrantedAuthority(user.getRole()))
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Called by Spring Security after a successful login whose stored hash was made with a different
+     * BCrypt cost than the configured one; stores the re-encoded password.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        userRepository.findByUsername(userDetails.getUsername()).ifPresent(user -> {
+            user.setPassword(newPassword);
+            userRepository.save(user);
+            userCache.evict(user.getUsername());
+            logger.info("Rehashed password for {} at the configured BCrypt cost", user.getUsername());
+        });
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails)
+                .password(newPassword)
+                .build();
+    }
+}
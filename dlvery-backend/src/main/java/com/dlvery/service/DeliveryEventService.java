@@ -0,0 +1,113 @@
+package com.dlvery.service;
+
+import com.dlvery.dto.DeliveryEvent;
+import com.dlvery.model.Delivery;
+import com.dlvery.repository.DeliveryRepository;
+import com.dlvery.util.SseFanout;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Pushes delivery assignments and status transitions to subscribed agents over Server-Sent Events, so
+ * agent apps no longer need to poll {@code /api/delivery/agent}. A new subscriber first receives a
+ * {@code SNAPSHOT} of its current deliveries, then one event per change. Events fan out through an
+ * {@link SseFanout} with a bounded buffer per subscriber; a subscriber that falls behind loses its oldest
+ * events and is sent a {@code RESYNC} event telling it to re-read its deliveries once. Events may repeat
+ * what the snapshot already contains, so clients should apply them by delivery id.
+ */
+@Service
+public class DeliveryEventService {
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${delivery.events.buffer-capacity:256}")
+    private int bufferCapacity = 256;
+
+    @Value("${delivery.events.dispatch-threads:4}")
+    private int dispatchThreads = 4;
+
+    @Value("${delivery.events.timeout-ms:1800000}")
+    private long timeoutMs = 1800000;
+
+    @Value("${delivery.events.heartbeat-seconds:20}")
+    private long heartbeatSeconds = 20;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private SseFanout<DeliveryEvent> fanout;
+
+    @PostConstruct
+    public void start() {
+        fanout = new SseFanout<>("delivery-events", DeliveryEvent::getType, dispatchThreads, virtualThreads,
+                bufferCapacity, timeoutMs, heartbeatSeconds);
+        Gauge.builder("delivery.events.subscribers", fanout, SseFanout::getSubscriberCount)
+                .description("Open delivery event subscriptions")
+                .register(meterRegistry);
+        FunctionCounter.builder("delivery.events.dropped", fanout, SseFanout::getDropped)
+                .description("Delivery events dropped because a subscriber's buffer was full")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        fanout.close();
+    }
+
+    /** Opens an event stream for {@code agentId}, starting with a snapshot of the agent's deliveries. */
+    public SseEmitter subscribe(String agentId) {
+        return fanout.subscribe(agentId, () -> deliveryRepository.findByAgentId(agentId));
+    }
+
+    /** Publishes a newly created delivery to its agent. */
+    public void publishCreated(Delivery delivery) {
+        publish(delivery.getAgentId(), new DeliveryEvent(DeliveryEvent.ASSIGNED, delivery, null));
+    }
+
+    public void publishCreated(Collection<Delivery> deliveries) {
+        for (Delivery delivery : deliveries) {
+            publishCreated(delivery);
+        }
+    }
+
+    /**
+     * Publishes the transition from {@code before} to {@code after}: a reassignment notifies both agents,
+     * a status change notifies the assigned agent, and anything else is not pushed.
+     */
+    public void publishChanged(Delivery before, Delivery after) {
+        if (before == null) {
+            publishCreated(after);
+            return;
+        }
+        if (!Objects.equals(before.getAgentId(), after.getAgentId())) {
+            publish(before.getAgentId(), new DeliveryEvent(DeliveryEvent.UNASSIGNED, after, before.getStatus()));
+            publish(after.getAgentId(), new DeliveryEvent(DeliveryEvent.ASSIGNED, after, before.getStatus()));
+        } else if (!Objects.equals(before.getStatus(), after.getStatus())) {
+            publish(after.getAgentId(), new DeliveryEvent(DeliveryEvent.STATUS_CHANGED, after, before.getStatus()));
+        }
+    }
+
+    public int getSubscriberCount() {
+        return fanout.getSubscriberCount();
+    }
+
+    private void publish(String agentId, DeliveryEvent event) {
+        if (agentId != null) {
+            fanout.publish(agentId, event);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.dlvery.service;
+
+import com.dlvery.dto.DeliveryReport;
+import com.dlvery.dto.ReportGroup;
+import com.dlvery.exception.BadRequestException;
+import com.dlvery.model.Delivery;
+import com.dlvery.model.DeliveryStatsDaily;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.GroupOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivery reports computed inside MongoDB. A single pipeline filters by date range (and optionally
+ * status/agent), groups by one dimension and returns counts and quantity totals per group plus overall
+ * totals, so the response size depends on the number of groups rather than the number of deliveries.
+ * By default the pipeline runs over the {@code delivery_stats_daily} rollup kept by
+ * {@link DeliveryStatsService}; {@code reports.source=deliveries} aggregates the raw deliveries instead.
+ * Reports read through {@code reportMongoTemplate}, which may be served by a secondary, and are cut off
+ * after {@code reports.max-time-ms} on the server.
+ */
+@Service
+public class DeliveryReportService {
+    public static final String ROLLUP = "rollup";
+    public static final String DELIVERIES = "deliveries";
+
+    /** Report dimension to the field it groups on; only the day field is named differently in the rollup. */
+    static final Map<String, String> GROUP_FIELDS = Map.of(
+            "status", "status",
+            "sku", "sku",
+            "agent", "agentId",
+            "day", "day");
+
+    @Autowired
+    @Qualifier("reportMongoTemplate")
+    private MongoTemplate mongoTemplate;
+
+    @Value("${reports.max-groups:1000}")
+    private int maxGroups = 1000;
+
+    @Value("${reports.max-time-ms:15000}")
+    private long maxTimeMs = 15000;
+
+    @Value("${reports.source:rollup}")
+    private String source = ROLLUP;
+
+    /**
+     * @param top when set, only the {@code top} groups with the most deliveries are returned; totals still
+     *            cover every matching delivery
+     */
+    public DeliveryReport report(String groupBy, String startDate, String endDate, String status, String agentId, Integer top) {
+        String field = GROUP_FIELDS.get(groupBy);
+        if (field == null) {
+            throw new BadRequestException("Invalid groupBy: " + groupBy + ", expected one of " + GROUP_FIELDS.keySet());
+        }
+        if (top != null && (top <= 0 || top > maxGroups)) {
+            throw new BadRequestException("top must be between 1 and " + maxGroups);
+        }
+        LocalDate start = parseDate(startDate);
+        LocalDate end = parseDate(endDate);
+        if (end.isBefore(start)) {
+            throw new BadRequestException("endDate must not be before startDate");
+        }
+
+        boolean rollup = !DELIVERIES.equalsIgnoreCase(source);
+        String dayField = rollup ? "day" : "deliveryDate";
+        if ("day".equals(field)) {
+            field = dayField;
+        }
+        Criteria criteria = Criteria.where(dayField).gte(start.toString()).lte(end.toString());
+        if (status != null && !status.isEmpty()) {
+            criteria.and("status").is(status);
+        }
+        if (agentId != null && !agentId.isEmpty()) {
+            criteria.and("agentId").is(agentId);
+        }
+
+        List<AggregationOperation> groupStages = new ArrayList<>();
+        groupStages.add(totals(Aggregation.group(field), rollup));
+        // Rollup buckets whose deliveries all moved to another status remain with a zero count.
+        groupStages.add(Aggregation.match(Criteria.where("count").gt(0)));
+        groupStages.add(top != null
+                ? Aggregation.sort(Sort.by(Sort.Direction.DESC, "count").and(Sort.by("_id")))
+                : Aggregation.sort(Sort.by("_id")));
+        groupStages.add(Aggregation.limit(top != null ? top : maxGroups));
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(criteria),
+                Aggregation.facet(groupStages.toArray(new AggregationOperation[0])).as("groups")
+                        .and(totals(Aggregation.group(), rollup)).as("totals"))
+                .withOptions(AggregationOptions.builder().maxTime(Duration.ofMillis(maxTimeMs)).build());
+
+        Class<?> collection = rollup ? DeliveryStatsDaily.class : Delivery.class;
+        Document facets = mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(collection), Document.class)
+                .getUniqueMappedResult();
+        return toReport(facets, new DeliveryReport(groupBy, start.toString(), end.toString()));
+    }
+
+    private static GroupOperation totals(GroupOperation group, boolean rollup) {
+        return (rollup ? group.sum("count") : group.count()).as("count").sum("quantity").as("quantity");
+    }
+
+    static DeliveryReport toReport(Document facets, DeliveryReport report) {
+        if (facets == null) {
+            return report;
+        }
+        for (Document group : facets.getList("groups", Document.class, List.of())) {
+            Object key = group.get("_id");
+            report.getGroups().add(new ReportGroup(key == null ? null : key.toString(),
+                    number(group.get("count")), number(group.get("quantity"))));
+        }
+        List<Document> totals = facets.getList("totals", Document.class, List.of());
+        if (!totals.isEmpty()) {
+            report.setTotalCount(number(totals.get(0).get("count")));
+            report.setTotalQuantity(number(totals.get(0).get("quantity")));
+        }
+        return report;
+    }
+
+    private static long number(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value == null) {
+            throw new BadRequestException("startDate and endDate are required");
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid date format: " + value);
+        }
+    }
+}
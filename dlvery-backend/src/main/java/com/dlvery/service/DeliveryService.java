@@ -31,7 +31,6 @@ package com.dlvery.service;
 
 import com.dlvery.model.AuditLog;
 import com.dlvery.model.Delivery;
-import com.dlvery.repository.AuditLogRepository;
 import com.dlvery.repository.DeliveryRepository;
 import com.dlvery.exception.BadRequestException;
 import com.dlvery.exception.ResourceNotFoundException;
@@ -50,13 +49,19 @@ public class DeliveryService {
     @Autowired
     private DeliveryRepository deliveryRepository;
     @Autowired
-    private AuditLogRepository auditLogRepository;
+    private AuditLogWriter auditLogWriter;
+    @Autowired
+    private DeliveryStatsService deliveryStatsService;
+    @Autowired
+    private DeliveryEventService deliveryEventService;
 
     public Delivery addDelivery(Delivery delivery, String userId) {
         if (!VALID_STATUSES.contains(delivery.getStatus())) {
             throw new BadRequestException("Invalid status: " + delivery.getStatus());
         }
         Delivery saved = deliveryRepository.save(delivery);
+        deliveryStatsService.recordChange(null, saved);
+        deliveryEventService.publishCreated(saved);
         logAudit("ADD", "Delivery", saved.getId(), userId);
         logger.info("Delivery assigned: ID={}, Agent={}", saved.getId(), saved.getAgentId());
         return saved;
@@ -74,6 +79,8 @@ public class DeliveryService {
         }
         delivery.setId(id);
         Delivery updated = deliveryRepository.save(delivery);
+        deliveryStatsService.recordChange(existing, updated);
+        deliveryEventService.publishChanged(existing, updated);
         logAudit("UPDATE", "Delivery", id, userId);
         logger.info("Delivery updated: ID={}, Status={}", id, delivery.getStatus());
         return updated;
@@ -86,6 +93,6 @@ public class DeliveryService {
         log.setEntityId(entityId);
         log.setUserId(userId);
         log.setTimestamp(LocalDateTime.now().toString());
-        auditLogRepository.save(log);
+        auditLogWriter.write(log);
     }
 }
\ No newline at end of file
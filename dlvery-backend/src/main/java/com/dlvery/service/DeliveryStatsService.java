@@ -0,0 +1,156 @@
+package com.dlvery.service;
+
+import com.dlvery.dto.RollupRebuildStatus;
+import com.dlvery.exception.ServiceUnavailableException;
+import com.dlvery.model.Delivery;
+import com.dlvery.model.DeliveryStatsDaily;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.Fields;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Maintains the {@code delivery_stats_daily} rollup: delivery counts and quantity totals per day, status,
+ * agent and SKU. Every delivery write moves its contribution out of the old bucket and into the new one
+ * with {@code $inc} upserts, so reports read O(buckets) documents instead of scanning deliveries.
+ * A failed rollup update never fails the delivery write; it is logged and repaired by {@link #rebuild()}.
+ */
+@Service
+public class DeliveryStatsService {
+    private static final Logger logger = LoggerFactory.getLogger(DeliveryStatsService.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final AtomicReference<RollupRebuildStatus> rebuildStatus = new AtomicReference<>(new RollupRebuildStatus());
+
+    /** Applies one delivery change; {@code before} is null for a new delivery, {@code after} null for a removal. */
+    public void recordChange(Delivery before, Delivery after) {
+        Map<List<String>, long[]> deltas = new LinkedHashMap<>();
+        if (before != null) {
+            addDelta(deltas, before, -1);
+        }
+        if (after != null) {
+            addDelta(deltas, after, 1);
+        }
+        apply(deltas);
+    }
+
+    /** Adds newly created deliveries, merging those that fall in the same bucket into one update. */
+    public void recordCreated(Collection<Delivery> deliveries) {
+        Map<List<String>, long[]> deltas = new LinkedHashMap<>();
+        for (Delivery delivery : deliveries) {
+            addDelta(deltas, delivery, 1);
+        }
+        apply(deltas);
+    }
+
+    public RollupRebuildStatus getRebuildStatus() {
+        return rebuildStatus.get();
+    }
+
+    /** Starts {@link #rebuild()} on a background thread; only one rebuild runs at a time. */
+    public RollupRebuildStatus startRebuild() {
+        RollupRebuildStatus current = rebuildStatus.get();
+        RollupRebuildStatus running = new RollupRebuildStatus(RollupRebuildStatus.RUNNING, LocalDateTime.now());
+        if (RollupRebuildStatus.RUNNING.equals(current.getStatus()) || !rebuildStatus.compareAndSet(current, running)) {
+            throw new ServiceUnavailableException("A delivery stats rebuild is already running");
+        }
+        Thread thread = new Thread(() -> rebuild(running), "delivery-stats-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+        return running;
+    }
+
+    /**
+     * Recomputes the rollup from {@code deliveries} in one server-side pipeline ending in {@code $out},
+     * which swaps the collection atomically and keeps its indexes. Increments applied while the pipeline
+     * runs may be lost or counted twice; run it during quiet periods or repeat it.
+     */
+    public long rebuild() {
+        String target = mongoTemplate.getCollectionName(DeliveryStatsDaily.class);
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.group(Fields.from(Fields.field("day", "deliveryDate"), Fields.field("status"),
+                                Fields.field("agentId"), Fields.field("sku")))
+                        .count().as("count")
+                        .sum("quantity").as("quantity"),
+                Aggregation.project("count", "quantity")
+                        .and("_id.day").as("day")
+                        .and("_id.status").as("status")
+                        .and("_id.agentId").as("agentId")
+                        .and("_id.sku").as("sku")
+                        .andExclude("_id"),
+                Aggregation.out(target));
+        mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(Delivery.class), DeliveryStatsDaily.class);
+        long buckets = mongoTemplate.count(new Query(), DeliveryStatsDaily.class);
+        logger.info("Rebuilt {} from deliveries: {} buckets", target, buckets);
+        return buckets;
+    }
+
+    private void rebuild(RollupRebuildStatus running) {
+        RollupRebuildStatus finished;
+        try {
+            long buckets = rebuild();
+            finished = new RollupRebuildStatus(RollupRebuildStatus.COMPLETED, running.getStartedAt());
+            finished.setBuckets(buckets);
+        } catch (RuntimeException e) {
+            logger.error("Delivery stats rebuild failed: {}", e.getMessage(), e);
+            finished = new RollupRebuildStatus(RollupRebuildStatus.FAILED, running.getStartedAt());
+            finished.setMessage(e.getMessage());
+        }
+        finished.setFinishedAt(LocalDateTime.now());
+        rebuildStatus.set(finished);
+    }
+
+    private static void addDelta(Map<List<String>, long[]> deltas, Delivery delivery, int sign) {
+        List<String> key = Arrays.asList(delivery.getDeliveryDate(), delivery.getStatus(), delivery.getAgentId(), delivery.getSku());
+        long[] delta = deltas.computeIfAbsent(key, k -> new long[2]);
+        delta[0] += sign;
+        delta[1] += (long) sign * delivery.getQuantity();
+    }
+
+    private void apply(Map<List<String>, long[]> deltas) {
+        deltas.values().removeIf(delta -> delta[0] == 0 && delta[1] == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            if (deltas.size() == 1) {
+                Map.Entry<List<String>, long[]> entry = deltas.entrySet().iterator().next();
+                mongoTemplate.upsert(bucket(entry.getKey()), increment(entry.getValue()), DeliveryStatsDaily.class);
+                return;
+            }
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DeliveryStatsDaily.class);
+            deltas.forEach((key, delta) -> ops.upsert(bucket(key), increment(delta)));
+            ops.execute();
+        } catch (RuntimeException e) {
+            logger.error("Failed to update delivery stats for {} buckets, rebuild to repair: {}", deltas.size(), e.getMessage());
+        }
+    }
+
+    private static Query bucket(List<String> key) {
+        return Query.query(Criteria.where("day").is(key.get(0))
+                .and("status").is(key.get(1))
+                .and("agentId").is(key.get(2))
+                .and("sku").is(key.get(3)));
+    }
+
+    private static Update increment(long[] delta) {
+        return new Update().inc("count", delta[0]).inc("quantity", delta[1]);
+    }
+}
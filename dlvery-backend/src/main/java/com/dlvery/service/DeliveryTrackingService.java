@@ -0,0 +1,26 @@
+package com.dlvery.service;
+
+import com.dlvery.model.Delivery;
+import com.dlvery.repository.ReactiveDeliveryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking variant of the tracking reads in {@link InventoryService}. Results come from the reactive
+ * MongoDB driver, so no servlet thread waits on the round trip; both variants read the same collection.
+ */
+@Service
+public class DeliveryTrackingService {
+
+    @Autowired
+    private ReactiveDeliveryRepository reactiveDeliveryRepository;
+
+    public Flux<Delivery> trackBySku(String sku) {
+        return reactiveDeliveryRepository.findBySku(sku);
+    }
+
+    public Flux<Delivery> trackByAgent(String agentId) {
+        return reactiveDeliveryRepository.findByAgentId(agentId);
+    }
+}
@@ -0,0 +1,228 @@
+package com.dlvery.service;
+
+import com.dlvery.exception.BadRequestException;
+import com.dlvery.model.Delivery;
+import com.dlvery.model.Inventory;
+import com.dlvery.util.CsvUtil;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Full exports of inventory and deliveries as CSV or NDJSON. Documents are read as raw BSON through one
+ * server-side cursor on the report template (secondary preferred), projected to the exported columns and
+ * written as they arrive, so memory stays constant whatever the collection size. The cursor is not sorted:
+ * a sort the filter's index cannot serve would make MongoDB buffer the whole result.
+ * <p>
+ * The inventory CSV carries the import columns, so an export can be uploaded again as-is.
+ */
+@Service
+public class ExportService {
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+    private static final int WRITE_BUFFER_CHARS = 64 * 1024;
+    private static final JsonFactory JSON = new JsonFactory();
+
+    public static final String CSV = "csv";
+    public static final String NDJSON = "ndjson";
+
+    public static final List<String> INVENTORY_COLUMNS = Stream.concat(Stream.of("id"), CsvUtil.INVENTORY_HEADERS.stream()).toList();
+    public static final List<String> DELIVERY_COLUMNS = List.of(
+            "id", "sku", "quantity", "agentId", "customerName", "address", "status", "deliveryDate", "createdAt");
+
+    @Autowired
+    @Qualifier("reportMongoTemplate")
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${export.cursor-batch-size:2000}")
+    private int cursorBatchSize = 2000;
+
+    /** Opens the response body; called only once the filters are valid and the cursor is open. */
+    @FunctionalInterface
+    public interface Target {
+        OutputStream open() throws IOException;
+    }
+
+    /** Returns the number of items written. */
+    public long exportInventory(String category, String format, Target target) throws IOException {
+        Criteria criteria = new Criteria();
+        if (category != null && !category.isEmpty()) {
+            criteria.and("category").is(category);
+        }
+        return export(Inventory.class, criteria, INVENTORY_COLUMNS, format, target);
+    }
+
+    /**
+     * Same filters as the delivery repository finders and reports: {@code status} with an inclusive
+     * {@code deliveryDate} range, {@code agentId} with {@code status}, or {@code sku}, each served by its index.
+     */
+    public long exportDeliveries(String status, String startDate, String endDate, String agentId, String sku,
+                                 String format, Target target) throws IOException {
+        return export(Delivery.class, deliveryFilter(status, startDate, endDate, agentId, sku), DELIVERY_COLUMNS, format, target);
+    }
+
+    /** {@code startDate} and {@code endDate} are ISO dates and must be given together. */
+    static Criteria deliveryFilter(String status, String startDate, String endDate, String agentId, String sku) {
+        Criteria criteria = new Criteria();
+        if (status != null && !status.isEmpty()) {
+            criteria.and("status").is(status);
+        }
+        if (startDate != null || endDate != null) {
+            if (startDate == null || endDate == null) {
+                throw new BadRequestException("startDate and endDate must be given together");
+            }
+            LocalDate start = parseDate(startDate);
+            LocalDate end = parseDate(endDate);
+            if (end.isBefore(start)) {
+                throw new BadRequestException("endDate must not be before startDate");
+            }
+            criteria.and("deliveryDate").gte(start.toString()).lte(end.toString());
+        }
+        if (agentId != null && !agentId.isEmpty()) {
+            criteria.and("agentId").is(agentId);
+        }
+        if (sku != null && !sku.isEmpty()) {
+            criteria.and("sku").is(sku);
+        }
+        return criteria;
+    }
+
+    public static String exportFormat(String format) {
+        if (format == null || format.isBlank() || CSV.equalsIgnoreCase(format)) {
+            return CSV;
+        }
+        if (NDJSON.equalsIgnoreCase(format) || "jsonl".equalsIgnoreCase(format)) {
+            return NDJSON;
+        }
+        throw new BadRequestException("Invalid export format: " + format + ", expected csv or ndjson");
+    }
+
+    private long export(Class<?> type, Criteria criteria, List<String> columns, String format, Target target) throws IOException {
+        String collection = mongoTemplate.getCollectionName(type);
+        Query query = new Query(criteria).cursorBatchSize(cursorBatchSize);
+        for (String column : columns) {
+            query.fields().include(field(column));
+        }
+        long start = System.nanoTime();
+        long rows;
+        try (Stream<Document> documents = mongoTemplate.stream(query, Document.class, collection)) {
+            OutputStream out = target.open();
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_CHARS);
+            rows = NDJSON.equals(format)
+                    ? writeNdjson(documents.iterator(), columns, writer)
+                    : writeCsv(documents.iterator(), columns, writer);
+            // Closed only on success: a failed export must not end with a valid gzip trailer.
+            writer.close();
+        }
+        long nanos = System.nanoTime() - start;
+        meterRegistry.counter("export.rows", "collection", collection, "format", format).increment(rows);
+        Timer.builder("export.duration").description("Wall time of one full collection export")
+                .tag("collection", collection).tag("format", format)
+                .register(meterRegistry).record(nanos, TimeUnit.NANOSECONDS);
+        logger.info("Export finished: collection={}, format={}, rows={}, millis={}",
+                collection, format, rows, TimeUnit.NANOSECONDS.toMillis(nanos));
+        return rows;
+    }
+
+    static long writeCsv(Iterator<Document> documents, List<String> columns, Writer writer) throws IOException {
+        CSVPrinter printer = CSVFormat.DEFAULT.builder().setHeader(columns.toArray(new String[0])).build().print(writer);
+        Object[] values = new Object[columns.size()];
+        long rows = 0;
+        while (documents.hasNext()) {
+            Document document = documents.next();
+            for (int i = 0; i < values.length; i++) {
+                values[i] = value(document, columns.get(i));
+            }
+            printer.printRecord(values);
+            rows++;
+        }
+        printer.flush();
+        return rows;
+    }
+
+    static long writeNdjson(Iterator<Document> documents, List<String> columns, Writer writer) throws IOException {
+        JsonGenerator generator = JSON.createGenerator(writer);
+        generator.setRootValueSeparator(null);
+        long rows = 0;
+        while (documents.hasNext()) {
+            Document document = documents.next();
+            generator.writeStartObject();
+            for (String column : columns) {
+                Object value = value(document, column);
+                generator.writeFieldName(column);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Integer || value instanceof Long) {
+                    generator.writeNumber(((Number) value).longValue());
+                } else if (value instanceof Number) {
+                    generator.writeNumber(((Number) value).doubleValue());
+                } else if (value instanceof Boolean) {
+                    generator.writeBoolean((Boolean) value);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            rows++;
+        }
+        generator.flush();
+        return rows;
+    }
+
+    /** Field value as the API shows it: ids as hex strings, dates as local date-times like the entity fields. */
+    private static Object value(Document document, String column) {
+        Object value = document.get(field(column));
+        if (value instanceof ObjectId) {
+            return ((ObjectId) value).toHexString();
+        }
+        if (value instanceof Date) {
+            return LocalDateTime.ofInstant(((Date) value).toInstant(), ZoneId.systemDefault()).toString();
+        }
+        return value;
+    }
+
+    private static String field(String column) {
+        return "id".equals(column) ? "_id" : column;
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid date format: " + value);
+        }
+    }
+}
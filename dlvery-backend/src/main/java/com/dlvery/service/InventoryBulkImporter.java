@@ -0,0 +1,312 @@
+package com.dlvery.service;
+
+import com.dlvery.dto.BatchResult;
+import com.dlvery.dto.ImportResult;
+import com.dlvery.dto.RowError;
+import com.dlvery.exception.BadRequestException;
+import com.dlvery.model.Inventory;
+import com.dlvery.util.CsvUtil;
+import com.dlvery.util.InventoryRowReader;
+import com.dlvery.util.ParallelCsvParser;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Streams inventory CSV rows into MongoDB in fixed-size batches. Each batch is written as a single
+ * unordered bulk upsert keyed by SKU, so existing SKUs are left untouched and reported as duplicates.
+ * Only the current batch is held in memory. Spooled files are parsed in parallel on a dedicated
+ * fork-join pool ({@link #importFile}); a {@link Reader} or NDJSON input is parsed on the calling thread.
+ */
+@Component
+public class InventoryBulkImporter {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryBulkImporter.class);
+    private static final int DUPLICATE_KEY = 11000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private SkuCache skuCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private LowStockAlertService lowStockAlerts;
+
+    @Value("${inventory.import.batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Value("${inventory.import.max-reported-errors:1000}")
+    private int maxReportedErrors = 1000;
+
+    /** Parse workers for {@link #importFile}; 0 uses one per available processor. */
+    @Value("${inventory.import.parse-threads:0}")
+    private int parseThreads;
+
+    @Value("${inventory.import.parse-chunk-bytes:8388608}")
+    private int parseChunkBytes = 8 * 1024 * 1024;
+
+    private ForkJoinPool parsePool;
+    private ParallelCsvParser parallelParser;
+
+    @PostConstruct
+    public void start() {
+        int threads = parseThreads > 0 ? parseThreads : Runtime.getRuntime().availableProcessors();
+        parsePool = new ForkJoinPool(threads, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("inventory-parse-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        parallelParser = new ParallelCsvParser(parsePool, parseChunkBytes);
+    }
+
+    @PreDestroy
+    public void stop() {
+        parsePool.shutdownNow();
+    }
+
+    /**
+     * Imports a spooled CSV file, parsing and mapping rows in parallel. Rows reach the batch writer in
+     * chunk completion order rather than file order; insert-only upserts do not depend on it, except that
+     * when a SKU repeats in the file whichever row is written first wins.
+     */
+    public ImportResult importFile(Path file, Consumer<BatchResult> listener) {
+        ImportResult result = new ImportResult();
+        long start = System.nanoTime();
+        PendingBatch[] batch = {new PendingBatch(1)};
+        try {
+            parallelParser.parse(file, CsvUtil::inventoryRowMapper, chunk -> {
+                for (ParallelCsvParser.Row<Inventory> row : chunk.getRows()) {
+                    if (row.getError() != null) {
+                        batch[0].malformed(row.getLine(), row.getError());
+                    } else {
+                        batch[0].add(row.getLine(), row.getValue());
+                    }
+                    if (batch[0].rows >= batchSize) {
+                        flush(batch[0], result, listener);
+                        batch[0] = new PendingBatch(batch[0].number + 1);
+                    }
+                }
+                if (chunk.isTruncated()) {
+                    result.setAborted(true);
+                }
+            });
+        } catch (IllegalArgumentException e) {
+            // Only the header is validated by throwing; row errors come back as rows.
+            throw new BadRequestException("Failed to upload inventory file: " + e.getMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read spooled inventory file: " + e.getMessage(), e);
+        }
+        if (batch[0].rows > 0) {
+            flush(batch[0], result, listener);
+        }
+        recordImport(result, System.nanoTime() - start);
+        logger.info("Inventory import finished: rows={}, inserted={}, duplicates={}, malformed={}",
+                result.getRows(), result.getInserted(), result.getSkippedDuplicates(), result.getMalformed());
+        return result;
+    }
+
+    public ImportResult importCsv(Reader reader) {
+        return importCsv(reader, batch -> { });
+    }
+
+    /**
+     * Imports the CSV read from {@code reader}, invoking {@code listener} after every flushed batch.
+     * Malformed rows are reported with their line number instead of failing the whole file.
+     */
+    public ImportResult importCsv(Reader reader, Consumer<BatchResult> listener) {
+        InventoryRowReader rows;
+        try {
+            rows = InventoryRowReader.csv(reader);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new BadRequestException("Failed to upload inventory file: " + e.getMessage());
+        }
+        return importRows(rows, listener);
+    }
+
+    /** Imports every row of {@code rows} as {@link #importCsv(Reader, Consumer)} does, then closes it. */
+    public ImportResult importRows(InventoryRowReader rows, Consumer<BatchResult> listener) {
+        ImportResult result = new ImportResult();
+        long start = System.nanoTime();
+        try (rows) {
+            PendingBatch batch = new PendingBatch(1);
+            while (true) {
+                try {
+                    if (!rows.next()) {
+                        break;
+                    }
+                } catch (UncheckedIOException | IllegalStateException e) {
+                    batch.malformed(rows.getLine(), "Unreadable content, import stopped: " + e.getMessage());
+                    result.setAborted(true);
+                    break;
+                }
+                try {
+                    batch.add(rows.getLine(), rows.toInventory());
+                } catch (IllegalArgumentException e) {
+                    batch.malformed(rows.getLine(), e.getMessage());
+                }
+                if (batch.rows >= batchSize) {
+                    flush(batch, result, listener);
+                    batch = new PendingBatch(batch.number + 1);
+                }
+            }
+            if (batch.rows > 0) {
+                flush(batch, result, listener);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to close inventory reader: {}", e.getMessage());
+        }
+        recordImport(result, System.nanoTime() - start);
+        logger.info("Inventory import finished: rows={}, inserted={}, duplicates={}, malformed={}",
+                result.getRows(), result.getInserted(), result.getSkippedDuplicates(), result.getMalformed());
+        return result;
+    }
+
+    private void flush(PendingBatch batch, ImportResult result, Consumer<BatchResult> listener) {
+        BatchResult batchResult = batch.result;
+        batchResult.setRows(batch.rows);
+        batchResult.setSkippedDuplicates(batch.inBatchDuplicates);
+        if (!batch.items.isEmpty()) {
+            write(batch, batchResult);
+            skuCache.invalidateAll(batch.items.keySet());
+        }
+        long reported = reportedErrors(result);
+        for (RowError error : batch.errors) {
+            if (reported++ < maxReportedErrors) {
+                batchResult.getMalformedRows().add(error);
+            }
+        }
+        batchResult.setMalformed(batch.errors.size());
+        result.addBatch(batchResult);
+        logger.debug("Flushed inventory batch {}: inserted={}, duplicates={}, malformed={}",
+                batchResult.getBatchNumber(), batchResult.getInserted(), batchResult.getSkippedDuplicates(), batchResult.getMalformed());
+        listener.accept(batchResult);
+    }
+
+    private void write(PendingBatch batch, BatchResult batchResult) {
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Inventory.class);
+        List<PendingRow> rows = new ArrayList<>(batch.items.values());
+        for (PendingRow row : rows) {
+            ops.upsert(Query.query(Criteria.where("sku").is(row.item.getSku())), insertOnly(row.item));
+        }
+        BulkWriteResult writeResult;
+        try {
+            writeResult = ops.execute();
+        } catch (BulkOperationException e) {
+            writeResult = e.getResult();
+            for (BulkWriteError error : e.getErrors()) {
+                long line = rows.get(error.getIndex()).line;
+                if (error.getCode() == DUPLICATE_KEY) {
+                    batchResult.setSkippedDuplicates(batchResult.getSkippedDuplicates() + 1);
+                } else {
+                    batch.errors.add(new RowError(line, error.getMessage()));
+                }
+            }
+        }
+        batchResult.setInserted(writeResult.getUpserts().size());
+        // Only inserted rows changed stock; existing SKUs were left as they were.
+        for (BulkWriteUpsert upsert : writeResult.getUpserts()) {
+            lowStockAlerts.evaluate(rows.get(upsert.getIndex()).item);
+        }
+        batchResult.setSkippedDuplicates(batchResult.getSkippedDuplicates() + writeResult.getMatchedCount());
+    }
+
+    private Update insertOnly(Inventory item) {
+        Document document = new Document();
+        mongoTemplate.getConverter().write(item, document);
+        document.remove("_id");
+        Update update = new Update();
+        document.forEach(update::setOnInsert);
+        return update;
+    }
+
+    /** Row counters feed a rows/s rate in Prometheus; the summary keeps the throughput of each import. */
+    private void recordImport(ImportResult result, long nanos) {
+        meterRegistry.counter("inventory.import.rows", "result", "inserted").increment(result.getInserted());
+        meterRegistry.counter("inventory.import.rows", "result", "duplicate").increment(result.getSkippedDuplicates());
+        meterRegistry.counter("inventory.import.rows", "result", "malformed").increment(result.getMalformed());
+        Timer.builder("inventory.import.duration").description("Wall time of one inventory CSV import")
+                .register(meterRegistry).record(nanos, TimeUnit.NANOSECONDS);
+        if (nanos > 0) {
+            DistributionSummary.builder("inventory.import.throughput").baseUnit("rows/s")
+                    .description("Rows per second of one inventory CSV import")
+                    .register(meterRegistry).record(result.getRows() / (nanos / 1_000_000_000d));
+        }
+    }
+
+    private static long reportedErrors(ImportResult result) {
+        long reported = 0;
+        for (BatchResult batch : result.getBatches()) {
+            reported += batch.getMalformedRows().size();
+        }
+        return reported;
+    }
+
+    private static class PendingRow {
+        private final long line;
+        private final Inventory item;
+
+        PendingRow(long line, Inventory item) {
+            this.line = line;
+            this.item = item;
+        }
+    }
+
+    private static class PendingBatch {
+        private final int number;
+        private final BatchResult result;
+        private final Map<String, PendingRow> items = new LinkedHashMap<>();
+        private final List<RowError> errors = new ArrayList<>();
+        private int rows;
+        private int inBatchDuplicates;
+
+        PendingBatch(int number) {
+            this.number = number;
+            this.result = new BatchResult(number);
+        }
+
+        void add(long line, Inventory item) {
+            rows++;
+            if (items.putIfAbsent(item.getSku(), new PendingRow(line, item)) != null) {
+                inBatchDuplicates++;
+            }
+        }
+
+        void malformed(long line, String message) {
+            rows++;
+            errors.add(new RowError(line, message));
+        }
+    }
+}
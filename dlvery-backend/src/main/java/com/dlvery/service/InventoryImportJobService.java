@@ -0,0 +1,406 @@
+package com.dlvery.service;
+
+import com.dlvery.dto.BatchResult;
+import com.dlvery.dto.ImportResult;
+import com.dlvery.exception.BadRequestException;
+import com.dlvery.exception.PayloadTooLargeException;
+import com.dlvery.exception.ResourceNotFoundException;
+import com.dlvery.exception.ServiceUnavailableException;
+import com.dlvery.model.ImportJob;
+import com.dlvery.repository.ImportJobRepository;
+import com.dlvery.util.InventoryRowReader;
+import com.dlvery.util.ThreadFactories;
+import com.dlvery.util.UploadDecoder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Runs inventory uploads as background jobs. The upload is decompressed (gzip or zstd) as it is spooled to
+ * local disk, a job document is written to {@code import_jobs} and a bounded worker pool streams the
+ * spooled file through {@link InventoryBulkImporter} (insert mode; CSV is parsed in parallel) or
+ * {@link InventorySyncService} (sync mode), persisting progress after every batch so any instance can
+ * answer a poll. Files are CSV with a header row or NDJSON with one item per line.
+ * <p>
+ * A job takes one of {@code workers + queue-capacity} slots before its upload is read and holds it until it
+ * finishes, so a full queue refuses an upload before spooling it rather than after. The bytes spooled by
+ * all held slots are capped at {@code inventory.import.max-spool-bytes}.
+ */
+@Service
+public class InventoryImportJobService {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryImportJobService.class);
+    private static final int COPY_BUFFER_BYTES = 64 * 1024;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @Autowired
+    private InventoryBulkImporter bulkImporter;
+
+    @Autowired
+    private InventorySyncService syncService;
+
+    @Value("${inventory.import.spool-dir:${java.io.tmpdir}/dlvery-imports}")
+    private String spoolDir;
+
+    @Value("${inventory.import.workers:2}")
+    private int workers = 2;
+
+    @Value("${inventory.import.queue-capacity:20}")
+    private int queueCapacity = 20;
+
+    /** Limit on an upload as received; raw-body uploads are not subject to the multipart size limit. */
+    @Value("${inventory.import.max-upload-bytes:1073741824}")
+    private long maxUploadBytes = 1024L * 1024 * 1024;
+
+    /** Limit once decompressed, which also stops a small compressed file from expanding without bound. */
+    @Value("${inventory.import.max-decoded-bytes:10737418240}")
+    private long maxDecodedBytes = 10L * 1024 * 1024 * 1024;
+
+    @Value("${inventory.import.max-spool-bytes:21474836480}")
+    private long maxSpoolBytes = 20L * 1024 * 1024 * 1024;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private ThreadPoolTaskExecutor executor;
+    private Semaphore slots;
+    private final AtomicLong spooledBytes = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        // Virtual workers make the blocking Mongo writes cheap to wait on; the worker count still bounds write load.
+        executor.setThreadFactory(ThreadFactories.named("inventory-import-", virtualThreads));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        slots = new Semaphore(workers + queueCapacity);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    /**
+     * @param mode   {@code insert} (default) adds unseen SKUs only; {@code sync} applies inserts, changes and
+     *               deletions against the last synced file
+     * @param format {@code csv} or {@code ndjson}; when {@code null} it is taken from the content type or
+     *               file name, defaulting to CSV
+     */
+    public ImportJob submit(MultipartFile file, String mode, String format) {
+        if (file.isEmpty()) {
+            throw new BadRequestException("Uploaded file is empty");
+        }
+        try (InputStream in = file.getInputStream()) {
+            return submit(in, file.getOriginalFilename(), file.getContentType(), null, mode, format);
+        } catch (IOException e) {
+            throw new BadRequestException("Failed to store uploaded file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Queues an import of a raw request body. The body may be gzip or zstd compressed and is decompressed
+     * while it is spooled, so neither form is ever held in memory; it is capped at
+     * {@code inventory.import.max-upload-bytes} as received and {@code max-decoded-bytes} once decoded.
+     */
+    public ImportJob submit(InputStream body, String fileName, String contentType, String contentEncoding,
+                            String mode, String format) {
+        String importMode = importMode(mode);
+        String importFormat = importFormat(format, contentType, fileName);
+        if (!slots.tryAcquire()) {
+            throw new ServiceUnavailableException("Import queue is full, retry later");
+        }
+        ImportJob job = new ImportJob();
+        boolean queued = false;
+        try {
+            Path spooled = spool(body, contentEncoding, importFormat, job);
+            if (job.getDecodedSize() == 0) {
+                deleteQuietly(spooled);
+                throw new BadRequestException("Uploaded file is empty");
+            }
+            job.setMode(importMode);
+            job.setFormat(importFormat);
+            job.setFileName(fileName);
+            job.setSpoolPath(spooled.toString());
+            job.setStatus(ImportJob.QUEUED);
+            job.setCreatedAt(LocalDateTime.now());
+            job.setUpdatedAt(job.getCreatedAt());
+            ImportJob saved = importJobRepository.save(job);
+            // The worker updates its own copy as the import runs, so the job returned here stays as queued.
+            ImportJob running = snapshot(saved);
+            try {
+                executor.execute(() -> {
+                    try {
+                        run(running);
+                    } finally {
+                        releaseSlot(running.getDecodedSize());
+                    }
+                });
+                queued = true;
+            } catch (TaskRejectedException e) {
+                deleteQuietly(spooled);
+                saved.setStatus(ImportJob.FAILED);
+                saved.setMessage("Import queue is full");
+                saved.setFinishedAt(LocalDateTime.now());
+                importJobRepository.save(saved);
+                throw new ServiceUnavailableException("Import queue is full, retry later");
+            }
+            logger.info("Inventory import job queued: ID={}, Mode={}, Format={}, File={}, Size={}, Compression={}, DecodedSize={}",
+                    saved.getId(), saved.getMode(), saved.getFormat(), saved.getFileName(), saved.getFileSize(),
+                    saved.getCompression(), saved.getDecodedSize());
+            return saved;
+        } finally {
+            if (!queued) {
+                releaseSlot(job.getDecodedSize());
+            }
+        }
+    }
+
+    public ImportJob getJob(String jobId) {
+        return importJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Import job not found: " + jobId));
+    }
+
+    void run(ImportJob job) {
+        Path spooled = Paths.get(job.getSpoolPath());
+        job.setStatus(ImportJob.RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        job.setUpdatedAt(job.getStartedAt());
+        importJobRepository.save(job);
+        try {
+            Consumer<BatchResult> progress = batch -> recordProgress(job, batch);
+            ImportResult result;
+            boolean sync = ImportJob.MODE_SYNC.equals(job.getMode());
+            boolean ndjson = ImportJob.FORMAT_NDJSON.equals(job.getFormat());
+            if (!sync && !ndjson) {
+                result = bulkImporter.importFile(spooled, progress);
+            } else {
+                try (BufferedReader reader = Files.newBufferedReader(spooled, StandardCharsets.UTF_8)) {
+                    if (!ndjson) {
+                        result = syncService.sync(reader, progress);
+                    } else if (sync) {
+                        result = syncService.sync(InventoryRowReader.ndjson(reader), progress);
+                    } else {
+                        result = bulkImporter.importRows(InventoryRowReader.ndjson(reader), progress);
+                    }
+                }
+            }
+            job.setStatus(ImportJob.COMPLETED);
+            job.setMessage(result.isAborted() ? "Import stopped at unreadable content" : null);
+        } catch (Exception e) {
+            logger.error("Inventory import job failed: ID={}, Error={}", job.getId(), e.getMessage());
+            job.setStatus(ImportJob.FAILED);
+            job.setMessage(e.getMessage());
+        } finally {
+            deleteQuietly(spooled);
+        }
+        job.setFinishedAt(LocalDateTime.now());
+        job.setUpdatedAt(job.getFinishedAt());
+        job.setRowsPerSecond(rowsPerSecond(job));
+        importJobRepository.save(job);
+        logger.info("Inventory import job {}: ID={}, Rows={}, Inserted={}, Updated={}, Deleted={}, Rows/s={}",
+                job.getStatus(), job.getId(), job.getRowsProcessed(), job.getInserted(), job.getUpdated(),
+                job.getDeleted(), job.getRowsPerSecond());
+    }
+
+    private void recordProgress(ImportJob job, BatchResult batch) {
+        job.setRowsProcessed(job.getRowsProcessed() + batch.getRows());
+        job.setInserted(job.getInserted() + batch.getInserted());
+        job.setSkippedDuplicates(job.getSkippedDuplicates() + batch.getSkippedDuplicates());
+        job.setUpdated(job.getUpdated() + batch.getUpdated());
+        job.setUnchanged(job.getUnchanged() + batch.getUnchanged());
+        job.setDeleted(job.getDeleted() + batch.getDeleted());
+        job.setSkippedDeletes(job.getSkippedDeletes() + batch.getSkippedDeletes());
+        job.setMalformed(job.getMalformed() + batch.getMalformed());
+        job.getErrors().addAll(batch.getMalformedRows());
+        job.setUpdatedAt(LocalDateTime.now());
+        job.setRowsPerSecond(rowsPerSecond(job));
+        importJobRepository.save(job);
+    }
+
+    static String importMode(String mode) {
+        if (mode == null || mode.isBlank() || "insert".equalsIgnoreCase(mode)) {
+            return ImportJob.MODE_INSERT;
+        }
+        if ("sync".equalsIgnoreCase(mode)) {
+            return ImportJob.MODE_SYNC;
+        }
+        throw new BadRequestException("Invalid import mode: " + mode + ", expected insert or sync");
+    }
+
+    static String importFormat(String format, String contentType, String fileName) {
+        if (format != null && !format.isBlank()) {
+            if ("csv".equalsIgnoreCase(format)) {
+                return ImportJob.FORMAT_CSV;
+            }
+            if ("ndjson".equalsIgnoreCase(format) || "jsonl".equalsIgnoreCase(format)) {
+                return ImportJob.FORMAT_NDJSON;
+            }
+            throw new BadRequestException("Invalid import format: " + format + ", expected csv or ndjson");
+        }
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        if (type.startsWith("application/x-ndjson") || type.startsWith("application/jsonl")) {
+            return ImportJob.FORMAT_NDJSON;
+        }
+        String name = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT).replaceFirst("\\.(gz|zst|zstd)$", "");
+        return name.endsWith(".ndjson") || name.endsWith(".jsonl") ? ImportJob.FORMAT_NDJSON : ImportJob.FORMAT_CSV;
+    }
+
+    private void releaseSlot(long spooled) {
+        spooledBytes.addAndGet(-spooled);
+        slots.release();
+    }
+
+    /**
+     * Decompresses {@code body} into a spool file, recording sizes and compression on {@code job}. The decoded
+     * bytes count against {@code max-spool-bytes} until the slot is released; on failure they are given back here.
+     */
+    private Path spool(InputStream body, String contentEncoding, String format, ImportJob job) {
+        Path target;
+        try {
+            Path dir = Files.createDirectories(Paths.get(spoolDir));
+            target = Files.createTempFile(dir, "import-", ImportJob.FORMAT_NDJSON.equals(format) ? ".ndjson" : ".csv");
+        } catch (IOException e) {
+            throw new BadRequestException("Failed to store uploaded file: " + e.getMessage());
+        }
+        CountingInputStream received = new CountingInputStream(body, maxUploadBytes, "Upload exceeds " + maxUploadBytes + " bytes");
+        CountingInputStream decoded = null;
+        try {
+            InputStream buffered = new BufferedInputStream(received, COPY_BUFFER_BYTES);
+            String compression = UploadDecoder.compression(buffered, contentEncoding);
+            decoded = new CountingInputStream(UploadDecoder.decode(buffered, compression), maxDecodedBytes,
+                    "Decompressed upload exceeds " + maxDecodedBytes + " bytes");
+            decoded.spool = spooledBytes;
+            decoded.spoolLimit = maxSpoolBytes;
+            try (InputStream in = decoded; OutputStream out = Files.newOutputStream(target)) {
+                in.transferTo(out);
+            }
+            job.setCompression(compression);
+            job.setFileSize(received.count);
+            job.setDecodedSize(decoded.count);
+            return target;
+        } catch (IllegalArgumentException e) {
+            unspool(target, decoded);
+            throw new BadRequestException(e.getMessage());
+        } catch (IOException e) {
+            unspool(target, decoded);
+            throw new BadRequestException("Failed to store uploaded file: " + e.getMessage());
+        } catch (RuntimeException e) {
+            unspool(target, decoded);
+            throw e;
+        }
+    }
+
+    private void unspool(Path target, CountingInputStream decoded) {
+        deleteQuietly(target);
+        if (decoded != null) {
+            spooledBytes.addAndGet(-decoded.count);
+        }
+    }
+
+    /** Copies the fields a queued job has; nothing else is set before {@link #run} starts. */
+    private static ImportJob snapshot(ImportJob job) {
+        ImportJob copy = new ImportJob();
+        copy.setId(job.getId());
+        copy.setMode(job.getMode());
+        copy.setFormat(job.getFormat());
+        copy.setFileName(job.getFileName());
+        copy.setSpoolPath(job.getSpoolPath());
+        copy.setCompression(job.getCompression());
+        copy.setFileSize(job.getFileSize());
+        copy.setDecodedSize(job.getDecodedSize());
+        copy.setStatus(job.getStatus());
+        copy.setCreatedAt(job.getCreatedAt());
+        copy.setUpdatedAt(job.getUpdatedAt());
+        return copy;
+    }
+
+    private static double rowsPerSecond(ImportJob job) {
+        long millis = Duration.between(job.getStartedAt(), job.getUpdatedAt()).toMillis();
+        return millis > 0 ? job.getRowsProcessed() * 1000.0 / millis : 0;
+    }
+
+    /**
+     * Counts bytes read through it and fails the upload once {@code limit} is passed, or once the shared
+     * {@code spool} total passes {@code spoolLimit} when one is set.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private final long limit;
+        private final String limitMessage;
+        private long count;
+        private AtomicLong spool;
+        private long spoolLimit;
+
+        CountingInputStream(InputStream in, long limit, String limitMessage) {
+            super(in);
+            this.limit = limit;
+            this.limitMessage = limitMessage;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                counted(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                counted(read);
+            }
+            return read;
+        }
+
+        private void counted(int bytes) {
+            count += bytes;
+            long spooled = spool == null ? 0 : spool.addAndGet(bytes);
+            if (count > limit) {
+                throw new PayloadTooLargeException(limitMessage);
+            }
+            if (spool != null && spooled > spoolLimit) {
+                throw new ServiceUnavailableException("Import spool is full, retry later");
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Failed to delete spooled import file {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -27,16 +27,22 @@
 //}
 package com.dlvery.service;
 
+import com.dlvery.dto.CursorPage;
+import com.dlvery.dto.ImportResult;
 import com.dlvery.model.Inventory;
 import org.springframework.web.multipart.MultipartFile;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface InventoryService {
     Inventory addInventory(Inventory item);
     List<Inventory> getAllInventory();
+    Inventory getInventoryBySku(String sku);
+    CursorPage<Inventory> getInventoryPage(String after, Integer limit, String category);
+    Stream<Inventory> streamInventory(String category);
     Inventory updateInventory(String id, Inventory item);
     void deleteInventory(String id);
-    void uploadInventoryFile(MultipartFile file);
+    ImportResult uploadInventoryFile(MultipartFile file);
     void assignForDelivery(String sku, int quantity, String agentId, String customerName, String address);
     List<Object> trackDeliveryBySku(String sku);
     List<Object> trackDeliveryByAgent(String agentId);
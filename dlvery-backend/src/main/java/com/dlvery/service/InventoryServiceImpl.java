@@ -1,25 +1,41 @@
 
 package com.dlvery.service;
 
+import com.dlvery.dto.CursorPage;
+import com.dlvery.dto.ImportResult;
 import com.dlvery.model.Delivery;
+import com.dlvery.model.ImportJob;
 import com.dlvery.model.Inventory;
 import com.dlvery.repository.DeliveryRepository;
 import com.dlvery.repository.InventoryRepository;
 import com.dlvery.exception.BadRequestException;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
+import com.dlvery.exception.ConflictException;
+import com.dlvery.exception.ResourceNotFoundException;
+import com.dlvery.util.InventoryRowReader;
+import com.dlvery.util.MongoPaging;
+import com.dlvery.util.UploadDecoder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 public class InventoryServiceImpl implements InventoryService {
@@ -30,12 +46,36 @@ public class InventoryServiceImpl implements InventoryService {
     @Autowired
     private DeliveryRepository deliveryRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private InventoryBulkImporter bulkImporter;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private DeliveryStatsService deliveryStatsService;
+
+    @Autowired
+    private SkuCache skuCache;
+
+    @Autowired
+    private DeliveryEventService deliveryEventService;
+
+    @Autowired
+    private LowStockAlertService lowStockAlerts;
+
     @Override
     public Inventory addInventory(Inventory item) {
-        if (inventoryRepository.findBySku(item.getSku()).isPresent()) {
+        if (skuCache.findBySku(item.getSku()).isPresent()) {
             throw new BadRequestException("SKU already exists");
         }
-        return inventoryRepository.save(item);
+        Inventory saved = inventoryRepository.save(item);
+        skuCache.invalidate(item.getSku());
+        lowStockAlerts.evaluate(saved);
+        return saved;
     }
 
     @Override
@@ -43,22 +83,71 @@ public class InventoryServiceImpl implements InventoryService {
         return inventoryRepository.findAll();
     }
 
+    @Override
+    public Inventory getInventoryBySku(String sku) {
+        return skuCache.findBySku(sku)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory item not found for SKU: " + sku));
+    }
+
+    @Override
+    public CursorPage<Inventory> getInventoryPage(String after, Integer limit, String category) {
+        return MongoPaging.page(mongoTemplate, inventoryFilter(category), after, limit, Inventory.class, Inventory::getId);
+    }
+
+    @Override
+    public Stream<Inventory> streamInventory(String category) {
+        return mongoTemplate.stream(MongoPaging.streamQuery(inventoryFilter(category)), Inventory.class);
+    }
+
+    private static Criteria inventoryFilter(String category) {
+        Criteria criteria = new Criteria();
+        if (category != null && !category.isEmpty()) {
+            criteria.and("category").is(category);
+        }
+        return criteria;
+    }
+
+    /**
+     * Replaces the editable fields of an item, conditional on the {@code version} read here: a reservation or
+     * another edit that lands in between bumps the version, and this update then fails with a conflict instead
+     * of overwriting the stock it just changed.
+     */
     @Override
     public Inventory updateInventory(String id, Inventory item) {
         Optional<Inventory> existingItem = inventoryRepository.findById(id);
         if (!existingItem.isPresent()) {
             throw new BadRequestException("Inventory item not found");
         }
-        Inventory updatedItem = existingItem.get();
-        updatedItem.setSku(item.getSku());
-        updatedItem.setName(item.getName());
-        updatedItem.setCategory(item.getCategory());
-        updatedItem.setDamaged(item.isDamaged());
-        updatedItem.setPerishable(item.isPerishable());
-        updatedItem.setExpiryDate(item.getExpiryDate());
-        updatedItem.setQuantity(item.getQuantity());
-        updatedItem.setLowStockThreshold(item.getLowStockThreshold());
-        return inventoryRepository.save(updatedItem);
+        Inventory current = existingItem.get();
+        String previousSku = current.getSku();
+        Criteria expected = Criteria.where("_id").is(id);
+        if (current.getVersion() == null) {
+            expected.and("version").exists(false);
+        } else {
+            expected.and("version").is(current.getVersion());
+        }
+        Update update = new Update()
+                .set("sku", item.getSku())
+                .set("name", item.getName())
+                .set("category", item.getCategory())
+                .set("damaged", item.isDamaged())
+                .set("perishable", item.isPerishable())
+                .set("expiryDate", item.getExpiryDate())
+                .set("quantity", item.getQuantity())
+                .set("lowStockThreshold", item.getLowStockThreshold())
+                .inc("version", 1);
+        Inventory saved = mongoTemplate.findAndModify(Query.query(expected), update,
+                FindAndModifyOptions.options().returnNew(true), Inventory.class);
+        if (saved == null) {
+            throw new ConflictException("Inventory item " + id + " was changed concurrently, reload and retry");
+        }
+        skuCache.invalidate(previousSku);
+        skuCache.invalidate(item.getSku());
+        if (!Objects.equals(previousSku, saved.getSku())) {
+            lowStockAlerts.remove(previousSku);
+        }
+        lowStockAlerts.evaluate(saved);
+        return saved;
     }
 
     @Override
@@ -73,44 +162,42 @@ public class InventoryServiceImpl implements InventoryService {
             throw new BadRequestException("Cannot delete inventory with active deliveries");
         }
         inventoryRepository.deleteById(id);
+        skuCache.invalidate(inventory.getSku());
+        lowStockAlerts.remove(inventory.getSku());
     }
 
     @Override
-    public void uploadInventoryFile(MultipartFile file) {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()));
-             CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader())) {
-            for (CSVRecord record : csvParser) {
-                Inventory item = new Inventory();
-                item.setSku(record.get("sku"));
-                item.setName(record.get("name"));
-                item.setCategory(record.get("category"));
-                item.setDamaged(Boolean.parseBoolean(record.get("damaged")));
-                item.setPerishable(Boolean.parseBoolean(record.get("perishable")));
-                item.setExpiryDate(record.get("expiryDate"));
-                item.setQuantity(Integer.parseInt(record.get("quantity")));
-                item.setLowStockThreshold(Integer.parseInt(record.get("lowStockThreshold")));
-                if (!inventoryRepository.findBySku(item.getSku()).isPresent()) {
-                    inventoryRepository.save(item);
-                }
+    public ImportResult uploadInventoryFile(MultipartFile file) {
+        String format = InventoryImportJobService.importFormat(null, file.getContentType(), file.getOriginalFilename());
+        try (InputStream in = new BufferedInputStream(file.getInputStream());
+             BufferedReader reader = new BufferedReader(new InputStreamReader(
+                     UploadDecoder.decode(in, UploadDecoder.compression(in, null)), StandardCharsets.UTF_8))) {
+            if (ImportJob.FORMAT_NDJSON.equals(format)) {
+                return bulkImporter.importRows(InventoryRowReader.ndjson(reader), batch -> { });
             }
-        } catch (Exception e) {
+            return bulkImporter.importCsv(reader);
+        } catch (IOException e) {
             throw new BadRequestException("Failed to upload inventory file: " + e.getMessage());
         }
     }
 
     @Override
     public void assignForDelivery(String sku, int quantity, String agentId, String customerName, String address) {
-        Optional<Inventory> optionalInventory = inventoryRepository.findBySku(sku);
-        if (!optionalInventory.isPresent()) {
-            throw new BadRequestException("Inventory item not found for SKU: " + sku);
-        }
-        Inventory inventory = optionalInventory.get();
-        if (inventory.getQuantity() < quantity) {
-            throw new BadRequestException("Insufficient stock for SKU: " + sku);
+        stockReservationService.reserve(sku, quantity);
+
+        Delivery delivery = pendingDelivery(sku, quantity, agentId, customerName, address);
+        try {
+            deliveryRepository.save(delivery);
+        } catch (RuntimeException e) {
+            // Keep the reservation and the delivery in step: give the stock back if the delivery was not written.
+            stockReservationService.release(sku, quantity);
+            throw e;
         }
-        inventory.setQuantity(inventory.getQuantity() - quantity);
-        inventoryRepository.save(inventory);
+        deliveryStatsService.recordChange(null, delivery);
+        deliveryEventService.publishCreated(delivery);
+    }
 
+    static Delivery pendingDelivery(String sku, int quantity, String agentId, String customerName, String address) {
         Delivery delivery = new Delivery();
         delivery.setSku(sku);
         delivery.setQuantity(quantity);
@@ -120,7 +207,7 @@ public class InventoryServiceImpl implements InventoryService {
         delivery.setStatus("PENDING");
         delivery.setDeliveryDate(LocalDate.now().toString());
         delivery.setCreatedAt(LocalDateTime.now());
-        deliveryRepository.save(delivery);
+        return delivery;
     }
 
     @Override
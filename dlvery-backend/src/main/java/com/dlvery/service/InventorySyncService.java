@@ -0,0 +1,379 @@
+package com.dlvery.service;
+
+import com.dlvery.dto.BatchResult;
+import com.dlvery.dto.ImportResult;
+import com.dlvery.dto.RowError;
+import com.dlvery.exception.BadRequestException;
+import com.dlvery.model.Delivery;
+import com.dlvery.model.Inventory;
+import com.dlvery.model.InventoryFingerprint;
+import com.dlvery.util.InventoryRowReader;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Incremental sync of a supplier's full catalogue file (CSV or NDJSON). Every row is reduced to a 64-bit content hash and
+ * compared with the fingerprint kept for its SKU in {@code inventory_fingerprints}: unchanged rows cost
+ * only the hash, new and changed rows are written as one unordered bulk upsert per batch (the row replaces
+ * every field it carries, quantity included), and fingerprinted SKUs absent from the file are deleted at
+ * the end when {@code inventory.sync.delete-missing} is on, except those that deliveries refer to. Inventory created
+ * outside a sync has no fingerprint and is never deleted.
+ * <p>
+ * The fingerprints are loaded once per sync and held in memory (roughly 100 bytes per SKU); syncs run one
+ * at a time so two files cannot race on them.
+ */
+@Service
+public class InventorySyncService {
+    private static final Logger logger = LoggerFactory.getLogger(InventorySyncService.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private SkuCache skuCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private LowStockAlertService lowStockAlerts;
+
+    @Value("${inventory.import.batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Value("${inventory.import.max-reported-errors:1000}")
+    private int maxReportedErrors = 1000;
+
+    @Value("${inventory.sync.delete-missing:false}")
+    private boolean deleteMissing;
+
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    /**
+     * Syncs inventory to the CSV read from {@code reader}, invoking {@code listener} after every flushed
+     * batch and once per chunk of deletions. Deletions are skipped when the file could not be read to the
+     * end or held no valid rows, so a truncated upload cannot wipe the catalogue.
+     */
+    public ImportResult sync(Reader reader, Consumer<BatchResult> listener) {
+        InventoryRowReader rows;
+        try {
+            rows = InventoryRowReader.csv(reader);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new BadRequestException("Failed to sync inventory file: " + e.getMessage());
+        }
+        return sync(rows, listener);
+    }
+
+    /** Syncs inventory to every row of {@code rows} as {@link #sync(Reader, Consumer)} does, then closes it. */
+    public ImportResult sync(InventoryRowReader rows, Consumer<BatchResult> listener) {
+        syncLock.lock();
+        try {
+            return run(rows, listener);
+        } finally {
+            syncLock.unlock();
+            try {
+                rows.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close inventory reader: {}", e.getMessage());
+            }
+        }
+    }
+
+    private ImportResult run(InventoryRowReader rows, Consumer<BatchResult> listener) {
+        long start = System.nanoTime();
+        ImportResult result = new ImportResult();
+        Map<String, Fingerprint> fingerprints = loadFingerprints();
+        MessageDigest digest = sha256();
+        PendingBatch batch = new PendingBatch(1);
+        while (true) {
+            if (batch.rows >= batchSize) {
+                flush(batch, result, listener);
+                batch = new PendingBatch(batch.number + 1);
+            }
+            try {
+                if (!rows.next()) {
+                    break;
+                }
+            } catch (UncheckedIOException | IllegalStateException e) {
+                batch.malformed(rows.getLine(), "Unreadable content, sync stopped: " + e.getMessage());
+                result.setAborted(true);
+                break;
+            }
+            long line = rows.getLine();
+            Inventory item;
+            try {
+                item = rows.toInventory();
+            } catch (IllegalArgumentException e) {
+                batch.malformed(line, e.getMessage());
+                // Keep the SKU of a row we could not apply from being deleted as missing.
+                String sku = rows.getSku();
+                if (sku != null && fingerprints.containsKey(sku)) {
+                    fingerprints.get(sku).seen = true;
+                }
+                continue;
+            }
+            batch.rows++;
+            long hash = fingerprint(item, digest);
+            Fingerprint known = fingerprints.get(item.getSku());
+            if (known == null) {
+                fingerprints.put(item.getSku(), new Fingerprint(hash, true));
+                batch.changes.add(new PendingChange(line, item, hash));
+            } else if (known.seen) {
+                batch.duplicates++;
+            } else {
+                known.seen = true;
+                if (known.hash == hash) {
+                    batch.unchanged++;
+                } else {
+                    batch.changes.add(new PendingChange(line, item, hash));
+                }
+            }
+        }
+        if (batch.rows > 0) {
+            flush(batch, result, listener);
+        }
+        if (deleteMissing && !result.isAborted() && result.getRows() > result.getMalformed()) {
+            deleteMissing(fingerprints, batch.number + 1, result, listener);
+        }
+        recordSync(result, System.nanoTime() - start);
+        logger.info("Inventory sync finished: rows={}, inserted={}, updated={}, unchanged={}, deleted={}, duplicates={}, malformed={}",
+                result.getRows(), result.getInserted(), result.getUpdated(), result.getUnchanged(), result.getDeleted(),
+                result.getSkippedDuplicates(), result.getMalformed());
+        return result;
+    }
+
+    private Map<String, Fingerprint> loadFingerprints() {
+        Map<String, Fingerprint> fingerprints = new HashMap<>();
+        Query query = new Query();
+        query.fields().include("hash");
+        try (Stream<InventoryFingerprint> stream = mongoTemplate.stream(query, InventoryFingerprint.class)) {
+            stream.forEach(fingerprint -> fingerprints.put(fingerprint.getSku(), new Fingerprint(fingerprint.getHash(), false)));
+        }
+        return fingerprints;
+    }
+
+    private void flush(PendingBatch batch, ImportResult result, Consumer<BatchResult> listener) {
+        BatchResult batchResult = batch.result;
+        batchResult.setRows(batch.rows);
+        batchResult.setUnchanged(batch.unchanged);
+        batchResult.setSkippedDuplicates(batch.duplicates);
+        if (!batch.changes.isEmpty()) {
+            write(batch, batchResult);
+        }
+        long reported = 0;
+        for (BatchResult previous : result.getBatches()) {
+            reported += previous.getMalformedRows().size();
+        }
+        for (RowError error : batch.errors) {
+            if (reported++ < maxReportedErrors) {
+                batchResult.getMalformedRows().add(error);
+            }
+        }
+        batchResult.setMalformed(batch.errors.size());
+        result.addBatch(batchResult);
+        listener.accept(batchResult);
+    }
+
+    /** Applies the batch's inserts and changes, then records fingerprints for the rows that were written. */
+    private void write(PendingBatch batch, BatchResult batchResult) {
+        BulkOperations inventoryOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Inventory.class);
+        for (PendingChange change : batch.changes) {
+            inventoryOps.upsert(Query.query(Criteria.where("sku").is(change.item.getSku())), replaceFields(change.item));
+        }
+        BulkWriteResult writeResult;
+        Set<Integer> failed = new HashSet<>();
+        try {
+            writeResult = inventoryOps.execute();
+        } catch (BulkOperationException e) {
+            writeResult = e.getResult();
+            for (BulkWriteError error : e.getErrors()) {
+                failed.add(error.getIndex());
+                batch.errors.add(new RowError(batch.changes.get(error.getIndex()).line, error.getMessage()));
+            }
+        }
+        int inserted = writeResult.getUpserts().size();
+        batchResult.setInserted(inserted);
+        batchResult.setUpdated(batch.changes.size() - failed.size() - inserted);
+
+        // A failed row keeps its old fingerprint, so the next sync retries it.
+        BulkOperations fingerprintOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, InventoryFingerprint.class);
+        List<String> written = new ArrayList<>(batch.changes.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < batch.changes.size(); i++) {
+            if (!failed.contains(i)) {
+                PendingChange change = batch.changes.get(i);
+                fingerprintOps.upsert(Query.query(Criteria.where("_id").is(change.item.getSku())),
+                        new Update().set("hash", change.hash).set("syncedAt", now));
+                written.add(change.item.getSku());
+                lowStockAlerts.evaluate(change.item);
+            }
+        }
+        if (!written.isEmpty()) {
+            fingerprintOps.execute();
+            skuCache.invalidateAll(written);
+        }
+    }
+
+    private void deleteMissing(Map<String, Fingerprint> fingerprints, int batchNumber, ImportResult result,
+                               Consumer<BatchResult> listener) {
+        List<String> missing = new ArrayList<>();
+        for (Map.Entry<String, Fingerprint> entry : fingerprints.entrySet()) {
+            if (!entry.getValue().seen) {
+                missing.add(entry.getKey());
+            }
+        }
+        for (int from = 0; from < missing.size(); from += batchSize) {
+            List<String> skus = new ArrayList<>(missing.subList(from, Math.min(from + batchSize, missing.size())));
+            // Same rule as deleteInventory: an item that deliveries refer to is kept. Its fingerprint stays, so
+            // every later sync that still omits it checks again.
+            Set<String> referenced = new HashSet<>(mongoTemplate.findDistinct(
+                    Query.query(Criteria.where("sku").in(skus)), "sku", Delivery.class, String.class));
+            skus.removeAll(referenced);
+            long deleted = 0;
+            if (!skus.isEmpty()) {
+                deleted = mongoTemplate.remove(Query.query(Criteria.where("sku").in(skus)), Inventory.class).getDeletedCount();
+                mongoTemplate.remove(Query.query(Criteria.where("_id").in(skus)), InventoryFingerprint.class);
+                skuCache.invalidateAll(skus);
+                lowStockAlerts.removeAll(skus);
+            }
+            if (!referenced.isEmpty()) {
+                logger.warn("Sync kept {} SKUs missing from the file because deliveries refer to them: {}",
+                        referenced.size(), referenced);
+            }
+            BatchResult batchResult = new BatchResult(batchNumber++);
+            batchResult.setDeleted((int) deleted);
+            batchResult.setSkippedDeletes(referenced.size());
+            result.addBatch(batchResult);
+            listener.accept(batchResult);
+        }
+    }
+
+    /** Sets every field the CSV carries and bumps the version so optimistic reservations see the change. */
+    private Update replaceFields(Inventory item) {
+        Document document = new Document();
+        mongoTemplate.getConverter().write(item, document);
+        document.remove("_id");
+        document.remove("version");
+        Update update = new Update();
+        document.forEach(update::set);
+        return update.inc("version", 1);
+    }
+
+    private void recordSync(ImportResult result, long nanos) {
+        meterRegistry.counter("inventory.import.rows", "result", "inserted").increment(result.getInserted());
+        meterRegistry.counter("inventory.import.rows", "result", "updated").increment(result.getUpdated());
+        meterRegistry.counter("inventory.import.rows", "result", "unchanged").increment(result.getUnchanged());
+        meterRegistry.counter("inventory.import.rows", "result", "deleted").increment(result.getDeleted());
+        meterRegistry.counter("inventory.import.rows", "result", "delete_skipped").increment(result.getSkippedDeletes());
+        meterRegistry.counter("inventory.import.rows", "result", "duplicate").increment(result.getSkippedDuplicates());
+        meterRegistry.counter("inventory.import.rows", "result", "malformed").increment(result.getMalformed());
+        Timer.builder("inventory.sync.duration").description("Wall time of one incremental inventory sync")
+                .register(meterRegistry).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** First 64 bits of the SHA-256 of the row's fields; a null and an empty field hash differently. */
+    static long fingerprint(Inventory item, MessageDigest digest) {
+        digest.reset();
+        update(digest, item.getSku());
+        update(digest, item.getName());
+        update(digest, item.getCategory());
+        update(digest, String.valueOf(item.isDamaged()));
+        update(digest, String.valueOf(item.isPerishable()));
+        update(digest, item.getExpiryDate());
+        update(digest, String.valueOf(item.getQuantity()));
+        update(digest, String.valueOf(item.getLowStockThreshold()));
+        return ByteBuffer.wrap(digest.digest()).getLong();
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update((byte) 0);
+            return;
+        }
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0x1f);
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static class Fingerprint {
+        private final long hash;
+        private boolean seen;
+
+        Fingerprint(long hash, boolean seen) {
+            this.hash = hash;
+            this.seen = seen;
+        }
+    }
+
+    private static class PendingChange {
+        private final long line;
+        private final Inventory item;
+        private final long hash;
+
+        PendingChange(long line, Inventory item, long hash) {
+            this.line = line;
+            this.item = item;
+            this.hash = hash;
+        }
+    }
+
+    private static class PendingBatch {
+        private final int number;
+        private final BatchResult result;
+        private final List<PendingChange> changes = new ArrayList<>();
+        private final List<RowError> errors = new ArrayList<>();
+        private int rows;
+        private int unchanged;
+        private int duplicates;
+
+        PendingBatch(int number) {
+            this.number = number;
+            this.result = new BatchResult(number);
+        }
+
+        void malformed(long line, String message) {
+            rows++;
+            errors.add(new RowError(line, message));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.dlvery.service;
+
+import com.dlvery.exception.ServiceUnavailableException;
+import com.dlvery.exception.TooManyRequestsException;
+import com.dlvery.util.ThreadFactories;
+import com.dlvery.util.TokenBucket;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Keeps login storms from starving the rest of the API. Password hashing runs on a small bounded
+ * executor instead of Tomcat workers, and the request thread is released while it waits (the caller
+ * returns the future to Spring MVC). Each attempt first takes a token from its username bucket and its
+ * client IP bucket; an empty bucket answers 429 with Retry-After, a full hashing queue answers 503.
+ */
+@Component
+public class LoginGovernor {
+    private static final Logger logger = LoggerFactory.getLogger(LoginGovernor.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${security.login.threads:0}")
+    private int threads;
+
+    @Value("${security.login.queue-capacity:200}")
+    private int queueCapacity = 200;
+
+    @Value("${security.login.per-user.capacity:5}")
+    private long perUserCapacity = 5;
+
+    @Value("${security.login.per-user.refill-per-minute:5}")
+    private double perUserRefillPerMinute = 5;
+
+    @Value("${security.login.per-ip.capacity:100}")
+    private long perIpCapacity = 100;
+
+    @Value("${security.login.per-ip.refill-per-minute:300}")
+    private double perIpRefillPerMinute = 300;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private ThreadPoolExecutor executor;
+    private Cache<String, TokenBucket> userBuckets;
+    private Cache<String, TokenBucket> ipBuckets;
+    private Counter throttledUser;
+    private Counter throttledIp;
+    private Counter rejected;
+
+    @PostConstruct
+    public void start() {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), ThreadFactories.named("login-hash-", virtualThreads),
+                new ThreadPoolExecutor.AbortPolicy());
+        // Idle buckets are full again after capacity / refill, so they can be forgotten after that.
+        userBuckets = Caffeine.newBuilder().maximumSize(100_000)
+                .expireAfterAccess(idleExpiry(perUserCapacity, perUserRefillPerMinute)).build();
+        ipBuckets = Caffeine.newBuilder().maximumSize(100_000)
+                .expireAfterAccess(idleExpiry(perIpCapacity, perIpRefillPerMinute)).build();
+        Gauge.builder("auth.login.queue", executor, e -> e.getQueue().size())
+                .description("Logins waiting for a hashing thread").register(meterRegistry);
+        throttledUser = Counter.builder("auth.login.throttled").tag("limit", "user").register(meterRegistry);
+        throttledIp = Counter.builder("auth.login.throttled").tag("limit", "ip").register(meterRegistry);
+        rejected = Counter.builder("auth.login.rejected").description("Logins refused because the hashing queue was full")
+                .register(meterRegistry);
+        logger.info("Login governor: {} hashing threads, queue {}", poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    /** Runs {@code login} on the hashing executor once both rate limits allow it. */
+    public <T> CompletableFuture<T> submit(String username, String clientIp, Supplier<T> login) {
+        long now = System.nanoTime();
+        if (clientIp != null) {
+            TokenBucket ipBucket = ipBuckets.get(clientIp, key -> new TokenBucket(perIpCapacity, perIpRefillPerMinute / 60, now));
+            if (!ipBucket.tryConsume(now)) {
+                throttledIp.increment();
+                throw new TooManyRequestsException("Too many login attempts from this address", ipBucket.secondsUntilNextToken(now));
+            }
+        }
+        if (username != null) {
+            TokenBucket userBucket = userBuckets.get(username, key -> new TokenBucket(perUserCapacity, perUserRefillPerMinute / 60, now));
+            if (!userBucket.tryConsume(now)) {
+                throttledUser.increment();
+                throw new TooManyRequestsException("Too many login attempts for this user", userBucket.secondsUntilNextToken(now));
+            }
+        }
+        try {
+            return CompletableFuture.supplyAsync(login, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Login service is busy, retry shortly");
+        }
+    }
+
+    private static Duration idleExpiry(long capacity, double refillPerMinute) {
+        if (refillPerMinute <= 0) {
+            return Duration.ofHours(1);
+        }
+        return Duration.ofSeconds(Math.max(1, (long) Math.ceil(capacity / refillPerMinute * 60)));
+    }
+}
@@ -0,0 +1,242 @@
+package com.dlvery.service;
+
+import com.dlvery.dto.LowStockAlert;
+import com.dlvery.dto.LowStockEvent;
+import com.dlvery.model.Inventory;
+import com.dlvery.util.SseFanout;
+import com.dlvery.util.ThreadFactories;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Tracks the items whose {@code quantity <= lowStockThreshold}. Instead of scanning the catalogue, every
+ * write that changes stock (reservations, edits, imports and syncs) hands the written item to
+ * {@link #evaluate}, which updates an in-memory map of the currently low SKUs, so {@link #getAlerts()}
+ * costs O(alerts). Transitions into and out of the set are published as {@link LowStockEvent}s and pushed
+ * to subscribers over Server-Sent Events through an {@link SseFanout}, like delivery events.
+ * <p>
+ * The map is seeded at startup and reconciled against MongoDB periodically, which also picks up writes made
+ * by other instances or outside the application. Items written while a reconcile runs keep the state their
+ * own evaluation gave them.
+ */
+@Service
+public class LowStockAlertService {
+    private static final Logger logger = LoggerFactory.getLogger(LowStockAlertService.class);
+    private static final String TOPIC = "low-stock";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /** Minutes between reconciles with MongoDB; 0 only seeds the alerts at startup. */
+    @Value("${inventory.low-stock.reconcile-minutes:15}")
+    private long reconcileMinutes = 15;
+
+    @Value("${inventory.low-stock.events.buffer-capacity:256}")
+    private int bufferCapacity = 256;
+
+    @Value("${inventory.low-stock.events.timeout-ms:1800000}")
+    private long timeoutMs = 1800000;
+
+    @Value("${inventory.low-stock.events.heartbeat-seconds:20}")
+    private long heartbeatSeconds = 20;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final Map<String, LowStockAlert> alerts = new ConcurrentHashMap<>();
+    /** SKUs evaluated since the running reconcile started; {@code null} when none is running. */
+    private volatile Set<String> touched;
+    private ScheduledExecutorService scheduler;
+    private SseFanout<LowStockEvent> fanout;
+
+    @PostConstruct
+    public void start() {
+        // One dispatch thread: there is a single topic, and its events must leave in the order they were applied.
+        fanout = new SseFanout<>("low-stock-events", LowStockEvent::getType, 1, virtualThreads,
+                bufferCapacity, timeoutMs, heartbeatSeconds);
+        scheduler = Executors.newSingleThreadScheduledExecutor(ThreadFactories.named("low-stock-reconcile-", false));
+        Gauge.builder("inventory.low_stock.items", alerts, Map::size)
+                .description("Items at or below their low-stock threshold")
+                .register(meterRegistry);
+        FunctionCounter.builder("inventory.low_stock.events.dropped", fanout, SseFanout::getDropped)
+                .description("Low-stock events dropped because a subscriber's buffer was full")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleReconcile() {
+        if (reconcileMinutes > 0) {
+            scheduler.scheduleWithFixedDelay(this::reconcileQuietly, 0, reconcileMinutes, TimeUnit.MINUTES);
+        } else {
+            scheduler.execute(this::reconcileQuietly);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        fanout.close();
+    }
+
+    /** Re-evaluates {@code item} as it was just written; {@code quantity}, {@code lowStockThreshold} and {@code sku} must be set. */
+    public void evaluate(Inventory item) {
+        if (item == null || item.getSku() == null) {
+            return;
+        }
+        alerts.compute(item.getSku(), (sku, current) -> {
+            Set<String> reconciling = touched;
+            if (reconciling != null) {
+                reconciling.add(sku);
+            }
+            return apply(current, item);
+        });
+    }
+
+    public void evaluate(Collection<Inventory> items) {
+        for (Inventory item : items) {
+            evaluate(item);
+        }
+    }
+
+    /** Drops the alert for a deleted SKU. */
+    public void remove(String sku) {
+        if (sku == null) {
+            return;
+        }
+        alerts.computeIfPresent(sku, (key, current) -> {
+            Set<String> reconciling = touched;
+            if (reconciling != null) {
+                reconciling.add(key);
+            }
+            transition(LowStockEvent.REMOVED, current);
+            return null;
+        });
+    }
+
+    public void removeAll(Collection<String> skus) {
+        for (String sku : skus) {
+            remove(sku);
+        }
+    }
+
+    /** The currently low items, by SKU. */
+    public List<LowStockAlert> getAlerts() {
+        List<LowStockAlert> current = new ArrayList<>(alerts.values());
+        current.sort(Comparator.comparing(LowStockAlert::getSku));
+        return current;
+    }
+
+    /**
+     * Replaces the alerts with what MongoDB holds now, publishing a transition for every difference, and
+     * returns the number of low items. The query reads only the low items, but {@code $expr} cannot use an
+     * index, so it scans the collection once.
+     */
+    public synchronized int reconcile() {
+        Set<String> reconciling = ConcurrentHashMap.newKeySet();
+        touched = reconciling;
+        try {
+            Query query = new Query(Criteria.expr(ComparisonOperators.valueOf("quantity").lessThanEqualTo("lowStockThreshold")));
+            query.fields().include("sku", "name", "quantity", "lowStockThreshold", "version");
+            Map<String, Inventory> low = new HashMap<>();
+            try (Stream<Inventory> items = mongoTemplate.stream(query, Inventory.class)) {
+                items.forEach(item -> low.put(item.getSku(), item));
+            }
+            for (String sku : alerts.keySet()) {
+                if (!low.containsKey(sku)) {
+                    alerts.computeIfPresent(sku, (key, current) -> {
+                        if (reconciling.contains(key)) {
+                            return current;
+                        }
+                        transition(LowStockEvent.CLEARED, current);
+                        return null;
+                    });
+                }
+            }
+            for (Inventory item : low.values()) {
+                alerts.compute(item.getSku(), (sku, current) -> reconciling.contains(sku) ? current : apply(current, item));
+            }
+            return low.size();
+        } finally {
+            touched = null;
+        }
+    }
+
+    /** Opens an event stream starting with a snapshot of the current alerts. */
+    public SseEmitter subscribe() {
+        return fanout.subscribe(TOPIC, this::getAlerts);
+    }
+
+    public int getSubscriberCount() {
+        return fanout.getSubscriberCount();
+    }
+
+    /**
+     * Next state for one SKU; called inside the map's per-key compute, so transitions for a SKU are published
+     * in the order they are applied. A write older than the alert (by {@code version}) is ignored.
+     */
+    private LowStockAlert apply(LowStockAlert current, Inventory item) {
+        if (current != null && item.getVersion() != null && current.getVersion() != null
+                && item.getVersion() < current.getVersion()) {
+            return current;
+        }
+        if (item.getQuantity() <= item.getLowStockThreshold()) {
+            LowStockAlert alert = new LowStockAlert(item, current == null ? LocalDateTime.now() : current.getSince());
+            if (current == null) {
+                transition(LowStockEvent.LOW, alert);
+            }
+            return alert;
+        }
+        if (current != null) {
+            transition(LowStockEvent.CLEARED, new LowStockAlert(item, current.getSince()));
+        }
+        return null;
+    }
+
+    private void transition(String type, LowStockAlert alert) {
+        meterRegistry.counter("inventory.low_stock.transitions", "type", type).increment();
+        logger.debug("Low-stock {}: SKU={}, Quantity={}, Threshold={}", type, alert.getSku(), alert.getQuantity(), alert.getLowStockThreshold());
+        fanout.publish(TOPIC, new LowStockEvent(type, alert));
+    }
+
+    private void reconcileQuietly() {
+        try {
+            long start = System.nanoTime();
+            int low = reconcile();
+            logger.info("Low-stock alerts reconciled: items={}, millis={}", low, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            logger.warn("Low-stock reconcile failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.dlvery.service;
+
+import com.dlvery.dto.IndexReport;
+import com.dlvery.dto.IndexUsage;
+import com.dlvery.dto.QueryPlan;
+import com.dlvery.model.AuditLog;
+import com.dlvery.model.Delivery;
+import com.dlvery.model.DeliveryStatsDaily;
+import com.dlvery.model.Inventory;
+import com.dlvery.model.User;
+import com.dlvery.util.ThreadFactories;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Creates the indexes declared on the models ({@code @Indexed}/{@code @CompoundIndex}) and reports how
+ * they are used. Spring's own auto-index-creation stays off so startup never blocks on MongoDB; the
+ * indexes are ensured on a background thread once the application is ready. The report explains every
+ * repository query shape and, when the MongoDB profiler is enabled, lists recently profiled COLLSCANs.
+ */
+@Service
+public class MongoIndexService {
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexService.class);
+    static final List<Class<?>> MANAGED = List.of(Inventory.class, Delivery.class, User.class, AuditLog.class,
+            DeliveryStatsDaily.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${mongo.indexes.auto-create:true}")
+    private boolean autoCreate = true;
+
+    /** Slow-operation threshold for the database profiler; negative leaves the profiler untouched. */
+    @Value("${mongo.indexes.profile-slow-ms:-1}")
+    private int profileSlowMs = -1;
+
+    @Value("${mongo.indexes.max-reported-scans:50}")
+    private int maxReportedScans = 50;
+
+    private final List<String> failures = new CopyOnWriteArrayList<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (!autoCreate) {
+            return;
+        }
+        ThreadFactories.named("mongo-indexes-", false).newThread(() -> {
+            ensureIndexes();
+            enableProfiler();
+        }).start();
+    }
+
+    /** Ensures every declared index exists. Failures (e.g. duplicates blocking a unique index) are kept for the report. */
+    public List<String> ensureIndexes() {
+        failures.clear();
+        IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+        int ensured = 0;
+        for (Class<?> type : MANAGED) {
+            MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(type);
+            for (IndexDefinition index : resolver.resolveIndexFor(entity.getTypeInformation())) {
+                try {
+                    mongoTemplate.indexOps(type).ensureIndex(index);
+                    ensured++;
+                } catch (RuntimeException e) {
+                    String failure = entity.getCollection() + " " + index.getIndexKeys().toJson() + ": " + e.getMessage();
+                    failures.add(failure);
+                    logger.error("Failed to create index {}", failure);
+                }
+            }
+        }
+        logger.info("Ensured {} MongoDB indexes, {} failed", ensured, failures.size());
+        return List.copyOf(failures);
+    }
+
+    public IndexReport report() {
+        IndexReport report = new IndexReport();
+        report.getFailures().addAll(failures);
+        for (Class<?> type : MANAGED) {
+            String collection = mongoTemplate.getCollectionName(type);
+            try {
+                for (Document stats : mongoTemplate.getCollection(collection)
+                        .aggregate(List.of(new Document("$indexStats", new Document())))) {
+                    Document accesses = stats.get("accesses", Document.class);
+                    report.getIndexes().add(new IndexUsage(collection, stats.getString("name"),
+                            new LinkedHashMap<>(stats.get("key", Document.class)),
+                            accesses == null ? 0 : ((Number) accesses.get("ops")).longValue(),
+                            accesses == null ? null : accesses.getDate("since")));
+                }
+            } catch (RuntimeException e) {
+                report.getFailures().add(collection + " $indexStats: " + e.getMessage());
+            }
+        }
+        for (QueryShape shape : queryShapes()) {
+            String collection = mongoTemplate.getCollectionName(shape.type);
+            try {
+                Document explain = mongoTemplate.getCollection(collection).find(shape.filter).explain();
+                QueryPlan plan = winningPlan(explain, collection, shape.filter.toJson());
+                report.getQueryPlans().add(plan);
+                if (plan.isCollectionScan()) {
+                    report.getCollectionScans().add(plan);
+                }
+            } catch (RuntimeException e) {
+                report.getFailures().add(collection + " explain " + shape.filter.toJson() + ": " + e.getMessage());
+            }
+        }
+        report.getCollectionScans().addAll(profiledScans(report.getFailures()));
+        return report;
+    }
+
+    /** The filter shapes issued by the repositories and services, with placeholder values. */
+    static List<QueryShape> queryShapes() {
+        Document dateRange = new Document("$gte", "2000-01-01").append("$lte", "2000-01-02");
+        return List.of(
+                new QueryShape(Delivery.class, new Document("agentId", "a").append("status", "PENDING")),
+                new QueryShape(Delivery.class, new Document("agentId", "a")),
+                new QueryShape(Delivery.class, new Document("status", "PENDING").append("deliveryDate", dateRange)),
+                new QueryShape(Delivery.class, new Document("status", "PENDING")),
+                new QueryShape(Delivery.class, new Document("sku", "s")),
+                new QueryShape(Inventory.class, new Document("sku", "s")),
+                new QueryShape(Inventory.class, new Document("category", "c")),
+                new QueryShape(User.class, new Document("username", "u")),
+                new QueryShape(User.class, new Document("email", "e")),
+                new QueryShape(User.class, new Document("agentId", "a")),
+                new QueryShape(AuditLog.class, new Document("entity", "Delivery")),
+                new QueryShape(AuditLog.class, new Document("timestamp", new Document("$gte", "2000-01-01"))),
+                new QueryShape(DeliveryStatsDaily.class, new Document("day", dateRange)));
+    }
+
+    /**
+     * Reduces an explain document to its access stage: IXSCAN (with the index name) if any branch uses an
+     * index, otherwise COLLSCAN, otherwise the root stage. Handles both classic and SBE explain layouts.
+     */
+    static QueryPlan winningPlan(Document explain, String collection, String query) {
+        Document planner = explain.get("queryPlanner", Document.class);
+        Document winning = planner == null ? null : planner.get("winningPlan", Document.class);
+        if (winning != null && winning.containsKey("queryPlan")) {
+            winning = winning.get("queryPlan", Document.class);
+        }
+        if (winning == null) {
+            return new QueryPlan(QueryPlan.EXPLAIN, collection, query, "UNKNOWN", null, null);
+        }
+        List<Document> stages = new ArrayList<>();
+        collectStages(winning, stages);
+        for (Document stage : stages) {
+            if ("IXSCAN".equals(stage.getString("stage"))) {
+                return new QueryPlan(QueryPlan.EXPLAIN, collection, query, "IXSCAN", stage.getString("indexName"), null);
+            }
+        }
+        for (Document stage : stages) {
+            if ("COLLSCAN".equals(stage.getString("stage"))) {
+                return new QueryPlan(QueryPlan.EXPLAIN, collection, query, "COLLSCAN", null, null);
+            }
+        }
+        return new QueryPlan(QueryPlan.EXPLAIN, collection, query, winning.getString("stage"), null, null);
+    }
+
+    private static void collectStages(Document stage, List<Document> stages) {
+        stages.add(stage);
+        Object input = stage.get("inputStage");
+        if (input instanceof Document) {
+            collectStages((Document) input, stages);
+        }
+        Object inputs = stage.get("inputStages");
+        if (inputs instanceof List) {
+            for (Object child : (List<?>) inputs) {
+                if (child instanceof Document) {
+                    collectStages((Document) child, stages);
+                }
+            }
+        }
+    }
+
+    private List<QueryPlan> profiledScans(List<String> reportFailures) {
+        List<QueryPlan> scans = new ArrayList<>();
+        try {
+            for (Document entry : mongoTemplate.getCollection("system.profile")
+                    .find(new Document("planSummary", "COLLSCAN"))
+                    .sort(new Document("ts", -1))
+                    .limit(maxReportedScans)) {
+                String namespace = entry.getString("ns");
+                String collection = namespace == null ? null : namespace.substring(namespace.indexOf('.') + 1);
+                Document command = entry.get("command", Document.class);
+                Number millis = (Number) entry.get("millis");
+                scans.add(new QueryPlan(QueryPlan.PROFILER, collection, command == null ? null : command.toJson(),
+                        "COLLSCAN", null, millis == null ? null : millis.longValue()));
+            }
+        } catch (RuntimeException e) {
+            reportFailures.add("system.profile: " + e.getMessage());
+        }
+        return scans;
+    }
+
+    private void enableProfiler() {
+        if (profileSlowMs < 0) {
+            return;
+        }
+        try {
+            mongoTemplate.executeCommand(new Document("profile", 1).append("slowms", profileSlowMs));
+            logger.info("MongoDB profiler enabled for operations slower than {} ms", profileSlowMs);
+        } catch (RuntimeException e) {
+            logger.warn("Could not enable the MongoDB profiler: {}", e.getMessage());
+        }
+    }
+
+    static class QueryShape {
+        final Class<?> type;
+        final Document filter;
+
+        QueryShape(Class<?> type, Document filter) {
+            this.type = type;
+            this.filter = filter;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.dlvery.service;
+
+import com.dlvery.dto.CacheStatistics;
+import com.dlvery.model.Inventory;
+import com.dlvery.repository.InventoryRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded read-through cache for inventory lookups by SKU, including "not found" results. Entries expire
+ * after a TTL and are invalidated by every local write to the SKU (updates, deletes, imports, stock
+ * reservations). With {@code inventory.sku-cache.invalidation=change-stream} each instance also follows
+ * the inventory change stream, so writes made by other instances evict their entries here too. Cached
+ * items are shared and must be treated as read-only.
+ */
+@Component
+public class SkuCache {
+    private static final Logger logger = LoggerFactory.getLogger(SkuCache.class);
+    public static final String LOCAL = "local";
+    public static final String CHANGE_STREAM = "change-stream";
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${inventory.sku-cache.max-size:10000}")
+    private long maxSize = 10000;
+
+    @Value("${inventory.sku-cache.ttl-seconds:60}")
+    private long ttlSeconds = 60;
+
+    @Value("${inventory.sku-cache.invalidation:local}")
+    private String invalidation = LOCAL;
+
+    private Cache<String, Optional<Inventory>> cache;
+    private volatile boolean watching;
+    private volatile MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "inventory.sku");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWatching() {
+        if (!CHANGE_STREAM.equalsIgnoreCase(invalidation)) {
+            return;
+        }
+        watching = true;
+        Thread thread = new Thread(this::watch, "sku-cache-watch");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        watching = false;
+        MongoChangeStreamCursor<?> current = cursor;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (RuntimeException e) {
+                logger.debug("Closing SKU change stream: {}", e.getMessage());
+            }
+        }
+    }
+
+    public Optional<Inventory> findBySku(String sku) {
+        if (sku == null) {
+            return Optional.empty();
+        }
+        return cache.get(sku, inventoryRepository::findBySku);
+    }
+
+    public void invalidate(String sku) {
+        if (sku != null) {
+            cache.invalidate(sku);
+        }
+    }
+
+    public void invalidateAll(Collection<String> skus) {
+        cache.invalidateAll(skus);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStatistics getStatistics() {
+        // Run pending maintenance so size and eviction counts are current.
+        cache.cleanUp();
+        return CacheStatistics.of(cache);
+    }
+
+    /**
+     * Follows inventory changes and evicts the affected SKUs. Deletes and SKU renames do not carry the old
+     * SKU in the event, so they clear the whole cache, as does every (re)connect because events missed in
+     * between cannot be told apart. On a standalone server (no change streams) TTL expiry stays in charge.
+     */
+    private void watch() {
+        String collection = mongoTemplate.getCollectionName(Inventory.class);
+        long backoffMs = 1000;
+        while (watching) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> opened = mongoTemplate.getCollection(collection)
+                    .watch(List.of(Aggregates.match(Filters.in("operationType",
+                            List.of("insert", "update", "replace", "delete", "drop", "rename", "invalidate")))))
+                    .fullDocument(FullDocument.UPDATE_LOOKUP)
+                    .maxAwaitTime(1, TimeUnit.SECONDS)
+                    .cursor()) {
+                cursor = opened;
+                cache.invalidateAll();
+                logger.info("Watching {} for SKU cache invalidation", collection);
+                backoffMs = 1000;
+                while (watching) {
+                    ChangeStreamDocument<Document> event = opened.tryNext();
+                    if (event != null) {
+                        apply(event);
+                        if (event.getOperationType() == OperationType.INVALIDATE) {
+                            break;
+                        }
+                    }
+                }
+            } catch (RuntimeException e) {
+                if (!watching) {
+                    break;
+                }
+                logger.warn("SKU cache change stream failed, retrying in {} ms: {}", backoffMs, e.getMessage());
+                cache.invalidateAll();
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, 60_000);
+            }
+        }
+    }
+
+    void apply(ChangeStreamDocument<Document> event) {
+        OperationType type = event.getOperationType();
+        Document document = event.getFullDocument();
+        boolean skuRenamed = type == OperationType.UPDATE && event.getUpdateDescription() != null
+                && event.getUpdateDescription().getUpdatedFields() != null
+                && event.getUpdateDescription().getUpdatedFields().containsKey("sku");
+        if (document != null && document.getString("sku") != null && !skuRenamed) {
+            cache.invalidate(document.getString("sku"));
+        } else {
+            cache.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.dlvery.service;
+
+import com.dlvery.exception.BadRequestException;
+import com.dlvery.exception.ServiceUnavailableException;
+import com.dlvery.model.Inventory;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Reserves stock without read-modify-write races. The default {@code atomic} mode decrements the
+ * quantity with one conditional update ({@code quantity >= requested}), so MongoDB's per-document
+ * atomicity guarantees no oversell. The {@code optimistic} mode is a fallback that reads the item and
+ * applies the decrement with a compare-and-set on {@code version}, retrying with jittered backoff.
+ * Neither mode holds a lock in the JVM.
+ */
+@Service
+public class StockReservationService {
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationService.class);
+    public static final String ATOMIC = "atomic";
+    public static final String OPTIMISTIC = "optimistic";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private SkuCache skuCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private LowStockAlertService lowStockAlerts;
+
+    @Value("${inventory.reservation.mode:atomic}")
+    private String mode = ATOMIC;
+
+    @Value("${inventory.reservation.max-retries:20}")
+    private int maxRetries = 20;
+
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    @PostConstruct
+    public void registerMetrics() {
+        FunctionCounter.builder("inventory.reservation.conflicts", conflicts, LongAdder::sum)
+                .description("Optimistic reservations retried because the item changed underneath")
+                .register(meterRegistry);
+        FunctionCounter.builder("inventory.reservation.rejections", rejections, LongAdder::sum)
+                .description("Reservations rejected for an unknown SKU or insufficient stock")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Decrements {@code quantity} units of {@code sku} and returns the item as it is after the decrement.
+     *
+     * @throws BadRequestException if the SKU does not exist or has insufficient stock
+     */
+    public Inventory reserve(String sku, int quantity) {
+        if (quantity <= 0) {
+            throw new BadRequestException("Quantity must be positive");
+        }
+        Inventory reserved = OPTIMISTIC.equalsIgnoreCase(mode) ? reserveOptimistic(sku, quantity) : reserveAtomic(sku, quantity);
+        skuCache.invalidate(sku);
+        lowStockAlerts.evaluate(reserved);
+        return reserved;
+    }
+
+    /** Returns previously reserved units, e.g. when the delivery that consumed them could not be saved. */
+    public void release(String sku, int quantity) {
+        Inventory released = mongoTemplate.findAndModify(Query.query(Criteria.where("sku").is(sku)),
+                new Update().inc("quantity", quantity).inc("version", 1), FindAndModifyOptions.options().returnNew(true), Inventory.class);
+        skuCache.invalidate(sku);
+        lowStockAlerts.evaluate(released);
+        logger.info("Released reservation: SKU={}, Quantity={}", sku, quantity);
+    }
+
+    public long getConflicts() {
+        return conflicts.sum();
+    }
+
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    private Inventory reserveAtomic(String sku, int quantity) {
+        Query query = Query.query(Criteria.where("sku").is(sku).and("quantity").gte(quantity));
+        Update update = new Update().inc("quantity", -quantity).inc("version", 1);
+        Inventory updated = mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Inventory.class);
+        if (updated == null) {
+            throw rejection(sku);
+        }
+        return updated;
+    }
+
+    private Inventory reserveOptimistic(String sku, int quantity) {
+        for (int attempt = 0; attempt <= maxRetries; attempt++) {
+            Inventory current = mongoTemplate.findOne(Query.query(Criteria.where("sku").is(sku)), Inventory.class);
+            if (current == null || current.getQuantity() < quantity) {
+                throw rejection(sku);
+            }
+            Criteria expected = Criteria.where("_id").is(current.getId()).and("quantity").is(current.getQuantity());
+            if (current.getVersion() == null) {
+                expected.and("version").exists(false);
+            } else {
+                expected.and("version").is(current.getVersion());
+            }
+            UpdateResult result = mongoTemplate.updateFirst(Query.query(expected),
+                    new Update().inc("quantity", -quantity).inc("version", 1), Inventory.class);
+            if (result.getModifiedCount() == 1) {
+                current.setQuantity(current.getQuantity() - quantity);
+                current.setVersion(current.getVersion() == null ? 1 : current.getVersion() + 1);
+                return current;
+            }
+            conflicts.increment();
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(ThreadLocalRandom.current().nextInt(50, 200) * (attempt + 1L)));
+        }
+        logger.warn("Reservation for SKU {} gave up after {} version conflicts", sku, maxRetries + 1);
+        throw new ServiceUnavailableException("Stock for SKU " + sku + " is under heavy contention, retry later");
+    }
+
+    private BadRequestException rejection(String sku) {
+        rejections.increment();
+        boolean exists = mongoTemplate.exists(Query.query(Criteria.where("sku").is(sku)), Inventory.class);
+        return new BadRequestException(exists
+                ? "Insufficient stock for SKU: " + sku
+                : "Inventory item not found for SKU: " + sku);
+    }
+}
@@ -0,0 +1,81 @@
+package com.dlvery.service;
+
+import com.dlvery.dto.CacheStatistics;
+import com.dlvery.model.User;
+import com.dlvery.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Read-through cache of user profiles by username. Only existing users are cached, so a newly registered
+ * username is never shadowed by an earlier miss. Entries expire after a TTL and are evicted locally
+ * whenever the user is saved, so another instance may show a stale profile until the TTL passes. For that
+ * reason the cache never holds password hashes and is not used to authenticate or authorize: that path
+ * reads {@link UserRepository} directly. Cached users are shared and must not be modified; code that
+ * changes a user reads it from the repository. A max size of 0 disables the cache.
+ */
+@Component
+public class UserCache {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${user.cache.max-size:10000}")
+    private long maxSize = 10000;
+
+    @Value("${user.cache.ttl-seconds:300}")
+    private long ttlSeconds = 300;
+
+    private Cache<String, User> cache;
+
+    @PostConstruct
+    public void init() {
+        if (maxSize <= 0) {
+            return;
+        }
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+    }
+
+    public Optional<User> findByUsername(String username) {
+        if (cache == null || username == null) {
+            return userRepository.findByUsername(username).map(UserCache::profile);
+        }
+        return Optional.ofNullable(cache.get(username, name -> userRepository.findByUsername(name).map(UserCache::profile).orElse(null)));
+    }
+
+    private static User profile(User user) {
+        User profile = new User(user.getUsername(), null, user.getEmail(), user.getRole(), user.getAgentId());
+        profile.setId(user.getId());
+        return profile;
+    }
+
+    public void evict(String username) {
+        if (cache != null && username != null) {
+            cache.invalidate(username);
+        }
+    }
+
+    public CacheStatistics getStatistics() {
+        if (cache == null) {
+            return new CacheStatistics();
+        }
+        cache.cleanUp();
+        return CacheStatistics.of(cache);
+    }
+}
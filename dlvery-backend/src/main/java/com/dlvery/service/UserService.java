@@ -22,13 +22,16 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserCache userCache;
+
     // ADDED: Logger
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
     public Optional<User> findByUsername(String username) {
         // ADDED: Log query
         logger.debug("Finding user by username: {}", username);
-        Optional<User> user = userRepository.findByUsername(username);
+        Optional<User> user = userCache.findByUsername(username);
         logger.debug("User found: {}", user.isPresent() ? "present" : "not found");
         return user;
     }
@@ -36,7 +39,8 @@ public class UserService {
     public User updateProfile(String username, User updatedUser) {
         // ADDED: Log request
         logger.debug("Updating profile for username: {}", username);
-        User existingUser = findByUsername(username)
+        // Read fresh from the repository: cached users are shared and must not be modified in place.
+        User existingUser = userRepository.findByUsername(username)
                 .orElseThrow(() -> new BadRequestException("User not found"));
         if (updatedUser.getEmail() != null && !updatedUser.getEmail().isEmpty()) {
             existingUser.setEmail(updatedUser.getEmail());
@@ -45,6 +49,7 @@ public class UserService {
             existingUser.setPassword(passwordEncoder.encode(updatedUser.getPassword()));
         }
         User savedUser = userRepository.save(existingUser);
+        userCache.evict(username);
         logger.info("Profile updated for username: {}", username);
         return savedUser;
     }
@@ -72,6 +77,7 @@ public class UserService {
         }
 
         User savedUser = userRepository.save(user);
+        userCache.evict(user.getUsername());
         logger.info("User registered: {}", userDTO.getUsername());
         return savedUser;
     }
@@ -83,6 +89,7 @@ public class UserService {
             user.setPassword(passwordEncoder.encode(user.getPassword()));
         }
         User savedUser = userRepository.save(user);
+        userCache.evict(user.getUsername());
         logger.info("User saved: {}", user.getUsername());
         return savedUser;
     }
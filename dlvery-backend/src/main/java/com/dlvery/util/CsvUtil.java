@@ -6,12 +6,22 @@ import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 
 public class CsvUtil {
+    public static final List<String> INVENTORY_HEADERS = Arrays.asList(
+            "sku", "name", "category", "damaged", "perishable", "expiryDate", "quantity", "lowStockThreshold");
+
     public static List<Inventory> parseInventoryCsv(MultipartFile file) throws Exception {
         List<Inventory> inventories = new ArrayList<>();
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
@@ -20,16 +30,8 @@ public class CsvUtil {
                     .withIgnoreHeaderCase()
                     .withTrim());
             for (CSVRecord record : csvParser) {
-                Inventory inventory = new Inventory();
+                Inventory inventory = toInventory(record);
                 inventory.setId(UUID.randomUUID().toString());
-                inventory.setSku(record.get("sku"));
-                inventory.setName(record.get("name"));
-                inventory.setCategory(record.get("category"));
-                inventory.setDamaged(Boolean.parseBoolean(record.get("damaged")));
-                inventory.setPerishable(Boolean.parseBoolean(record.get("perishable")));
-                inventory.setExpiryDate(record.get("expiryDate"));
-                inventory.setQuantity(Integer.parseInt(record.get("quantity")));
-                inventory.setLowStockThreshold(Integer.parseInt(record.get("lowStockThreshold")));
                 inventories.add(inventory);
             }
             return inventories;
@@ -37,4 +39,96 @@ public class CsvUtil {
             throw new Exception("Failed to parse CSV: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Opens a lazily iterating parser over an inventory CSV whose first line is the header row.
+     * Records are read one at a time, so callers can process files of any size in bounded memory.
+     */
+    public static CSVParser openInventoryParser(Reader reader) throws IOException {
+        CSVParser parser = CSVFormat.DEFAULT.builder()
+                .setHeader()
+                .setSkipHeaderRecord(true)
+                .setIgnoreHeaderCase(true)
+                .setTrim(true)
+                .setIgnoreEmptyLines(true)
+                .build()
+                .parse(reader);
+        List<String> missing = new ArrayList<>();
+        for (String header : INVENTORY_HEADERS) {
+            if (!parser.getHeaderMap().containsKey(header)) {
+                missing.add(header);
+            }
+        }
+        if (!missing.isEmpty()) {
+            parser.close();
+            throw new IllegalArgumentException("Missing CSV columns: " + String.join(", ", missing));
+        }
+        return parser;
+    }
+
+    /**
+     * Maps a single CSV record to an {@link Inventory}. Throws {@link IllegalArgumentException}
+     * when the row is short, has an empty SKU or carries non-numeric quantities.
+     */
+    public static Inventory toInventory(CSVRecord record) {
+        return toInventory(record::get);
+    }
+
+    /**
+     * Row mapper for {@link ParallelCsvParser}, given the file's header as lower-cased column name to index.
+     * Rows map exactly as {@link #toInventory(CSVRecord)} does.
+     *
+     * @throws IllegalArgumentException when required columns are missing from the header
+     */
+    public static ParallelCsvParser.RowMapper<Inventory> inventoryRowMapper(Map<String, Integer> header) {
+        Map<String, Integer> indexes = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String column : INVENTORY_HEADERS) {
+            Integer index = header.get(column.toLowerCase(Locale.ROOT));
+            if (index == null) {
+                missing.add(column);
+            } else {
+                indexes.put(column, index);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Missing CSV columns: " + String.join(", ", missing));
+        }
+        return fields -> toInventory(column -> {
+            int index = indexes.get(column);
+            if (index >= fields.size()) {
+                throw new IllegalArgumentException("Row has " + fields.size() + " columns, '" + column + "' is column " + (index + 1));
+            }
+            return fields.get(index);
+        });
+    }
+
+    /**
+     * Maps one row given as column name to value; {@code column} is asked for each of {@link #INVENTORY_HEADERS}.
+     * Throws {@link IllegalArgumentException} when the SKU is empty or quantities are not numeric.
+     */
+    public static Inventory toInventory(Function<String, String> column) {
+        String sku = column.apply("sku");
+        if (sku == null || sku.isBlank()) {
+            throw new IllegalArgumentException("SKU is required");
+        }
+        Inventory inventory = new Inventory();
+        inventory.setSku(sku);
+        inventory.setName(column.apply("name"));
+        inventory.setCategory(column.apply("category"));
+        inventory.setDamaged(Boolean.parseBoolean(column.apply("damaged")));
+        inventory.setPerishable(Boolean.parseBoolean(column.apply("perishable")));
+        inventory.setExpiryDate(column.apply("expiryDate"));
+        inventory.setQuantity(parseInt(column.apply("quantity"), "quantity"));
+        inventory.setLowStockThreshold(parseInt(column.apply("lowStockThreshold"), "lowStockThreshold"));
+        return inventory;
+    }
+
+    private static int parseInt(String value, String column) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": '" + value + "'");
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.dlvery.util;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process publish/subscribe keyed by topic. {@link #publish} never blocks: each subscriber has its
+ * own bounded buffer, and when a slow subscriber's buffer is full the oldest event is dropped and
+ * counted. Buffers are drained on the dispatcher executor, at most one drain per subscriber at a time,
+ * so a listener sees its events in publish order and never concurrently. A listener that throws is
+ * unsubscribed.
+ */
+public class EventBus<E> {
+
+    public interface Listener<E> {
+        void onEvent(E event) throws Exception;
+
+        /** Called before the next delivered event when {@code dropped} events were lost to overflow. */
+        void onOverflow(long dropped) throws Exception;
+
+        default void onClose() {
+        }
+    }
+
+    private final Map<String, Set<Subscription>> topics = new ConcurrentHashMap<>();
+    private final Executor dispatcher;
+    private final int bufferCapacity;
+    private final AtomicLong dropped = new AtomicLong();
+
+    public EventBus(Executor dispatcher, int bufferCapacity) {
+        if (bufferCapacity <= 0) {
+            throw new IllegalArgumentException("bufferCapacity must be positive");
+        }
+        this.dispatcher = dispatcher;
+        this.bufferCapacity = bufferCapacity;
+    }
+
+    public Subscription subscribe(String topic, Listener<E> listener) {
+        Subscription subscription = new Subscription(topic, listener);
+        topics.computeIfAbsent(topic, key -> ConcurrentHashMap.newKeySet()).add(subscription);
+        return subscription;
+    }
+
+    /** Queues {@code event} for every current subscriber of {@code topic}. */
+    public void publish(String topic, E event) {
+        Set<Subscription> subscribers = topics.get(topic);
+        if (subscribers == null) {
+            return;
+        }
+        for (Subscription subscription : subscribers) {
+            subscription.enqueue(event);
+        }
+    }
+
+    public int getSubscriberCount() {
+        int count = 0;
+        for (Set<Subscription> subscribers : topics.values()) {
+            count += subscribers.size();
+        }
+        return count;
+    }
+
+    public boolean hasSubscribers(String topic) {
+        Set<Subscription> subscribers = topics.get(topic);
+        return subscribers != null && !subscribers.isEmpty();
+    }
+
+    /** Total events dropped across all subscribers because their buffers were full. */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public final class Subscription {
+        private final String topic;
+        private final Listener<E> listener;
+        private final ArrayDeque<E> buffer = new ArrayDeque<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+        private long overflowed;
+
+        private Subscription(String topic, Listener<E> listener) {
+            this.topic = topic;
+            this.listener = listener;
+        }
+
+        public String getTopic() {
+            return topic;
+        }
+
+        public boolean isClosed() {
+            return closed;
+        }
+
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            topics.computeIfPresent(topic, (key, subscribers) -> {
+                subscribers.remove(this);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+            synchronized (buffer) {
+                buffer.clear();
+            }
+            listener.onClose();
+        }
+
+        private void enqueue(E event) {
+            if (closed) {
+                return;
+            }
+            synchronized (buffer) {
+                if (buffer.size() >= bufferCapacity) {
+                    buffer.pollFirst();
+                    overflowed++;
+                    dropped.incrementAndGet();
+                }
+                buffer.addLast(event);
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    dispatcher.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    close();
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                while (!closed) {
+                    E event;
+                    long lost;
+                    synchronized (buffer) {
+                        event = buffer.pollFirst();
+                        lost = overflowed;
+                        overflowed = 0;
+                    }
+                    if (lost > 0) {
+                        listener.onOverflow(lost);
+                    }
+                    if (event == null) {
+                        break;
+                    }
+                    listener.onEvent(event);
+                }
+            } catch (Exception e) {
+                close();
+            } finally {
+                scheduled.set(false);
+            }
+            // An event published after the last poll but before the flag was cleared would otherwise wait.
+            boolean pending;
+            synchronized (buffer) {
+                pending = !buffer.isEmpty();
+            }
+            if (pending && !closed) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.dlvery.util;
+
+import com.dlvery.model.Inventory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads inventory rows one at a time from a CSV file (header row first) or an NDJSON file (one object per
+ * line, keyed like the CSV columns, as written by {@code GET /api/inventory/stream}). Both formats map
+ * through {@link CsvUtil#toInventory(java.util.function.Function)}, so a row is valid in one exactly when
+ * it is valid in the other.
+ */
+public abstract class InventoryRowReader implements Closeable {
+    private static final ObjectReader JSON = new ObjectMapper().enable(DeserializationFeature.FAIL_ON_TRAILING_TOKENS).reader();
+
+    /**
+     * Advances to the next row.
+     *
+     * @return {@code false} at the end of the input
+     * @throws UncheckedIOException or {@link IllegalStateException} when the rest of the input cannot be read;
+     *                              {@link #getLine()} then points at where reading stopped
+     */
+    public abstract boolean next();
+
+    /** 1-based line on which the current row starts. */
+    public abstract long getLine();
+
+    /**
+     * Maps the current row.
+     *
+     * @throws IllegalArgumentException when the row is malformed
+     */
+    public abstract Inventory toInventory();
+
+    /** The current row's SKU as written, or {@code null} when it has none or could not be read. */
+    public abstract String getSku();
+
+    /**
+     * @throws IllegalArgumentException when required columns are missing from the header
+     */
+    public static InventoryRowReader csv(Reader reader) throws IOException {
+        return new Csv(CsvUtil.openInventoryParser(reader));
+    }
+
+    public static InventoryRowReader ndjson(Reader reader) {
+        return new Ndjson(reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader));
+    }
+
+    private static final class Csv extends InventoryRowReader {
+        private final CSVParser parser;
+        private final Iterator<CSVRecord> records;
+        private CSVRecord record;
+        private long line;
+
+        Csv(CSVParser parser) {
+            this.parser = parser;
+            this.records = parser.iterator();
+        }
+
+        @Override
+        public boolean next() {
+            record = null;
+            line = parser.getCurrentLineNumber() + 1;
+            if (!records.hasNext()) {
+                return false;
+            }
+            record = records.next();
+            return true;
+        }
+
+        @Override
+        public long getLine() {
+            return line;
+        }
+
+        @Override
+        public Inventory toInventory() {
+            return CsvUtil.toInventory(record);
+        }
+
+        @Override
+        public String getSku() {
+            return record != null && record.isSet("sku") ? record.get("sku") : null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+
+    private static final class Ndjson extends InventoryRowReader {
+        private final BufferedReader reader;
+        private final Map<String, String> fields = new HashMap<>();
+        private long lines;
+        private long line;
+        private String error;
+
+        Ndjson(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean next() {
+            String text;
+            do {
+                line = lines + 1;
+                try {
+                    text = reader.readLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (text == null) {
+                    return false;
+                }
+                lines++;
+            } while (text.isBlank());
+            parse(text);
+            return true;
+        }
+
+        /** Keeps the object's scalar members under lower-cased names; nested values are ignored. */
+        private void parse(String text) {
+            fields.clear();
+            error = null;
+            JsonNode node;
+            try {
+                node = JSON.readTree(text);
+            } catch (JsonProcessingException e) {
+                error = "Invalid JSON: " + e.getOriginalMessage();
+                return;
+            }
+            if (node == null || !node.isObject()) {
+                error = "Line is not a JSON object";
+                return;
+            }
+            node.fields().forEachRemaining(field -> {
+                JsonNode value = field.getValue();
+                if (value.isValueNode()) {
+                    fields.putIfAbsent(field.getKey().toLowerCase(Locale.ROOT), value.isNull() ? null : value.asText().trim());
+                }
+            });
+        }
+
+        @Override
+        public long getLine() {
+            return line;
+        }
+
+        @Override
+        public Inventory toInventory() {
+            if (error != null) {
+                throw new IllegalArgumentException(error);
+            }
+            return CsvUtil.toInventory(column -> fields.get(column.toLowerCase(Locale.ROOT)));
+        }
+
+        @Override
+        public String getSku() {
+            return error == null ? fields.get("sku") : null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.dlvery.util;
+
+import com.dlvery.dto.CursorPage;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination over {@code _id}. Each page is an index range scan starting after the previous
+ * page's last id, so page N costs the same as page 1 (unlike skip/limit).
+ */
+public class MongoPaging {
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    public static <T> CursorPage<T> page(MongoTemplate mongoTemplate, Criteria filter, String after, Integer limit,
+                                         Class<T> type, Function<T, String> idOf) {
+        int size = clamp(limit);
+        Criteria criteria = filter;
+        if (after != null && !after.isEmpty()) {
+            criteria = new Criteria().andOperator(filter, Criteria.where("_id").gt(after));
+        }
+        Query query = Query.query(criteria).with(Sort.by(Sort.Direction.ASC, "_id")).limit(size + 1);
+        List<T> items = mongoTemplate.find(query, type);
+        String nextCursor = null;
+        if (items.size() > size) {
+            items = items.subList(0, size);
+            nextCursor = idOf.apply(items.get(size - 1));
+        }
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    /** Query for streaming a whole filtered collection in {@code _id} order through a server-side cursor. */
+    public static Query streamQuery(Criteria filter) {
+        return Query.query(filter).with(Sort.by(Sort.Direction.ASC, "_id")).cursorBatchSize(500);
+    }
+
+    private static int clamp(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
@@ -0,0 +1,80 @@
+package com.dlvery.util;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free multi-producer / single-consumer ring buffer. Producers claim a slot with a CAS on
+ * the tail sequence and publish the element with an ordered store; the single consumer clears the slot
+ * before advancing the head, so a producer that sees free capacity always finds its slot empty.
+ */
+public class MpscRingBuffer<E> {
+    private final AtomicReferenceArray<E> slots;
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    public MpscRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2");
+        }
+        int size = Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+    }
+
+    /** Adds the element if there is room; never blocks. Safe to call from any thread. */
+    public boolean offer(E element) {
+        Objects.requireNonNull(element);
+        while (true) {
+            long current = tail.get();
+            if (current - head.get() >= capacity) {
+                return false;
+            }
+            if (tail.compareAndSet(current, current + 1)) {
+                slots.lazySet((int) (current & mask), element);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Removes the next element, or returns {@code null} when the buffer is empty or the next producer has
+     * claimed its slot but not yet published. Must only be called from the consumer thread.
+     */
+    public E poll() {
+        long current = head.get();
+        int index = (int) (current & mask);
+        E element = slots.get(index);
+        if (element == null) {
+            return null;
+        }
+        slots.lazySet(index, null);
+        head.lazySet(current + 1);
+        return element;
+    }
+
+    /** Moves up to {@code max} elements into {@code sink}. Consumer thread only. */
+    public int drainTo(Collection<? super E> sink, int max) {
+        int drained = 0;
+        E element;
+        while (drained < max && (element = poll()) != null) {
+            sink.add(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,38 @@
+package com.dlvery.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+public class NdjsonUtil {
+    private static final int FLUSH_EVERY = 500;
+
+    /**
+     * Writes each element of the stream as one JSON line. The stream is opened on the response thread and
+     * closed when writing ends, so a Mongo cursor behind it is released even if the client disconnects.
+     */
+    public static StreamingResponseBody write(ObjectMapper objectMapper, Supplier<? extends Stream<?>> source) {
+        return out -> {
+            ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            try (Stream<?> stream = source.get();
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                int written = 0;
+                Iterator<?> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    writer.writeValue(generator, iterator.next());
+                    generator.writeRaw('\n');
+                    if (++written % FLUSH_EVERY == 0) {
+                        generator.flush();
+                    }
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,349 @@
+package com.dlvery.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Parses a CSV file on a fork-join pool. The calling thread scans the file once for record boundaries
+ * (line feeds outside quotes) and cuts it into chunks of about {@code chunkBytes}; each chunk is read,
+ * decoded and parsed into rows by a pool worker, which also maps every row through the caller's
+ * {@link RowMapper}. Finished chunks are handed to the sink on the calling thread in completion order,
+ * not file order, and at most two chunks per worker are in flight, so memory stays bounded whatever the
+ * file size.
+ * <p>
+ * The first non-empty record is the header. Fields follow RFC 4180 (quoted fields may contain commas,
+ * doubled quotes and line breaks) and are trimmed; empty lines are skipped; lines end in LF or CRLF.
+ * Row line numbers are the 1-based physical line on which each record starts.
+ */
+public class ParallelCsvParser {
+    private static final int SCAN_BUFFER_BYTES = 1 << 20;
+
+    public interface RowMapper<T> {
+        /**
+         * Maps the fields of one row; the list is reused for the next row.
+         *
+         * @throws IllegalArgumentException when the row cannot be mapped
+         */
+        T map(List<String> fields);
+    }
+
+    public static final class Row<T> {
+        private final long line;
+        private final T value;
+        private final String error;
+
+        Row(long line, T value, String error) {
+            this.line = line;
+            this.value = value;
+            this.error = error;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        /** The mapped row, or {@code null} when {@link #getError()} is set. */
+        public T getValue() {
+            return value;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    public static final class Chunk<T> {
+        private final List<Row<T>> rows = new ArrayList<>();
+        private boolean truncated;
+
+        public List<Row<T>> getRows() {
+            return rows;
+        }
+
+        /** Whether the chunk ended inside a quoted field; nothing after that point could be read. */
+        public boolean isTruncated() {
+            return truncated;
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final int chunkBytes;
+
+    public ParallelCsvParser(ForkJoinPool pool, int chunkBytes) {
+        if (chunkBytes <= 0) {
+            throw new IllegalArgumentException("chunkBytes must be positive");
+        }
+        this.pool = pool;
+        this.chunkBytes = chunkBytes;
+    }
+
+    /**
+     * Parses {@code file}. {@code mapperForHeader} receives the header as lower-cased column name to
+     * index and may reject it with an {@link IllegalArgumentException} before any row is parsed.
+     */
+    public <T> void parse(Path file, Function<Map<String, Integer>, RowMapper<T>> mapperForHeader,
+                          Consumer<Chunk<T>> sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            byte[] buffer = new byte[SCAN_BUFFER_BYTES];
+            long headerEnd = 0;
+            long line = 1;
+            List<String> header = List.of();
+            while (header.isEmpty() && headerEnd < size) {
+                long start = headerEnd;
+                headerEnd = scanRecordEnd(channel, start, size, buffer);
+                String text = read(channel, start, headerEnd);
+                Chunk<List<String>> parsed = parseText(text, line, ArrayList::new);
+                line += newlines(text);
+                if (!parsed.getRows().isEmpty()) {
+                    Row<List<String>> first = parsed.getRows().get(0);
+                    if (first.getError() != null) {
+                        throw new IllegalArgumentException("Unreadable CSV header: " + first.getError());
+                    }
+                    header = first.getValue();
+                }
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                columns.putIfAbsent(header.get(i).toLowerCase(Locale.ROOT), i);
+            }
+            RowMapper<T> mapper = mapperForHeader.apply(columns);
+
+            CompletionService<Chunk<T>> completed = new ExecutorCompletionService<>(pool);
+            int maxInFlight = Math.max(2, pool.getParallelism() * 2);
+            int inFlight = 0;
+            long chunkStart = headerEnd;
+            long chunkLine = line;
+            long lines = 0;
+            RecordScanner scanner = new RecordScanner();
+            for (long position = headerEnd; position < size; ) {
+                int read = readFully(channel, position, buffer, (int) Math.min(buffer.length, size - position));
+                for (int i = 0; i < read; i++) {
+                    byte b = buffer[i];
+                    boolean recordEnd = scanner.accept(b);
+                    if (b == '\n') {
+                        lines++;
+                        long end = position + i + 1;
+                        if (recordEnd && end - chunkStart >= chunkBytes) {
+                            if (inFlight == maxInFlight) {
+                                sink.accept(take(completed));
+                                inFlight--;
+                            }
+                            submit(completed, channel, chunkStart, end, chunkLine, mapper);
+                            inFlight++;
+                            chunkStart = end;
+                            chunkLine += lines;
+                            lines = 0;
+                        }
+                    }
+                }
+                position += read;
+            }
+            if (chunkStart < size) {
+                submit(completed, channel, chunkStart, size, chunkLine, mapper);
+                inFlight++;
+            }
+            for (; inFlight > 0; inFlight--) {
+                sink.accept(take(completed));
+            }
+        }
+    }
+
+    private static <T> void submit(CompletionService<Chunk<T>> completed, FileChannel channel, long start, long end,
+                                   long firstLine, RowMapper<T> mapper) {
+        completed.submit(() -> parseText(read(channel, start, end), firstLine, mapper));
+    }
+
+    private static <T> Chunk<T> take(CompletionService<Chunk<T>> completed) throws IOException {
+        try {
+            return completed.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while parsing CSV", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /** Offset just past the first line feed outside quotes at or after {@code start}, or {@code size}. */
+    private static long scanRecordEnd(FileChannel channel, long start, long size, byte[] buffer) throws IOException {
+        RecordScanner scanner = new RecordScanner();
+        for (long position = start; position < size; ) {
+            int read = readFully(channel, position, buffer, (int) Math.min(buffer.length, size - position));
+            for (int i = 0; i < read; i++) {
+                if (scanner.accept(buffer[i])) {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static String read(FileChannel channel, long start, long end) {
+        byte[] bytes = new byte[Math.toIntExact(end - start)];
+        try {
+            readFully(channel, start, bytes, bytes.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int readFully(FileChannel channel, long position, byte[] target, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(target, 0, length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        return buffer.position();
+    }
+
+    private static long newlines(String text) {
+        long count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Follows quoting byte by byte the way {@link #parseText} does: a quote opens a quoted field only as the
+     * field's first character, and a doubled quote inside one is literal. Quotes and delimiters are ASCII, so
+     * scanning UTF-8 bytes is safe.
+     */
+    private static final class RecordScanner {
+        private boolean quoted;
+        private boolean closingQuote;
+        private boolean fieldStart = true;
+
+        /** Returns whether {@code b} is a line feed that ends a record. */
+        boolean accept(byte b) {
+            if (quoted) {
+                if (b == '"') {
+                    quoted = false;
+                    closingQuote = true;
+                }
+                return false;
+            }
+            if (closingQuote) {
+                closingQuote = false;
+                if (b == '"') {
+                    quoted = true;
+                    return false;
+                }
+            }
+            if (b == ',' || b == '\n') {
+                fieldStart = true;
+                return b == '\n';
+            }
+            if (b == '"' && fieldStart) {
+                quoted = true;
+            }
+            fieldStart = false;
+            return false;
+        }
+    }
+
+    /** Parses whole records from {@code text}, whose first character starts line {@code firstLine}. */
+    static <T> Chunk<T> parseText(String text, long firstLine, RowMapper<T> mapper) {
+        Chunk<T> chunk = new Chunk<>();
+        List<String> fields = new ArrayList<>();
+        StringBuilder quotedField = new StringBuilder();
+        int length = text.length();
+        int i = 0;
+        long line = firstLine;
+        while (i < length) {
+            long recordLine = line;
+            fields.clear();
+            boolean anyQuoted = false;
+            while (true) {
+                String value;
+                if (i < length && text.charAt(i) == '"') {
+                    anyQuoted = true;
+                    quotedField.setLength(0);
+                    i++;
+                    boolean closed = false;
+                    while (i < length) {
+                        char c = text.charAt(i++);
+                        if (c == '"') {
+                            if (i < length && text.charAt(i) == '"') {
+                                quotedField.append('"');
+                                i++;
+                            } else {
+                                closed = true;
+                                break;
+                            }
+                        } else {
+                            if (c == '\n') {
+                                line++;
+                            }
+                            quotedField.append(c);
+                        }
+                    }
+                    if (!closed) {
+                        chunk.rows.add(new Row<>(recordLine, null, "Unterminated quoted field, parsing stopped"));
+                        chunk.truncated = true;
+                        return chunk;
+                    }
+                    int start = i;
+                    while (i < length && text.charAt(i) != ',' && text.charAt(i) != '\n') {
+                        i++;
+                    }
+                    value = start == i ? quotedField.toString() : quotedField.append(text, start, i).toString();
+                } else {
+                    int start = i;
+                    while (i < length && text.charAt(i) != ',' && text.charAt(i) != '\n') {
+                        i++;
+                    }
+                    value = text.substring(start, i);
+                }
+                fields.add(value.trim());
+                if (i < length && text.charAt(i) == ',') {
+                    i++;
+                    continue;
+                }
+                if (i < length) {
+                    i++;
+                    line++;
+                }
+                break;
+            }
+            if (fields.size() == 1 && !anyQuoted && fields.get(0).isEmpty()) {
+                continue;
+            }
+            try {
+                chunk.rows.add(new Row<>(recordLine, mapper.map(fields), null));
+            } catch (IllegalArgumentException e) {
+                chunk.rows.add(new Row<>(recordLine, null, e.getMessage()));
+            }
+        }
+        return chunk;
+    }
+}
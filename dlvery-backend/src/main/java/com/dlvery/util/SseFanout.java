@@ -0,0 +1,136 @@
+package com.dlvery.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Server-Sent Events on top of an {@link EventBus}: owns the dispatcher, the open emitters and their
+ * keepalive heartbeats. A new stream first receives a {@code SNAPSHOT} event, then one event per publish
+ * to its topic, named by the {@code eventName} function and numbered with an increasing id. A subscriber
+ * that falls behind loses its oldest events and is sent one {@code RESYNC} event carrying the number
+ * dropped, telling it to re-read its state.
+ */
+public class SseFanout<E> {
+    private static final Logger logger = LoggerFactory.getLogger(SseFanout.class);
+    public static final String SNAPSHOT = "SNAPSHOT";
+    public static final String RESYNC = "RESYNC";
+
+    private final String name;
+    private final Function<E, String> eventName;
+    private final long timeoutMs;
+    private final Map<SseEmitter, EventBus<E>.Subscription> connections = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ExecutorService dispatcher;
+    private final ScheduledExecutorService heartbeat;
+    private final EventBus<E> bus;
+
+    /**
+     * Starts the dispatcher and heartbeat threads, named after {@code name}; call {@link #close()} to stop
+     * them.
+     */
+    public SseFanout(String name, Function<E, String> eventName, int dispatchThreads, boolean virtualThreads,
+                     int bufferCapacity, long timeoutMs, long heartbeatSeconds) {
+        this.name = name;
+        this.eventName = eventName;
+        this.timeoutMs = timeoutMs;
+        dispatcher = Executors.newFixedThreadPool(dispatchThreads, ThreadFactories.named(name + "-", virtualThreads));
+        bus = new EventBus<>(dispatcher, bufferCapacity);
+        heartbeat = Executors.newSingleThreadScheduledExecutor(ThreadFactories.named(name + "-heartbeat-", false));
+        heartbeat.scheduleWithFixedDelay(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Opens a stream on {@code topic}. The snapshot is read and sent while holding the emitter, so events
+     * queued meanwhile go out after it; they may repeat what the snapshot already contains.
+     */
+    public SseEmitter subscribe(String topic, Supplier<?> snapshot) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        EventBus<E>.Subscription subscription = bus.subscribe(topic, new EventBus.Listener<>() {
+            @Override
+            public void onEvent(E event) throws IOException {
+                synchronized (emitter) {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(sequence.incrementAndGet()))
+                            .name(eventName.apply(event))
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+            }
+
+            @Override
+            public void onOverflow(long dropped) throws IOException {
+                synchronized (emitter) {
+                    emitter.send(SseEmitter.event().name(RESYNC).data(Map.of("dropped", dropped), MediaType.APPLICATION_JSON));
+                }
+            }
+
+            @Override
+            public void onClose() {
+                connections.remove(emitter);
+                try {
+                    emitter.complete();
+                } catch (RuntimeException e) {
+                    logger.debug("Event stream {}/{} already closed", name, topic);
+                }
+            }
+        });
+        connections.put(emitter, subscription);
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+
+        synchronized (emitter) {
+            try {
+                emitter.send(SseEmitter.event().name(SNAPSHOT).data(snapshot.get(), MediaType.APPLICATION_JSON));
+            } catch (IOException | RuntimeException e) {
+                subscription.close();
+                throw e instanceof RuntimeException ? (RuntimeException) e : new IllegalStateException(e);
+            }
+        }
+        logger.debug("Event stream opened: Stream={}, Topic={}, Subscribers={}", name, topic, bus.getSubscriberCount());
+        return emitter;
+    }
+
+    /** Queues {@code event} for every open stream on {@code topic}; never blocks. */
+    public void publish(String topic, E event) {
+        bus.publish(topic, event);
+    }
+
+    public int getSubscriberCount() {
+        return bus.getSubscriberCount();
+    }
+
+    /** Total events dropped across all streams because their buffers were full. */
+    public long getDropped() {
+        return bus.getDropped();
+    }
+
+    /** Stops the heartbeats, completes every open stream and lets queued dispatches finish. */
+    public void close() {
+        heartbeat.shutdownNow();
+        connections.values().forEach(subscription -> subscription.close());
+        dispatcher.shutdown();
+    }
+
+    private void sendHeartbeats() {
+        for (Map.Entry<SseEmitter, EventBus<E>.Subscription> connection : connections.entrySet()) {
+            try {
+                connection.getKey().send(SseEmitter.event().comment("keepalive"));
+            } catch (IOException | RuntimeException e) {
+                connection.getValue().close();
+            }
+        }
+    }
+}
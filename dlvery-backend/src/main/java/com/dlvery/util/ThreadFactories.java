@@ -0,0 +1,39 @@
+package com.dlvery.util;
+
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factories for the service-owned executors. With {@code spring.threads.virtual.enabled=true}
+ * on Java 21+ they hand out virtual threads, matching what Spring Boot does for Tomcat and the
+ * application task executor; otherwise (or on Java 17) they fall back to named daemon platform threads.
+ */
+public final class ThreadFactories {
+
+    private ThreadFactories() {
+    }
+
+    /** Whether the running JVM supports virtual threads. */
+    public static boolean virtualThreadsSupported() {
+        return JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE);
+    }
+
+    /**
+     * Returns a factory naming its threads {@code prefix + n}. Virtual threads are used only when
+     * {@code virtual} is requested and supported by the JVM.
+     */
+    public static ThreadFactory named(String prefix, boolean virtual) {
+        if (virtual && virtualThreadsSupported()) {
+            return new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory();
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package com.dlvery.util;
+
+/**
+ * Classic token bucket: holds up to {@code capacity} tokens and refills continuously at
+ * {@code refillPerSecond}. Refill is computed lazily on each call, so idle buckets cost nothing.
+ */
+public class TokenBucket {
+    private final double capacity;
+    private final double refillPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(long capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefill = nowNanos;
+    }
+
+    /** Takes one token if available. */
+    public synchronized boolean tryConsume(long nowNanos) {
+        refill(nowNanos);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /** Seconds until the next token is available (at least 1). */
+    public synchronized long secondsUntilNextToken(long nowNanos) {
+        refill(nowNanos);
+        if (tokens >= 1 || refillPerNano <= 0) {
+            return 1;
+        }
+        return Math.max(1, (long) Math.ceil((1 - tokens) / refillPerNano / 1_000_000_000d));
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefill;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+            lastRefill = nowNanos;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.dlvery.util;
+
+import com.github.luben.zstd.ZstdInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streaming decompression of uploaded files. The compression is taken from the stream's leading magic
+ * bytes rather than from {@code Content-Encoding} or the file name, which clients and proxies often get
+ * wrong; the header is only checked for encodings we cannot decode.
+ */
+public class UploadDecoder {
+    public static final String GZIP = "gzip";
+    public static final String ZSTD = "zstd";
+
+    private static final int DECODE_BUFFER_BYTES = 64 * 1024;
+
+    /**
+     * Returns {@link #GZIP}, {@link #ZSTD} or {@code null} for an uncompressed stream. {@code in} must support
+     * mark; the bytes peeked at are unread again.
+     *
+     * @throws IllegalArgumentException when {@code contentEncoding} names an encoding other than gzip or zstd
+     */
+    public static String compression(InputStream in, String contentEncoding) throws IOException {
+        if (contentEncoding != null && !contentEncoding.isBlank()) {
+            String encoding = contentEncoding.trim().toLowerCase(Locale.ROOT);
+            if (!encoding.equals("identity") && !encoding.equals(GZIP) && !encoding.equals("x-gzip") && !encoding.equals(ZSTD)) {
+                throw new IllegalArgumentException("Unsupported Content-Encoding: " + contentEncoding + ", expected gzip or zstd");
+            }
+        }
+        byte[] magic = new byte[4];
+        in.mark(magic.length);
+        int read = in.readNBytes(magic, 0, magic.length);
+        in.reset();
+        if (read >= 2 && (magic[0] & 0xff) == 0x1f && (magic[1] & 0xff) == 0x8b) {
+            return GZIP;
+        }
+        if (read == 4 && (magic[0] & 0xff) == 0x28 && (magic[1] & 0xff) == 0xb5
+                && (magic[2] & 0xff) == 0x2f && (magic[3] & 0xff) == 0xfd) {
+            return ZSTD;
+        }
+        return null;
+    }
+
+    /** Wraps {@code in} in a decoder for {@code compression}; concatenated gzip members are read as one stream. */
+    public static InputStream decode(InputStream in, String compression) throws IOException {
+        if (GZIP.equals(compression)) {
+            return new GZIPInputStream(in, DECODE_BUFFER_BYTES);
+        }
+        if (ZSTD.equals(compression)) {
+            return new ZstdInputStream(in);
+        }
+        return in;
+    }
+}
@@ -0,0 +1,67 @@
+package com.dlvery.config;
+
+import com.dlvery.model.AuditLog;
+import com.dlvery.model.Delivery;
+import com.mongodb.ServerAddress;
+import com.mongodb.WriteConcern;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoAction;
+import org.springframework.data.mongodb.core.MongoActionOperation;
+import org.springframework.data.mongodb.core.WriteConcernResolver;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MongoConfigTest {
+
+    @Test
+    void writeConcernIsResolvedPerCollection() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("mongo.write-concern.[audit_logs]", "w1")
+                .withProperty("mongo.write-concern.[deliveries]", "majority");
+
+        Map<String, WriteConcern> concerns = MongoConfig.writeConcerns(environment);
+        WriteConcernResolver resolver = MongoConfig.writeConcernResolver(concerns);
+
+        assertEquals(WriteConcern.W1, resolver.resolve(action("audit_logs", AuditLog.class)));
+        assertEquals(WriteConcern.MAJORITY, resolver.resolve(action("deliveries", Delivery.class)));
+        assertEquals(WriteConcern.ACKNOWLEDGED, resolver.resolve(action("users", Object.class)));
+    }
+
+    @Test
+    void unknownWriteConcernFailsFast() {
+        MockEnvironment environment = new MockEnvironment().withProperty("mongo.write-concern.[inventory]", "eventually");
+
+        assertThrows(IllegalArgumentException.class, () -> MongoConfig.writeConcerns(environment));
+    }
+
+    @Test
+    void poolCheckoutWaitIsTimedByOutcome() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MongoPoolMetrics metrics = new MongoPoolMetrics(registry);
+        ServerId serverId = new ServerId(new ClusterId(), new ServerAddress("localhost", 27017));
+
+        metrics.connectionCheckedOut(new ConnectionCheckedOutEvent(new ConnectionId(serverId), 1, TimeUnit.MILLISECONDS.toNanos(3)));
+        metrics.connectionCheckOutFailed(new ConnectionCheckOutFailedEvent(serverId, 2,
+                ConnectionCheckOutFailedEvent.Reason.TIMEOUT, TimeUnit.SECONDS.toNanos(2)));
+
+        assertEquals(1, registry.get("mongodb.driver.pool.checkout").tag("outcome", "success").timer().count());
+        assertEquals(2000, registry.get("mongodb.driver.pool.checkout").tag("outcome", "timeout").timer()
+                .totalTime(TimeUnit.MILLISECONDS), 0.001);
+    }
+
+    private static MongoAction action(String collection, Class<?> entityType) {
+        return new MongoAction(WriteConcern.ACKNOWLEDGED, MongoActionOperation.INSERT, collection, entityType,
+                new Document(), null);
+    }
+}
@@ -0,0 +1,33 @@
+package com.dlvery.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecurityConfigTest {
+
+    @Test
+    void prometheusIsOpenOnlyOnTheManagementPort() {
+        RequestMatcher matcher = SecurityConfig.managementPortOnly(8080, 8081, "/actuator/prometheus");
+
+        assertTrue(matcher.matches(request(8081, "/actuator/prometheus")));
+        assertFalse(matcher.matches(request(8080, "/actuator/prometheus")));
+        assertFalse(matcher.matches(request(8081, "/actuator/metrics")));
+    }
+
+    @Test
+    void sharedPortNeverMatches() {
+        RequestMatcher matcher = SecurityConfig.managementPortOnly(8080, 8080, "/actuator/prometheus");
+
+        assertFalse(matcher.matches(request(8080, "/actuator/prometheus")));
+    }
+
+    private static MockHttpServletRequest request(int localPort, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        request.setLocalPort(localPort);
+        return request;
+    }
+}
@@ -1,23 +1,47 @@
 package com.dlvery.controller;
 
+import com.dlvery.dto.AssignmentRequest;
+import com.dlvery.dto.AssignmentResult;
+import com.dlvery.dto.BulkAssignmentResult;
+import com.dlvery.dto.CursorPage;
+import com.dlvery.dto.DeliveryReport;
+import com.dlvery.dto.LowStockAlert;
+import com.dlvery.dto.ReportGroup;
 import com.dlvery.model.Delivery;
+import com.dlvery.model.ImportJob;
 import com.dlvery.model.Inventory;
+import com.dlvery.service.BulkAssignmentService;
+import com.dlvery.service.DeliveryReportService;
+import com.dlvery.service.ExportService;
+import com.dlvery.service.InventoryImportJobService;
 import com.dlvery.service.InventoryService;
+import com.dlvery.service.LowStockAlertService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -29,6 +53,24 @@ class InventoryControllerTest {
     @Mock
     private InventoryService inventoryService;
 
+    @Mock
+    private InventoryImportJobService importJobService;
+
+    @Mock
+    private BulkAssignmentService bulkAssignmentService;
+
+    @Mock
+    private DeliveryReportService deliveryReportService;
+
+    @Mock
+    private ExportService exportService;
+
+    @Mock
+    private LowStockAlertService lowStockAlertService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private InventoryController inventoryController;
 
@@ -59,6 +101,61 @@ class InventoryControllerTest {
         verify(inventoryService, times(1)).getAllInventory();
     }
 
+    @Test
+    void testGetLowStock() throws Exception {
+        Inventory inventory = new Inventory();
+        inventory.setSku("SKU001");
+        inventory.setQuantity(2);
+        inventory.setLowStockThreshold(5);
+        when(lowStockAlertService.getAlerts()).thenReturn(List.of(new LowStockAlert(inventory, LocalDateTime.now())));
+
+        mockMvc.perform(get("/api/inventory/low-stock"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].sku").value("SKU001"))
+                .andExpect(jsonPath("$[0].quantity").value(2))
+                .andExpect(jsonPath("$[0].lowStockThreshold").value(5));
+
+        verifyNoInteractions(inventoryService);
+    }
+
+    @Test
+    void testGetInventoryPage() throws Exception {
+        Inventory inventory = new Inventory();
+        inventory.setId("65f000000000000000000001");
+        inventory.setSku("SKU001");
+        when(inventoryService.getInventoryPage("65f000000000000000000000", 1, "Electronics"))
+                .thenReturn(new CursorPage<>(List.of(inventory), "65f000000000000000000001"));
+
+        mockMvc.perform(get("/api/inventory/page")
+                        .param("after", "65f000000000000000000000")
+                        .param("limit", "1")
+                        .param("category", "Electronics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].sku").value("SKU001"))
+                .andExpect(jsonPath("$.nextCursor").value("65f000000000000000000001"));
+    }
+
+    @Test
+    void testStreamInventory() throws Exception {
+        Inventory first = new Inventory();
+        first.setSku("SKU001");
+        Inventory second = new Inventory();
+        second.setSku("SKU002");
+        when(inventoryService.streamInventory(null)).thenReturn(Stream.of(first, second));
+
+        MvcResult result = mockMvc.perform(get("/api/inventory/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].contains("\"sku\":\"SKU002\""));
+    }
+
     @Test
     void testAddInventory() throws Exception {
         Inventory inventory = new Inventory();
@@ -113,13 +210,97 @@ class InventoryControllerTest {
         MockMultipartFile file = new MockMultipartFile("file", "inventory.csv",
                 MediaType.TEXT_PLAIN_VALUE, "sku,name,category,damaged,perishable,expiryDate,quantity,lowStockThreshold\nSKU002,Mouse,Electronics,false,false,N/A,50,5".getBytes());
 
-        doNothing().when(inventoryService).uploadInventoryFile(any(MultipartFile.class));
+        ImportJob job = new ImportJob();
+        job.setId("job1");
+        job.setStatus(ImportJob.QUEUED);
+        job.setSpoolPath("/tmp/import-1.csv");
+        when(importJobService.submit(any(MultipartFile.class), eq("insert"), isNull())).thenReturn(job);
 
         mockMvc.perform(multipart("/api/inventory/upload").file(file))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value("job1"))
+                .andExpect(jsonPath("$.status").value("QUEUED"))
+                .andExpect(jsonPath("$.spoolPath").doesNotExist());
+
+        verify(importJobService, times(1)).submit(any(MultipartFile.class), eq("insert"), isNull());
+        verify(inventoryService, never()).uploadInventoryFile(any(MultipartFile.class));
+    }
+
+    @Test
+    void testExportDeliveriesGzip() throws Exception {
+        when(exportService.exportDeliveries(eq("DELIVERED"), isNull(), isNull(), eq("agent1"), isNull(), eq("ndjson"), any()))
+                .thenAnswer(invocation -> {
+                    ExportService.Target target = invocation.getArgument(6);
+                    try (OutputStream out = target.open()) {
+                        out.write("{\"sku\":\"SKU001\"}\n".getBytes(StandardCharsets.UTF_8));
+                    }
+                    return 1L;
+                });
+
+        MvcResult result = mockMvc.perform(get("/api/inventory/export/deliveries")
+                        .param("format", "ndjson")
+                        .param("status", "DELIVERED")
+                        .param("agentId", "agent1")
+                        .header("Accept-Encoding", "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"deliveries.ndjson\""))
+                .andReturn();
+
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE + ";charset=UTF-8", result.getResponse().getContentType());
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            assertEquals("{\"sku\":\"SKU001\"}\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testExportInventoryPlainCsv() throws Exception {
+        when(exportService.exportInventory(isNull(), eq("csv"), any())).thenAnswer(invocation -> {
+            ExportService.Target target = invocation.getArgument(2);
+            target.open().write("id,sku\r\n".getBytes(StandardCharsets.UTF_8));
+            return 0L;
+        });
+
+        mockMvc.perform(get("/api/inventory/export").header("Accept-Encoding", "gzip;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().string("id,sku\r\n"));
+    }
+
+    @Test
+    void testUploadInventoryBody() throws Exception {
+        ImportJob job = new ImportJob();
+        job.setId("job2");
+        job.setStatus(ImportJob.QUEUED);
+        when(importJobService.submit(any(InputStream.class), eq("stock.ndjson.gz"), eq("application/x-ndjson"), eq("gzip"), eq("sync"), isNull()))
+                .thenReturn(job);
+
+        mockMvc.perform(post("/api/inventory/upload")
+                        .param("mode", "sync")
+                        .param("fileName", "stock.ndjson.gz")
+                        .contentType("application/x-ndjson")
+                        .header("Content-Encoding", "gzip")
+                        .content(new byte[]{0x1f, (byte) 0x8b}))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value("job2"));
+
+        verify(importJobService, never()).submit(any(MultipartFile.class), any(), any());
+    }
+
+    @Test
+    void testGetImportJob() throws Exception {
+        ImportJob job = new ImportJob();
+        job.setId("job1");
+        job.setStatus(ImportJob.RUNNING);
+        job.setRowsProcessed(2000);
+        when(importJobService.getJob("job1")).thenReturn(job);
+
+        mockMvc.perform(get("/api/inventory/upload/job1"))
                 .andExpect(status().isOk())
-                .andExpect(content().string("Inventory uploaded successfully"));
+                .andExpect(jsonPath("$.status").value("RUNNING"))
+                .andExpect(jsonPath("$.rowsProcessed").value(2000));
 
-        verify(inventoryService, times(1)).uploadInventoryFile(any(MultipartFile.class));
+        verify(importJobService, times(1)).getJob("job1");
     }
 
     @Test
@@ -139,6 +320,39 @@ class InventoryControllerTest {
         verify(inventoryService, times(1)).assignForDelivery(anyString(), anyInt(), anyString(), anyString(), anyString());
     }
 
+    @Test
+    void testAssignForDeliveryBulk() throws Exception {
+        AssignmentResult assigned = new AssignmentResult(0, "SKU001");
+        assigned.setStatus(AssignmentResult.ASSIGNED);
+        assigned.setDeliveryId("d1");
+        when(bulkAssignmentService.assign(anyList())).thenReturn(new BulkAssignmentResult(List.of(assigned)));
+
+        mockMvc.perform(post("/api/inventory/assign/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"sku\":\"SKU001\",\"quantity\":10,\"agentId\":\"agent1\",\"customerName\":\"John Doe\",\"address\":\"123 Main St\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.assigned").value(1))
+                .andExpect(jsonPath("$.results[0].deliveryId").value("d1"));
+
+        verify(bulkAssignmentService, times(1)).assign(anyList());
+    }
+
+    @Test
+    void testAssignForDeliveryBulkNdjson() throws Exception {
+        AssignmentRequest request = new AssignmentRequest();
+        request.setSku("SKU001");
+        AssignmentResult rejected = new AssignmentResult(0, "SKU001");
+        rejected.setStatus(AssignmentResult.REJECTED);
+        when(bulkAssignmentService.readNdjson(any(InputStream.class))).thenReturn(List.of(request));
+        when(bulkAssignmentService.assign(List.of(request))).thenReturn(new BulkAssignmentResult(List.of(rejected)));
+
+        mockMvc.perform(post("/api/inventory/assign/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"sku\":\"SKU001\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rejected").value(1));
+    }
+
     @Test
     void testTrackDeliveryBySku() throws Exception {
         Delivery delivery = new Delivery();
@@ -229,4 +443,24 @@ class InventoryControllerTest {
 
         verify(inventoryService, times(1)).reportPendingByAgent("agent1");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testReportSummary() throws Exception {
+        DeliveryReport report = new DeliveryReport("agent", "2025-01-01", "2025-01-31");
+        report.setTotalCount(5);
+        report.setTotalQuantity(12);
+        report.getGroups().add(new ReportGroup("agent1", 3, 9));
+        when(deliveryReportService.report("agent", "2025-01-01", "2025-01-31", "DELIVERED", null, 1)).thenReturn(report);
+
+        mockMvc.perform(get("/api/inventory/report/summary")
+                        .param("groupBy", "agent")
+                        .param("startDate", "2025-01-01")
+                        .param("endDate", "2025-01-31")
+                        .param("status", "DELIVERED")
+                        .param("top", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCount").value(5))
+                .andExpect(jsonPath("$.groups[0].key").value("agent1"))
+                .andExpect(jsonPath("$.groups[0].quantity").value(9));
+    }
+}
@@ -0,0 +1,77 @@
+package com.dlvery.controller;
+
+import com.dlvery.model.Delivery;
+import com.dlvery.service.DeliveryTrackingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Flux;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveTrackingControllerTest {
+
+    @Mock
+    private DeliveryTrackingService deliveryTrackingService;
+
+    @InjectMocks
+    private ReactiveTrackingController reactiveTrackingController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(reactiveTrackingController).build();
+    }
+
+    @Test
+    void testTrackBySkuStreamsNdjson() throws Exception {
+        when(deliveryTrackingService.trackBySku("SKU001")).thenReturn(Flux.just(delivery("d1", "agent1"), delivery("d2", "agent2")));
+
+        MvcResult result = mockMvc.perform(get("/api/inventory/track/reactive/sku/SKU001").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.trim().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"id\":\"d1\""));
+        assertTrue(lines[1].contains("\"id\":\"d2\""));
+    }
+
+    @Test
+    void testTrackByAgentReturnsJsonArray() throws Exception {
+        when(deliveryTrackingService.trackByAgent("agent1")).thenReturn(Flux.just(delivery("d1", "agent1")));
+
+        MvcResult result = mockMvc.perform(get("/api/inventory/track/reactive/agent/agent1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].agentId").value("agent1"));
+    }
+
+    private static Delivery delivery(String id, String agentId) {
+        Delivery delivery = new Delivery();
+        delivery.setId(id);
+        delivery.setSku("SKU001");
+        delivery.setAgentId(agentId);
+        delivery.setStatus("PENDING");
+        return delivery;
+    }
+}
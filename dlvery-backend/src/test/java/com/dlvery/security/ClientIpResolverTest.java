@@ -0,0 +1,69 @@
+package com.dlvery.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientIpResolverTest {
+
+    @Test
+    void headerFromUntrustedPeerIsIgnored() {
+        ClientIpResolver resolver = resolver("10.0.0.0/8");
+
+        assertEquals("203.0.113.7", resolver.resolve(request("203.0.113.7", "1.2.3.4")));
+        assertEquals("203.0.113.7", resolver.resolve(request("203.0.113.7", null)));
+    }
+
+    @Test
+    void clientBehindTrustedLoadBalancerIsResolved() {
+        ClientIpResolver resolver = resolver("10.0.0.0/8");
+
+        assertEquals("198.51.100.20", resolver.resolve(request("10.1.2.3", "198.51.100.20")));
+        assertEquals("10.1.2.3", resolver.resolve(request("10.1.2.3", null)));
+    }
+
+    @Test
+    void spoofedHopsLeftOfTheFirstUntrustedOneAreIgnored() {
+        ClientIpResolver resolver = resolver("10.0.0.0/8, 192.168.0.0/16");
+
+        assertEquals("198.51.100.20",
+                resolver.resolve(request("10.1.2.3", "1.2.3.4, 198.51.100.20, 192.168.1.5")));
+        assertEquals("10.9.9.9", resolver.resolve(request("10.1.2.3", "10.9.9.9, 192.168.1.5")));
+        assertEquals("198.51.100.20", resolver.resolve(request("10.1.2.3", "not-an-ip, 198.51.100.20")));
+    }
+
+    @Test
+    void defaultTrustsOnlyLoopback() {
+        ClientIpResolver resolver = new ClientIpResolver();
+        resolver.init();
+
+        assertEquals("198.51.100.20", resolver.resolve(request("127.0.0.1", "198.51.100.20")));
+        assertEquals("10.1.2.3", resolver.resolve(request("10.1.2.3", "198.51.100.20")));
+        assertEquals("192.168.1.5", resolver.resolve(request("192.168.1.5", "198.51.100.20")));
+    }
+
+    @Test
+    void noTrustedProxiesMeansPeerAddress() {
+        ClientIpResolver resolver = resolver("");
+
+        assertEquals("127.0.0.1", resolver.resolve(request("127.0.0.1", "198.51.100.20")));
+    }
+
+    private static ClientIpResolver resolver(String trustedProxies) {
+        ClientIpResolver resolver = new ClientIpResolver();
+        ReflectionTestUtils.setField(resolver, "trustedProxies", trustedProxies);
+        resolver.init();
+        return resolver;
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,32 @@
+package com.dlvery.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CostAwareBCryptPasswordEncoderTest {
+    private final CostAwareBCryptPasswordEncoder encoder = new CostAwareBCryptPasswordEncoder(5);
+
+    @Test
+    void hashesAtConfiguredCostNeedNoUpgrade() {
+        String hash = encoder.encode("secret");
+
+        assertEquals(5, CostAwareBCryptPasswordEncoder.costOf(hash));
+        assertFalse(encoder.upgradeEncoding(hash));
+        assertTrue(encoder.matches("secret", hash));
+    }
+
+    @Test
+    void cheaperAndDearerHashesAreReencoded() {
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret")));
+    }
+
+    @Test
+    void nonBcryptValuesAreLeftAlone() {
+        assertEquals(-1, CostAwareBCryptPasswordEncoder.costOf("plain"));
+        assertFalse(encoder.upgradeEncoding("plain"));
+        assertFalse(encoder.upgradeEncoding(null));
+    }
+}
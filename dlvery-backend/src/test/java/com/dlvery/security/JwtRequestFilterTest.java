@@ -0,0 +1,97 @@
+package com.dlvery.security;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtRequestFilterTest {
+    private final Logger filterLogger = (Logger) LoggerFactory.getLogger(JwtRequestFilter.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private Level previousLevel;
+
+    private JwtRequestFilter filter;
+    private SimpleMeterRegistry meterRegistry;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "qwertyuiopasdfghjklzxcvbnm-1234567890");
+        jwtUtil.init();
+        token = jwtUtil.generateToken("agent1", "DELIVERY");
+
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new JwtRequestFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "meterRegistry", meterRegistry);
+        filter.initMetrics();
+
+        previousLevel = filterLogger.getLevel();
+        appender.start();
+        filterLogger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        filterLogger.detachAppender(appender);
+        filterLogger.setLevel(previousLevel);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void authenticatesWithoutLoggingTheToken() throws Exception {
+        filterLogger.setLevel(Level.DEBUG);
+
+        Authentication auth = filter("Bearer " + token);
+
+        assertEquals("agent1", auth.getName());
+        assertFalse(appender.list.isEmpty());
+        for (ILoggingEvent event : appender.list) {
+            assertFalse(event.getFormattedMessage().contains(token.substring(0, 10)), event.getFormattedMessage());
+        }
+    }
+
+    @Test
+    void invalidTokenIsCountedNotLoggedAboveDebug() throws Exception {
+        filterLogger.setLevel(Level.INFO);
+
+        Authentication auth = filter("Bearer " + token.substring(0, token.length() - 4) + "AAAA");
+
+        assertNull(auth);
+        assertTrue(appender.list.isEmpty());
+        assertEquals(1, meterRegistry.get("auth.jwt.validation").tag("outcome", "invalid").timer().count());
+    }
+
+    @Test
+    void sampledRequestsAreLoggedAtInfo() throws Exception {
+        filterLogger.setLevel(Level.INFO);
+        ReflectionTestUtils.setField(filter, "logSampleRate", 1.0);
+
+        filter("Bearer " + token);
+
+        assertEquals(1, appender.list.size());
+        assertEquals(Level.INFO, appender.list.get(0).getLevel());
+        assertEquals("Sampled request: GET /api/delivery/agent user=agent1 role=DELIVERY",
+                appender.list.get(0).getFormattedMessage());
+    }
+
+    private Authentication filter(String authorization) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/delivery/agent");
+        request.addHeader("Authorization", authorization);
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> { });
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
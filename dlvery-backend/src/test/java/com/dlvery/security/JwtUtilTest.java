@@ -0,0 +1,54 @@
+package com.dlvery.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "qwertyuiopasdfghjklzxcvbnm-1234567890");
+        jwtUtil.init();
+    }
+
+    @Test
+    void parseClaimsCachesVerifiedToken() {
+        String token = jwtUtil.generateToken("agent1", "DELIVERY");
+
+        Claims first = jwtUtil.parseClaims(token);
+        Claims second = jwtUtil.parseClaims(token);
+
+        assertEquals("agent1", first.getSubject());
+        assertEquals("DELIVERY", second.get("role", String.class));
+        assertEquals(1, jwtUtil.getCacheMisses());
+        assertEquals(1, jwtUtil.getCacheHits());
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        String token = jwtUtil.generateToken("agent1", "DELIVERY");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtUtil.parseClaims(tampered));
+        assertFalse(jwtUtil.validateToken(tampered));
+        assertEquals(0, jwtUtil.getCacheHits());
+    }
+
+    @Test
+    void legacyAccessorsShareCachedClaims() {
+        String token = jwtUtil.generateToken("inv1", "INVENTORY");
+
+        assertTrue(jwtUtil.validateToken(token));
+        assertEquals("inv1", jwtUtil.getUsernameFromToken(token));
+        assertEquals("INVENTORY", jwtUtil.getRoleFromToken(token));
+        assertEquals(1, jwtUtil.getCacheMisses());
+        assertEquals(2, jwtUtil.getCacheHits());
+    }
+}
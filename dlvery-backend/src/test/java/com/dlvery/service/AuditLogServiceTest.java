@@ -0,0 +1,67 @@
+package com.dlvery.service;
+
+import com.dlvery.dto.CursorPage;
+import com.dlvery.exception.BadRequestException;
+import com.dlvery.model.AuditLog;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditLogServiceTest {
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @InjectMocks
+    private AuditLogService auditLogService;
+
+    @Test
+    void pagePushesFiltersAndKeysetToQuery() {
+        List<AuditLog> logs = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            AuditLog log = new AuditLog();
+            log.setId("id" + i);
+            logs.add(log);
+        }
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.find(query.capture(), eq(AuditLog.class))).thenReturn(logs);
+
+        CursorPage<AuditLog> page = auditLogService.getPage("id0", 2, "Delivery", "2025-06-01", "2025-06-30");
+
+        assertEquals(2, page.getItems().size());
+        assertEquals("id2", page.getNextCursor());
+        assertEquals(3, query.getValue().getLimit());
+        String filter = query.getValue().getQueryObject().toJson();
+        assertTrue(filter.contains("\"entity\": \"Delivery\""));
+        assertTrue(filter.contains("\"$lt\": \"2025-07-01T00:00\""));
+        assertTrue(filter.contains("\"$gt\": \"id0\""));
+        assertEquals(new Document("_id", 1), query.getValue().getSortObject());
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        when(mongoTemplate.find(org.mockito.ArgumentMatchers.any(Query.class), eq(AuditLog.class))).thenReturn(new ArrayList<>());
+
+        CursorPage<AuditLog> page = auditLogService.getPage(null, null, null, null, null);
+
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void rejectsInvalidDate() {
+        assertThrows(BadRequestException.class, () -> auditLogService.getPage(null, 10, null, "June", null));
+        verifyNoInteractions(mongoTemplate);
+    }
+}
@@ -0,0 +1,149 @@
+package com.dlvery.service;
+
+import com.dlvery.model.AuditLog;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditLogWriterTest {
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @InjectMocks
+    private AuditLogWriter writer;
+
+    private final List<AuditLog> written = new ArrayList<>();
+    private final List<Integer> batchSizes = new ArrayList<>();
+
+    private void start(int capacity, int batchSize, long flushIntervalMs, String policy) {
+        ReflectionTestUtils.setField(writer, "capacity", capacity);
+        ReflectionTestUtils.setField(writer, "batchSize", batchSize);
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", flushIntervalMs);
+        ReflectionTestUtils.setField(writer, "overflowPolicy", policy);
+        ReflectionTestUtils.setField(writer, "blockTimeoutMs", 1L);
+        lenient().when(mongoTemplate.insertAll(anyCollection())).thenAnswer(invocation -> {
+            Collection<AuditLog> batch = invocation.getArgument(0);
+            synchronized (written) {
+                written.addAll(batch);
+                batchSizes.add(batch.size());
+            }
+            return batch;
+        });
+        writer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.stop();
+    }
+
+    @Test
+    void concurrentEventsAreWrittenInBatchesAndFlushedOnShutdown() throws InterruptedException {
+        start(1024, 100, 10_000, AuditLogWriter.BLOCK);
+        int threads = 8;
+        int perThread = 1000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            pool.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    writer.write(event(thread + "-" + i));
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        pool.shutdown();
+        writer.stop();
+
+        Set<String> ids = new HashSet<>();
+        written.forEach(log -> ids.add(log.getEntityId()));
+        assertEquals(threads * perThread - writer.getDropped(), written.size());
+        assertEquals(written.size(), ids.size());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 100));
+        assertEquals(0, writer.getQueueDepth());
+        assertNotNull(meterRegistry.find("audit.flush").timer());
+        assertTrue(meterRegistry.find("audit.flush").timer().count() > 0);
+    }
+
+    @Test
+    void partialBatchIsFlushedAfterInterval() {
+        start(64, 100, 20, AuditLogWriter.DROP);
+        writer.write(event("d1"));
+
+        verify(mongoTemplate, timeout(2000)).insertAll(anyCollection());
+        assertEquals(1, written.size());
+    }
+
+    @Test
+    void fullQueueDropsWithDropPolicyAndCountsIt() throws InterruptedException {
+        CountDownLatch inserting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(mongoTemplate.insertAll(anyCollection())).thenAnswer(invocation -> {
+            inserting.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return invocation.getArgument(0);
+        });
+        ReflectionTestUtils.setField(writer, "capacity", 2);
+        ReflectionTestUtils.setField(writer, "batchSize", 1);
+        ReflectionTestUtils.setField(writer, "overflowPolicy", AuditLogWriter.DROP);
+        writer.start();
+        // The first event keeps the consumer busy in insertAll so the buffer cannot drain.
+        writer.write(event("first"));
+        assertTrue(inserting.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 5; i++) {
+            writer.write(event("d" + i));
+        }
+
+        assertEquals(3, writer.getDropped());
+        assertEquals(3.0, meterRegistry.find("audit.dropped").counter().count());
+        assertEquals(2.0, meterRegistry.find("audit.queue.depth").gauge().value());
+        release.countDown();
+    }
+
+    @Test
+    void callerRunsWritesSynchronouslyWhenFull() {
+        start(2, 500, 10_000, AuditLogWriter.CALLER_RUNS);
+        for (int i = 0; i < 3; i++) {
+            writer.write(event("d" + i));
+        }
+
+        verify(mongoTemplate).insertAll(List.of(written.get(0)));
+        assertEquals("d2", written.get(0).getEntityId());
+        assertEquals(0, writer.getDropped());
+    }
+
+    private static AuditLog event(String entityId) {
+        AuditLog log = new AuditLog();
+        log.setAction("UPDATE");
+        log.setEntity("Delivery");
+        log.setEntityId(entityId);
+        return log;
+    }
+}
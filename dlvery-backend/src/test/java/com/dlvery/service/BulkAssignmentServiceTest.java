@@ -0,0 +1,195 @@
+package com.dlvery.service;
+
+import com.dlvery.dto.AssignmentRequest;
+import com.dlvery.dto.AssignmentResult;
+import com.dlvery.dto.BulkAssignmentResult;
+import com.dlvery.exception.BadRequestException;
+import com.dlvery.model.Delivery;
+import com.dlvery.model.Inventory;
+import com.dlvery.repository.InventoryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkAssignmentServiceTest {
+    @Mock
+    private StockReservationService stockReservationService;
+    @Mock
+    private InventoryRepository inventoryRepository;
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private BulkOperations bulkOperations;
+    @Mock
+    private DeliveryStatsService deliveryStatsService;
+
+    @Mock
+    private DeliveryEventService deliveryEventService;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+    @InjectMocks
+    private BulkAssignmentService bulkAssignmentService;
+
+    @BeforeEach
+    void setUp() {
+        bulkAssignmentService.start();
+        lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Delivery.class)).thenReturn(bulkOperations);
+        lenient().when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkAssignmentService.stop();
+    }
+
+    @Test
+    void reservesEachSkuGroupOnce() {
+        BulkAssignmentResult result = bulkAssignmentService.assign(Arrays.asList(
+                request("SKU001", 2), request("SKU002", 1), request("SKU001", 3)));
+
+        assertEquals(3, result.getAssigned());
+        assertEquals(0, result.getRejected());
+        assertNotNull(result.getResults().get(2).getDeliveryId());
+        verify(stockReservationService).reserve("SKU001", 5);
+        verify(stockReservationService).reserve("SKU002", 1);
+        verify(bulkOperations, times(1)).insert(anyList());
+        verify(bulkOperations, times(1)).execute();
+        verify(deliveryStatsService).recordCreated(argThat(created -> created.size() == 3));
+        verify(deliveryEventService).publishCreated(argThat((Collection<Delivery> created) -> created.size() == 3));
+    }
+
+    @Test
+    void assignsItemsThatFitWhenStockIsShort() {
+        Inventory inventory = new Inventory();
+        inventory.setSku("SKU001");
+        inventory.setQuantity(4);
+        when(stockReservationService.reserve("SKU001", 6)).thenThrow(new BadRequestException("Insufficient stock for SKU: SKU001"));
+        when(inventoryRepository.findBySku("SKU001")).thenReturn(Optional.of(inventory));
+
+        BulkAssignmentResult result = bulkAssignmentService.assign(Arrays.asList(
+                request("SKU001", 3), request("SKU001", 2), request("SKU001", 1)));
+
+        assertEquals(AssignmentResult.ASSIGNED, result.getResults().get(0).getStatus());
+        assertEquals(AssignmentResult.REJECTED, result.getResults().get(1).getStatus());
+        assertEquals(AssignmentResult.ASSIGNED, result.getResults().get(2).getStatus());
+        verify(stockReservationService).reserve("SKU001", 4);
+    }
+
+    @Test
+    void rejectsUnknownSkuAndInvalidItems() {
+        when(stockReservationService.reserve("MISSING", 1)).thenThrow(new BadRequestException("Inventory item not found for SKU: MISSING"));
+        when(inventoryRepository.findBySku("MISSING")).thenReturn(Optional.empty());
+        AssignmentRequest invalid = request("SKU001", 0);
+
+        BulkAssignmentResult result = bulkAssignmentService.assign(Arrays.asList(request("MISSING", 1), invalid));
+
+        assertEquals(0, result.getAssigned());
+        assertEquals("Inventory item not found for SKU: MISSING", result.getResults().get(0).getMessage());
+        assertEquals("Quantity must be positive", result.getResults().get(1).getMessage());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void releasesStockWhenDeliveriesCannotBeWritten() {
+        when(bulkOperations.execute()).thenThrow(new IllegalStateException("not primary"));
+
+        BulkAssignmentResult result = bulkAssignmentService.assign(List.of(request("SKU001", 2), request("SKU001", 1)));
+
+        assertEquals(2, result.getRejected());
+        verify(stockReservationService).release("SKU001", 3);
+    }
+
+    @Test
+    void rejectsOnlyTheGroupWhoseLookupFails() {
+        lenient().when(stockReservationService.reserve("SKU002", 1)).thenThrow(new BadRequestException("Insufficient stock for SKU: SKU002"));
+        when(inventoryRepository.findBySku("SKU002")).thenThrow(new IllegalStateException("Timed out waiting for a connection"));
+
+        BulkAssignmentResult result = bulkAssignmentService.assign(List.of(request("SKU001", 2), request("SKU002", 1)));
+
+        assertEquals(AssignmentResult.ASSIGNED, result.getResults().get(0).getStatus());
+        assertEquals("Timed out waiting for a connection", result.getResults().get(1).getMessage());
+        verify(stockReservationService, never()).release(anyString(), anyInt());
+    }
+
+    @Test
+    void releasesReservedGroupsWhenAnotherGroupFailsUnexpectedly() {
+        lenient().when(stockReservationService.reserve("SKU002", 1)).thenThrow(new OutOfMemoryError("simulated"));
+
+        assertThrows(RuntimeException.class,
+                () -> bulkAssignmentService.assign(List.of(request("SKU001", 2), request("SKU002", 1), request("SKU001", 1))));
+
+        verify(stockReservationService).release("SKU001", 3);
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void groupTotalsPastIntRangeDoNotWrapAround() {
+        ReflectionTestUtils.setField(bulkAssignmentService, "maxItemQuantity", Integer.MAX_VALUE);
+        Inventory inventory = new Inventory();
+        inventory.setSku("SKU001");
+        inventory.setQuantity(5);
+        when(inventoryRepository.findBySku("SKU001")).thenReturn(Optional.of(inventory));
+
+        BulkAssignmentResult result = bulkAssignmentService.assign(List.of(
+                request("SKU001", Integer.MAX_VALUE), request("SKU001", Integer.MAX_VALUE), request("SKU001", 3)));
+
+        assertEquals(AssignmentResult.REJECTED, result.getResults().get(0).getStatus());
+        assertEquals(AssignmentResult.REJECTED, result.getResults().get(1).getStatus());
+        assertEquals(AssignmentResult.ASSIGNED, result.getResults().get(2).getStatus());
+        verify(stockReservationService).reserve("SKU001", 3);
+        verifyNoMoreInteractions(stockReservationService);
+    }
+
+    @Test
+    void rejectsItemsAboveTheQuantityCap() {
+        BulkAssignmentResult result = bulkAssignmentService.assign(List.of(request("SKU001", 100001)));
+
+        assertEquals("Quantity must be at most 100000", result.getResults().get(0).getMessage());
+        verifyNoInteractions(stockReservationService);
+    }
+
+    @Test
+    void readsNdjson() {
+        String ndjson = "{\"sku\":\"SKU001\",\"quantity\":2,\"agentId\":\"a1\",\"customerName\":\"John\",\"address\":\"1 St\"}\n" +
+                "{\"sku\":\"SKU002\",\"quantity\":1,\"agentId\":\"a2\",\"customerName\":\"Jane\",\"address\":\"2 St\"}\n";
+
+        List<AssignmentRequest> requests = bulkAssignmentService.readNdjson(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, requests.size());
+        assertEquals("SKU002", requests.get(1).getSku());
+    }
+
+    private static AssignmentRequest request(String sku, int quantity) {
+        AssignmentRequest request = new AssignmentRequest();
+        request.setSku(sku);
+        request.setQuantity(quantity);
+        request.setAgentId("agent1");
+        request.setCustomerName("John Doe");
+        request.setAddress("123 Main St");
+        return request;
+    }
+}
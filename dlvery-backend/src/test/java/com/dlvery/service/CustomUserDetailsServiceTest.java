@@ -0,0 +1,39 @@
+package com.dlvery.service;
+
+import com.dlvery.model.User;
+import com.dlvery.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomUserDetailsServiceTest {
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private UserCache userCache;
+    @InjectMocks
+    private CustomUserDetailsService userDetailsService;
+
+    @Test
+    void authenticationSeesPasswordAndRoleChangesImmediately() {
+        when(userRepository.findByUsername("agent1")).thenReturn(
+                Optional.of(new User("agent1", "old-hash", "agent1@example.com", "ADMIN", null)),
+                Optional.of(new User("agent1", "new-hash", "agent1@example.com", "DELIVERY", "a1")));
+
+        userDetailsService.loadUserByUsername("agent1");
+        UserDetails details = userDetailsService.loadUserByUsername("agent1");
+
+        assertEquals("new-hash", details.getPassword());
+        assertEquals("DELIVERY", details.getAuthorities().iterator().next().getAuthority());
+        verifyNoInteractions(userCache);
+    }
+}
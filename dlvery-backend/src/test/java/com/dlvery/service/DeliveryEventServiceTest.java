@@ -0,0 +1,125 @@
+package com.dlvery.service;
+
+import com.dlvery.controller.DeliveryController;
+import com.dlvery.model.Delivery;
+import com.dlvery.repository.DeliveryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@ExtendWith(MockitoExtension.class)
+class DeliveryEventServiceTest {
+
+    @Mock
+    private DeliveryRepository deliveryRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private DeliveryEventService deliveryEventService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        deliveryEventService.start();
+        DeliveryController controller = new DeliveryController();
+        ReflectionTestUtils.setField(controller, "eventService", deliveryEventService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        deliveryEventService.stop();
+    }
+
+    @Test
+    void testSubscriberGetsSnapshotThenOwnEvents() throws Exception {
+        when(deliveryRepository.findByAgentId("agent1")).thenReturn(List.of(delivery("d0", "agent1", "PENDING")));
+        MockHttpServletResponse response = subscribe("agent1");
+
+        deliveryEventService.publishCreated(delivery("d1", "agent1", "PENDING"));
+        deliveryEventService.publishCreated(delivery("d2", "agent2", "PENDING"));
+        deliveryEventService.publishChanged(delivery("d1", "agent1", "PENDING"), delivery("d1", "agent1", "IN_TRANSIT"));
+
+        String body = await(response, content -> content.contains("\"previousStatus\":\"PENDING\""));
+        assertTrue(body.indexOf("event:SNAPSHOT") < body.indexOf("event:ASSIGNED"));
+        assertTrue(body.contains("\"id\":\"d0\""));
+        assertTrue(body.contains("\"previousStatus\":\"PENDING\""));
+        assertFalse(body.contains("\"id\":\"d2\""));
+        assertEquals(1, deliveryEventService.getSubscriberCount());
+        assertEquals(1.0, meterRegistry.get("delivery.events.subscribers").gauge().value());
+    }
+
+    @Test
+    void testReassignmentNotifiesBothAgents() throws Exception {
+        when(deliveryRepository.findByAgentId(anyString())).thenReturn(List.of());
+        MockHttpServletResponse previous = subscribe("agent1");
+        MockHttpServletResponse next = subscribe("agent2");
+
+        deliveryEventService.publishChanged(delivery("d1", "agent1", "PENDING"), delivery("d1", "agent2", "PENDING"));
+
+        await(previous, content -> content.contains("event:UNASSIGNED"));
+        await(next, content -> content.contains("event:ASSIGNED"));
+    }
+
+    @Test
+    void testUnchangedStatusIsNotPushed() throws Exception {
+        when(deliveryRepository.findByAgentId("agent1")).thenReturn(List.of());
+        MockHttpServletResponse response = subscribe("agent1");
+
+        deliveryEventService.publishChanged(delivery("d1", "agent1", "PENDING"), delivery("d1", "agent1", "PENDING"));
+        deliveryEventService.publishCreated(delivery("d2", "agent1", "PENDING"));
+
+        String body = await(response, content -> content.contains("\"id\":\"d2\""));
+        assertFalse(body.contains("\"id\":\"d1\""));
+    }
+
+    private MockHttpServletResponse subscribe(String agentId) throws Exception {
+        return mockMvc.perform(get("/api/delivery/agent/events")
+                        .principal(new UsernamePasswordAuthenticationToken(agentId, null, List.of())))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+    }
+
+    private static String await(MockHttpServletResponse response, Predicate<String> condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = response.getContentAsString();
+        while (!condition.test(content) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            content = response.getContentAsString();
+        }
+        assertTrue(condition.test(content), content);
+        return content;
+    }
+
+    private static Delivery delivery(String id, String agentId, String status) {
+        Delivery delivery = new Delivery();
+        delivery.setId(id);
+        delivery.setAgentId(agentId);
+        delivery.setStatus(status);
+        delivery.setSku("SKU001");
+        return delivery;
+    }
+}
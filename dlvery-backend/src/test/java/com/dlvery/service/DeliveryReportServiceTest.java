@@ -0,0 +1,86 @@
+package com.dlvery.service;
+
+import com.dlvery.dto.DeliveryReport;
+import com.dlvery.exception.BadRequestException;
+import com.dlvery.model.Delivery;
+import com.dlvery.model.DeliveryStatsDaily;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeliveryReportServiceTest {
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @InjectMocks
+    private DeliveryReportService deliveryReportService;
+
+    @Test
+    void reportReadsRollupAndMapsFacets() {
+        Document facets = Document.parse("{groups: [{_id: 'agent1', count: 3, quantity: 9}, {_id: 'agent2', count: 2, quantity: 3}],"
+                + " totals: [{_id: null, count: 7, quantity: 20}]}");
+        when(mongoTemplate.getCollectionName(DeliveryStatsDaily.class)).thenReturn("delivery_stats_daily");
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("delivery_stats_daily"), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(facets), new Document()));
+
+        DeliveryReport report = deliveryReportService.report("agent", "2025-01-01", "2025-01-31", "DELIVERED", null, 2);
+
+        assertEquals(7, report.getTotalCount());
+        assertEquals(20, report.getTotalQuantity());
+        assertEquals(2, report.getGroups().size());
+        assertEquals("agent1", report.getGroups().get(0).getKey());
+        assertEquals(9, report.getGroups().get(0).getQuantity());
+
+        ArgumentCaptor<Aggregation> captor = ArgumentCaptor.forClass(Aggregation.class);
+        verify(mongoTemplate).aggregate(captor.capture(), eq("delivery_stats_daily"), eq(Document.class));
+        String pipeline = captor.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT).toString();
+        assertTrue(pipeline.contains("day=Document{{$gte=2025-01-01, $lte=2025-01-31}}"), pipeline);
+        assertTrue(pipeline.contains("count=Document{{$sum=$count}}"), pipeline);
+        assertTrue(pipeline.contains("status=DELIVERED"), pipeline);
+        assertTrue(pipeline.contains("_id=$agentId"), pipeline);
+        assertTrue(pipeline.contains("$limit=2"), pipeline);
+        assertEquals(Duration.ofSeconds(15), captor.getValue().getOptions().getMaxTime());
+    }
+
+    @Test
+    void reportCanAggregateRawDeliveries() {
+        ReflectionTestUtils.setField(deliveryReportService, "source", DeliveryReportService.DELIVERIES);
+        when(mongoTemplate.getCollectionName(Delivery.class)).thenReturn("deliveries");
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("deliveries"), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(Document.parse("{groups: [{_id: '2025-01-02', count: 4, quantity: 8}], totals: []}")), new Document()));
+
+        DeliveryReport report = deliveryReportService.report("day", "2025-01-01", "2025-01-31", null, null, null);
+
+        assertEquals("2025-01-02", report.getGroups().get(0).getKey());
+        ArgumentCaptor<Aggregation> captor = ArgumentCaptor.forClass(Aggregation.class);
+        verify(mongoTemplate).aggregate(captor.capture(), eq("deliveries"), eq(Document.class));
+        String pipeline = captor.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT).toString();
+        assertTrue(pipeline.contains("_id=$deliveryDate"), pipeline);
+        assertTrue(pipeline.contains("count=Document{{$sum=1}}"), pipeline);
+    }
+
+    @Test
+    void reportRejectsUnknownDimensionAndBadRanges() {
+        assertThrows(BadRequestException.class, () -> deliveryReportService.report("customer", "2025-01-01", "2025-01-31", null, null, null));
+        assertThrows(BadRequestException.class, () -> deliveryReportService.report("day", "2025-02-01", "2025-01-31", null, null, null));
+        assertThrows(BadRequestException.class, () -> deliveryReportService.report("day", "01/02/2025", "2025-01-31", null, null, null));
+        assertThrows(BadRequestException.class, () -> deliveryReportService.report("day", "2025-01-01", "2025-01-31", null, null, 0));
+        verifyNoInteractions(mongoTemplate);
+    }
+}
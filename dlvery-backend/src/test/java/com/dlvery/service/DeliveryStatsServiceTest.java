@@ -0,0 +1,107 @@
+package com.dlvery.service;
+
+import com.dlvery.model.Delivery;
+import com.dlvery.model.DeliveryStatsDaily;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeliveryStatsServiceTest {
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private BulkOperations bulkOperations;
+    @InjectMocks
+    private DeliveryStatsService deliveryStatsService;
+
+    @Test
+    void newDeliveryIncrementsItsBucket() {
+        deliveryStatsService.recordChange(null, delivery("PENDING", 4));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(query.capture(), update.capture(), eq(DeliveryStatsDaily.class));
+        assertEquals("PENDING", query.getValue().getQueryObject().get("status"));
+        assertEquals("2025-01-02", query.getValue().getQueryObject().get("day"));
+        assertEquals("Document{{count=1, quantity=4}}", update.getValue().getUpdateObject().get("$inc").toString());
+    }
+
+    @Test
+    void statusChangeMovesCountBetweenBuckets() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DeliveryStatsDaily.class)).thenReturn(bulkOperations);
+
+        deliveryStatsService.recordChange(delivery("PENDING", 4), delivery("DELIVERED", 4));
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations, times(2)).upsert(any(Query.class), updates.capture());
+        assertEquals("Document{{count=-1, quantity=-4}}", updates.getAllValues().get(0).getUpdateObject().get("$inc").toString());
+        assertEquals("Document{{count=1, quantity=4}}", updates.getAllValues().get(1).getUpdateObject().get("$inc").toString());
+        verify(bulkOperations).execute();
+    }
+
+    @Test
+    void unchangedBucketWritesNothing() {
+        deliveryStatsService.recordChange(delivery("PENDING", 4), delivery("PENDING", 4));
+
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void createdDeliveriesInOneBucketAreMerged() {
+        deliveryStatsService.recordCreated(List.of(delivery("PENDING", 2), delivery("PENDING", 3)));
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(any(Query.class), update.capture(), eq(DeliveryStatsDaily.class));
+        assertEquals("Document{{count=2, quantity=5}}", update.getValue().getUpdateObject().get("$inc").toString());
+    }
+
+    @Test
+    void rollupFailureDoesNotPropagate() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(DeliveryStatsDaily.class)))
+                .thenThrow(new IllegalStateException("down"));
+
+        assertDoesNotThrow(() -> deliveryStatsService.recordChange(null, delivery("PENDING", 1)));
+    }
+
+    @Test
+    void rebuildRegroupsDeliveriesIntoRollup() {
+        when(mongoTemplate.getCollectionName(DeliveryStatsDaily.class)).thenReturn("delivery_stats_daily");
+        when(mongoTemplate.getCollectionName(Delivery.class)).thenReturn("deliveries");
+        when(mongoTemplate.count(any(Query.class), eq(DeliveryStatsDaily.class))).thenReturn(12L);
+
+        assertEquals(12, deliveryStatsService.rebuild());
+
+        ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+        verify(mongoTemplate).aggregate(aggregation.capture(), eq("deliveries"), eq(DeliveryStatsDaily.class));
+        String pipeline = aggregation.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT).toString();
+        assertTrue(pipeline.contains("day=$deliveryDate"), pipeline);
+        assertTrue(pipeline.contains("day=$_id.day"), pipeline);
+        assertTrue(pipeline.contains("$out=delivery_stats_daily"), pipeline);
+    }
+
+    private static Delivery delivery(String status, int quantity) {
+        Delivery delivery = new Delivery();
+        delivery.setSku("SKU001");
+        delivery.setAgentId("agent1");
+        delivery.setStatus(status);
+        delivery.setQuantity(quantity);
+        delivery.setDeliveryDate("2025-01-02");
+        return delivery;
+    }
+}
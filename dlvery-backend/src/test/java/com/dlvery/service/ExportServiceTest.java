@@ -0,0 +1,124 @@
+package com.dlvery.service;
+
+import com.dlvery.exception.BadRequestException;
+import com.dlvery.model.Delivery;
+import com.dlvery.model.Inventory;
+import com.dlvery.util.InventoryRowReader;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @InjectMocks
+    private ExportService exportService;
+
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(mongoTemplate.getCollectionName(Inventory.class)).thenReturn("inventory");
+        lenient().when(mongoTemplate.getCollectionName(Delivery.class)).thenReturn("deliveries");
+    }
+
+    @Test
+    void inventoryCsvCanBeImportedAgain() throws Exception {
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("inventory"))).thenReturn(Stream.of(
+                new Document("_id", "i1").append("sku", "SKU001").append("name", "Desk, oak").append("category", "Furniture")
+                        .append("damaged", false).append("perishable", false).append("expiryDate", "N/A")
+                        .append("quantity", 4).append("lowStockThreshold", 2),
+                new Document("_id", "i2").append("sku", "SKU002").append("name", "Monitor 27\"").append("quantity", 0)
+                        .append("lowStockThreshold", 1)));
+
+        long rows = exportService.exportInventory("Furniture", ExportService.CSV, () -> body);
+
+        assertEquals(2, rows);
+        String csv = body.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.startsWith("id,sku,name,category,damaged,perishable,expiryDate,quantity,lowStockThreshold\r\n"), csv);
+        try (InventoryRowReader reader = InventoryRowReader.csv(new StringReader(csv))) {
+            assertTrue(reader.next());
+            assertEquals("Desk, oak", reader.toInventory().getName());
+            assertTrue(reader.next());
+            assertEquals("Monitor 27\"", reader.toInventory().getName());
+            assertFalse(reader.next());
+        }
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(query.capture(), eq(Document.class), eq("inventory"));
+        assertEquals(new Document("category", "Furniture"), query.getValue().getQueryObject());
+        assertTrue(query.getValue().getSortObject().isEmpty());
+        assertTrue(query.getValue().getFieldsObject().containsKey("lowStockThreshold"));
+        assertEquals(2.0, meterRegistry.get("export.rows").tag("collection", "inventory").counter().count());
+    }
+
+    @Test
+    void deliveriesNdjsonKeepsTypes() throws Exception {
+        ObjectId id = new ObjectId();
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 10, 30);
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("deliveries"))).thenReturn(Stream.of(
+                new Document("_id", id).append("sku", "SKU001").append("quantity", 3).append("status", "DELIVERED")
+                        .append("deliveryDate", "2024-05-02")
+                        .append("createdAt", Date.from(createdAt.atZone(ZoneId.systemDefault()).toInstant()))));
+
+        exportService.exportDeliveries("DELIVERED", "2024-05-01", "2024-05-31", null, null, ExportService.NDJSON, () -> body);
+
+        String[] lines = body.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, lines.length);
+        JsonNode delivery = new ObjectMapper().readTree(lines[0]);
+        assertEquals(id.toHexString(), delivery.get("id").asText());
+        assertEquals(3, delivery.get("quantity").asInt());
+        assertTrue(delivery.get("quantity").isNumber());
+        assertTrue(delivery.get("agentId").isNull());
+        assertEquals(createdAt.toString(), delivery.get("createdAt").asText());
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(query.capture(), eq(Document.class), eq("deliveries"));
+        assertEquals(Query.query(Criteria.where("status").is("DELIVERED").and("deliveryDate").gte("2024-05-01").lte("2024-05-31"))
+                .getQueryObject(), query.getValue().getQueryObject());
+    }
+
+    @Test
+    void invalidFiltersFailBeforeTheBodyIsOpened() {
+        ExportService.Target target = () -> {
+            throw new AssertionError("body opened");
+        };
+
+        assertThrows(BadRequestException.class,
+                () -> exportService.exportDeliveries(null, "2024-05-01", null, null, null, ExportService.CSV, target));
+        assertThrows(BadRequestException.class,
+                () -> exportService.exportDeliveries(null, "2024-05-31", "2024-05-01", null, null, ExportService.CSV, target));
+        assertThrows(BadRequestException.class,
+                () -> exportService.exportDeliveries(null, "May 1", "2024-05-31", null, null, ExportService.CSV, target));
+        assertThrows(BadRequestException.class, () -> ExportService.exportFormat("xlsx"));
+        verify(mongoTemplate, never()).stream(any(Query.class), eq(Document.class), any(String.class));
+    }
+}
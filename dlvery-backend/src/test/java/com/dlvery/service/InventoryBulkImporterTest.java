@@ -0,0 +1,179 @@
+package com.dlvery.service;
+
+import com.dlvery.dto.BatchResult;
+import com.dlvery.dto.ImportResult;
+import com.dlvery.exception.BadRequestException;
+import com.dlvery.model.Inventory;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonString;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryBulkImporterTest {
+    private static final String HEADER = "sku,name,category,damaged,perishable,expiryDate,quantity,lowStockThreshold\n";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private BulkOperations bulkOperations;
+    @Mock
+    private SkuCache skuCache;
+
+    @Mock
+    private LowStockAlertService lowStockAlerts;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @InjectMocks
+    private InventoryBulkImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(importer, "batchSize", 2);
+        lenient().when(mongoTemplate.getConverter())
+                .thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext()));
+        lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Inventory.class)).thenReturn(bulkOperations);
+    }
+
+    @Test
+    void importsRowsInBatches() {
+        when(bulkOperations.execute()).thenReturn(result(2, 0), result(0, 1));
+        String csv = HEADER +
+                "SKU001,Laptop,Electronics,false,false,N/A,100,10\n" +
+                "SKU002,Mouse,Electronics,false,false,N/A,50,5\n" +
+                "SKU003,Cable,Electronics,false,false,N/A,20,5\n";
+
+        List<BatchResult> flushed = new ArrayList<>();
+        ImportResult result = importer.importCsv(new StringReader(csv), flushed::add);
+
+        assertEquals(3, result.getRows());
+        assertEquals(2, result.getInserted());
+        assertEquals(1, result.getSkippedDuplicates());
+        assertEquals(2, result.getBatches().size());
+        assertEquals(2, flushed.size());
+        verify(mongoTemplate, times(2)).bulkOps(BulkOperations.BulkMode.UNORDERED, Inventory.class);
+        verify(bulkOperations, times(3)).upsert(any(Query.class), any(Update.class));
+        assertEquals(2.0, meterRegistry.get("inventory.import.rows").tag("result", "inserted").counter().count());
+        assertEquals(1.0, meterRegistry.get("inventory.import.rows").tag("result", "duplicate").counter().count());
+        assertEquals(1, meterRegistry.get("inventory.import.duration").timer().count());
+        ArgumentCaptor<Inventory> evaluated = ArgumentCaptor.forClass(Inventory.class);
+        verify(lowStockAlerts, times(2)).evaluate(evaluated.capture());
+        assertEquals(List.of("SKU001", "SKU002"), evaluated.getAllValues().stream().map(Inventory::getSku).toList());
+    }
+
+    @Test
+    void reportsMalformedRowsWithLineNumbers() {
+        when(bulkOperations.execute()).thenReturn(result(1, 0));
+        String csv = HEADER +
+                "SKU001,Laptop,Electronics,false,false,N/A,lots,10\n" +
+                "SKU002,Mouse,Electronics,false,false,N/A,50,5\n";
+
+        ImportResult result = importer.importCsv(new StringReader(csv));
+
+        assertEquals(2, result.getRows());
+        assertEquals(1, result.getInserted());
+        assertEquals(1, result.getMalformed());
+        assertEquals(2, result.getBatches().get(0).getMalformedRows().get(0).getLine());
+        verify(bulkOperations, times(1)).upsert(any(Query.class), any(Update.class));
+    }
+
+    @Test
+    void countsDuplicateSkusWithinBatch() {
+        when(bulkOperations.execute()).thenReturn(result(1, 0));
+        String csv = HEADER +
+                "SKU001,Laptop,Electronics,false,false,N/A,100,10\n" +
+                "SKU001,Laptop,Electronics,false,false,N/A,100,10\n";
+
+        ImportResult result = importer.importCsv(new StringReader(csv));
+
+        assertEquals(1, result.getInserted());
+        assertEquals(1, result.getSkippedDuplicates());
+        verify(bulkOperations, times(1)).upsert(eq(Query.query(org.springframework.data.mongodb.core.query.Criteria.where("sku").is("SKU001"))), any(Update.class));
+    }
+
+    @Test
+    void importsSpooledFileAcrossParseChunks(@TempDir Path tempDir) throws IOException {
+        ReflectionTestUtils.setField(importer, "parseThreads", 2);
+        ReflectionTestUtils.setField(importer, "parseChunkBytes", 64);
+        ReflectionTestUtils.setField(importer, "batchSize", 3);
+        when(bulkOperations.execute()).thenAnswer(invocation -> result(1, 0));
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < 9; i++) {
+            csv.append("SKU").append(i).append(",\"Desk, oak\",Furniture,false,false,N/A,").append(i).append(",5\n");
+        }
+        csv.append("SKU9,Bad,Furniture,false,false,N/A,lots,5\n");
+        Path file = Files.writeString(tempDir.resolve("inventory.csv"), csv);
+
+        importer.start();
+        ImportResult result;
+        try {
+            result = importer.importFile(file, batch -> { });
+        } finally {
+            importer.stop();
+        }
+
+        assertEquals(10, result.getRows());
+        assertEquals(1, result.getMalformed());
+        assertEquals(11, result.getBatches().stream().flatMap(b -> b.getMalformedRows().stream()).findFirst().orElseThrow().getLine());
+        assertFalse(result.isAborted());
+        verify(bulkOperations, times(9)).upsert(any(Query.class), any(Update.class));
+    }
+
+    @Test
+    void importFileRejectsMissingColumns(@TempDir Path tempDir) throws IOException {
+        Path file = Files.writeString(tempDir.resolve("inventory.csv"), "sku,name\nSKU001,Laptop\n");
+
+        importer.start();
+        try {
+            assertThrows(BadRequestException.class, () -> importer.importFile(file, batch -> { }));
+        } finally {
+            importer.stop();
+        }
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(Inventory.class));
+    }
+
+    @Test
+    void rejectsFileWithoutRequiredColumns() {
+        assertThrows(BadRequestException.class, () -> importer.importCsv(new StringReader("sku,name\nSKU001,Laptop\n")));
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(Inventory.class));
+    }
+
+    private static BulkWriteResult result(int upserted, int matched) {
+        List<BulkWriteUpsert> upserts = new ArrayList<>();
+        for (int i = 0; i < upserted; i++) {
+            upserts.add(new BulkWriteUpsert(i, new BsonString("id" + i)));
+        }
+        return BulkWriteResult.acknowledged(0, matched, 0, 0, upserts, Collections.emptyList());
+    }
+}
@@ -0,0 +1,311 @@
+package com.dlvery.service;
+
+import com.dlvery.dto.BatchResult;
+import com.dlvery.dto.ImportResult;
+import com.dlvery.dto.RowError;
+import com.dlvery.exception.BadRequestException;
+import com.dlvery.exception.PayloadTooLargeException;
+import com.dlvery.exception.ResourceNotFoundException;
+import com.dlvery.exception.ServiceUnavailableException;
+import com.dlvery.model.ImportJob;
+import com.dlvery.repository.ImportJobRepository;
+import com.dlvery.util.InventoryRowReader;
+import com.dlvery.util.UploadDecoder;
+import com.github.luben.zstd.ZstdOutputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryImportJobServiceTest {
+    private static final String CSV = "sku,name,quantity\nSKU1,Item,5\n";
+
+    @Mock
+    private ImportJobRepository importJobRepository;
+    @Mock
+    private InventoryBulkImporter bulkImporter;
+    @Mock
+    private InventorySyncService syncService;
+    @InjectMocks
+    private InventoryImportJobService importJobService;
+    @TempDir
+    Path tempDir;
+    private ImportJob job;
+    private Path spooled;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        spooled = Files.writeString(tempDir.resolve("import-1.csv"), "sku,name\n");
+        job = new ImportJob();
+        job.setId("job1");
+        job.setStatus(ImportJob.QUEUED);
+        job.setSpoolPath(spooled.toString());
+        job.setCreatedAt(LocalDateTime.now());
+        when(importJobRepository.save(any(ImportJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void runRecordsProgressAndCompletes() {
+        when(bulkImporter.importFile(any(Path.class), any(Consumer.class))).thenAnswer(invocation -> {
+            Consumer<BatchResult> listener = invocation.getArgument(1);
+            BatchResult batch = new BatchResult(1);
+            batch.setRows(3);
+            batch.setInserted(2);
+            batch.setMalformed(1);
+            batch.getMalformedRows().add(new RowError(3, "Invalid quantity: 'x'"));
+            listener.accept(batch);
+            return new ImportResult();
+        });
+
+        importJobService.run(job);
+
+        assertEquals(ImportJob.COMPLETED, job.getStatus());
+        assertEquals(3, job.getRowsProcessed());
+        assertEquals(2, job.getInserted());
+        assertEquals(1, job.getErrors().size());
+        assertNotNull(job.getFinishedAt());
+        assertFalse(Files.exists(spooled));
+        verify(importJobRepository, times(3)).save(job);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void runMarksJobFailed() {
+        when(bulkImporter.importFile(any(Path.class), any(Consumer.class))).thenThrow(new IllegalStateException("connection refused"));
+
+        importJobService.run(job);
+
+        assertEquals(ImportJob.FAILED, job.getStatus());
+        assertEquals("connection refused", job.getMessage());
+        assertFalse(Files.exists(spooled));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void runSyncModeRecordsDiffSummary() {
+        job.setMode(ImportJob.MODE_SYNC);
+        when(syncService.sync(any(Reader.class), any(Consumer.class))).thenAnswer(invocation -> {
+            Consumer<BatchResult> listener = invocation.getArgument(1);
+            BatchResult batch = new BatchResult(1);
+            batch.setRows(4);
+            batch.setUpdated(1);
+            batch.setUnchanged(3);
+            listener.accept(batch);
+            BatchResult deletions = new BatchResult(2);
+            deletions.setDeleted(2);
+            listener.accept(deletions);
+            return new ImportResult();
+        });
+
+        importJobService.run(job);
+
+        assertEquals(ImportJob.COMPLETED, job.getStatus());
+        assertEquals(1, job.getUpdated());
+        assertEquals(3, job.getUnchanged());
+        assertEquals(2, job.getDeleted());
+        verify(bulkImporter, never()).importFile(any(Path.class), any(Consumer.class));
+    }
+
+    @Test
+    void importModeDefaultsToInsertAndRejectsUnknown() {
+        reset(importJobRepository);
+        assertEquals(ImportJob.MODE_INSERT, InventoryImportJobService.importMode(null));
+        assertEquals(ImportJob.MODE_SYNC, InventoryImportJobService.importMode("Sync"));
+        assertThrows(BadRequestException.class, () -> InventoryImportJobService.importMode("merge"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void submitDecodesZstdNdjsonWhileSpooling() throws Exception {
+        Path spoolDir = Files.createDirectory(tempDir.resolve("spool"));
+        ReflectionTestUtils.setField(importJobService, "spoolDir", spoolDir.toString());
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            ndjson.append("{\"sku\":\"SKU").append(i).append("\",\"name\":\"Item\",\"quantity\":5,\"lowStockThreshold\":1}\n");
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ZstdOutputStream out = new ZstdOutputStream(compressed)) {
+            out.write(ndjson.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        List<String> skus = new ArrayList<>();
+        when(bulkImporter.importRows(any(InventoryRowReader.class), any(Consumer.class))).thenAnswer(invocation -> {
+            try (InventoryRowReader rows = invocation.getArgument(0)) {
+                while (rows.next()) {
+                    skus.add(rows.toInventory().getSku());
+                }
+            }
+            return new ImportResult();
+        });
+
+        importJobService.start();
+        ImportJob submitted;
+        try {
+            submitted = importJobService.submit(new ByteArrayInputStream(compressed.toByteArray()), "stock.jsonl.zst",
+                    "application/octet-stream", "zstd", null, null);
+        } finally {
+            importJobService.stop();
+        }
+
+        assertEquals(ImportJob.FORMAT_NDJSON, submitted.getFormat());
+        assertEquals(UploadDecoder.ZSTD, submitted.getCompression());
+        assertEquals(compressed.size(), submitted.getFileSize());
+        assertEquals(ndjson.length(), submitted.getDecodedSize());
+        assertEquals(ImportJob.QUEUED, submitted.getStatus());
+        ArgumentCaptor<ImportJob> saves = ArgumentCaptor.forClass(ImportJob.class);
+        verify(importJobRepository, atLeast(3)).save(saves.capture());
+        ImportJob finished = saves.getValue();
+        assertNotSame(submitted, finished);
+        assertEquals(submitted.getId(), finished.getId());
+        assertEquals(ImportJob.COMPLETED, finished.getStatus());
+        assertEquals(200, skus.size());
+        verify(bulkImporter, never()).importFile(any(Path.class), any(Consumer.class));
+        try (Stream<Path> left = Files.list(spoolDir)) {
+            assertEquals(0, left.count());
+        }
+    }
+
+    @Test
+    void submitRejectsBodyThatDecompressesPastLimit() throws Exception {
+        reset(importJobRepository);
+        Path spoolDir = Files.createDirectory(tempDir.resolve("spool"));
+        ReflectionTestUtils.setField(importJobService, "spoolDir", spoolDir.toString());
+        ReflectionTestUtils.setField(importJobService, "maxDecodedBytes", 1024L);
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+            out.write(new byte[64 * 1024]);
+        }
+
+        importJobService.start();
+        try {
+            assertThrows(PayloadTooLargeException.class, () -> importJobService.submit(
+                    new ByteArrayInputStream(gzipped.toByteArray()), "stock.csv", "text/csv", null, null, null));
+        } finally {
+            importJobService.stop();
+        }
+
+        verify(importJobRepository, never()).save(any(ImportJob.class));
+        try (Stream<Path> left = Files.list(spoolDir)) {
+            assertEquals(0, left.count());
+        }
+    }
+
+    @Test
+    void submitRejectsUnsupportedContentEncoding() {
+        reset(importJobRepository);
+        ReflectionTestUtils.setField(importJobService, "spoolDir", tempDir.toString());
+
+        importJobService.start();
+        try {
+            assertThrows(BadRequestException.class, () -> importJobService.submit(
+                    new ByteArrayInputStream(new byte[]{1}), "stock.csv", "text/csv", "br", null, null));
+        } finally {
+            importJobService.stop();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void fullQueueRefusesUploadBeforeReadingIt() throws Exception {
+        Path spoolDir = Files.createDirectory(tempDir.resolve("spool"));
+        ReflectionTestUtils.setField(importJobService, "spoolDir", spoolDir.toString());
+        ReflectionTestUtils.setField(importJobService, "workers", 1);
+        ReflectionTestUtils.setField(importJobService, "queueCapacity", 1);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        when(bulkImporter.importFile(any(Path.class), any(Consumer.class))).thenAnswer(invocation -> {
+            running.countDown();
+            finish.await(5, TimeUnit.SECONDS);
+            return new ImportResult();
+        });
+
+        importJobService.start();
+        try {
+            importJobService.submit(csv(), "a.csv", "text/csv", null, null, null);
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            importJobService.submit(csv(), "b.csv", "text/csv", null, null, null);
+            ByteArrayInputStream third = csv();
+
+            assertThrows(ServiceUnavailableException.class,
+                    () -> importJobService.submit(third, "c.csv", "text/csv", null, null, null));
+            assertEquals(CSV.length(), third.available());
+        } finally {
+            finish.countDown();
+            importJobService.stop();
+        }
+        verify(bulkImporter, times(2)).importFile(any(Path.class), any(Consumer.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void uploadsPastTheSpoolLimitAreRefusedAndGiveTheirSpaceBack() throws Exception {
+        Path spoolDir = Files.createDirectory(tempDir.resolve("spool"));
+        ReflectionTestUtils.setField(importJobService, "spoolDir", spoolDir.toString());
+        ReflectionTestUtils.setField(importJobService, "maxSpoolBytes", (long) CSV.length());
+        ReflectionTestUtils.setField(importJobService, "workers", 1);
+        ReflectionTestUtils.setField(importJobService, "queueCapacity", 0);
+        when(bulkImporter.importFile(any(Path.class), any(Consumer.class))).thenReturn(new ImportResult());
+
+        importJobService.start();
+        try {
+            assertThrows(ServiceUnavailableException.class, () -> importJobService.submit(
+                    new ByteArrayInputStream((CSV + CSV).getBytes(StandardCharsets.UTF_8)), "a.csv", "text/csv", null, null, null));
+            try (Stream<Path> left = Files.list(spoolDir)) {
+                assertEquals(0, left.count());
+            }
+            importJobService.submit(csv(), "b.csv", "text/csv", null, null, null);
+        } finally {
+            importJobService.stop();
+        }
+        verify(bulkImporter).importFile(any(Path.class), any(Consumer.class));
+    }
+
+    @Test
+    void importFormatFromParameterContentTypeOrFileName() {
+        reset(importJobRepository);
+        assertEquals(ImportJob.FORMAT_NDJSON, InventoryImportJobService.importFormat("JSONL", "text/csv", "a.csv"));
+        assertEquals(ImportJob.FORMAT_NDJSON, InventoryImportJobService.importFormat(null, "application/x-ndjson", null));
+        assertEquals(ImportJob.FORMAT_NDJSON, InventoryImportJobService.importFormat(null, "application/gzip", "stock.ndjson.gz"));
+        assertEquals(ImportJob.FORMAT_CSV, InventoryImportJobService.importFormat(null, "application/zstd", "stock.csv.zst"));
+        assertEquals(ImportJob.FORMAT_CSV, InventoryImportJobService.importFormat(null, null, null));
+        assertThrows(BadRequestException.class, () -> InventoryImportJobService.importFormat("xml", null, null));
+    }
+
+    @Test
+    void getJobNotFound() {
+        reset(importJobRepository);
+        when(importJobRepository.findById("missing")).thenReturn(Optional.empty());
+        assertThrows(ResourceNotFoundException.class, () -> importJobService.getJob("missing"));
+    }
+
+    private static ByteArrayInputStream csv() {
+        return new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8));
+    }
+}
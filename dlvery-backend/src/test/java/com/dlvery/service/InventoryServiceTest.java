@@ -1,30 +1,44 @@
 
 package com.dlvery.service;
 
+import com.dlvery.dto.ImportResult;
 import com.dlvery.model.Delivery;
 import com.dlvery.model.Inventory;
 import com.dlvery.repository.AuditLogRepository;
 import com.dlvery.repository.DeliveryRepository;
 import com.dlvery.repository.InventoryRepository;
 import com.dlvery.exception.BadRequestException;
+import com.dlvery.exception.ConflictException;
 import com.dlvery.exception.ResourceNotFoundException;
+import com.dlvery.util.InventoryRowReader;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +50,22 @@ class InventoryServiceTest {
     @Mock
     private AuditLogRepository auditLogRepository; // Kept for potential future use
     @Mock
+    private InventoryBulkImporter bulkImporter;
+    @Mock
+    private StockReservationService stockReservationService;
+    @Mock
+    private DeliveryStatsService deliveryStatsService;
+    @Mock
+    private SkuCache skuCache;
+
+    @Mock
+    private DeliveryEventService deliveryEventService;
+
+    @Mock
+    private LowStockAlertService lowStockAlerts;
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
     private MultipartFile multipartFile;
     @InjectMocks
     private InventoryServiceImpl inventoryService;
@@ -66,16 +96,17 @@ class InventoryServiceTest {
 
     @Test
     void addInventorySuccess() {
-        when(inventoryRepository.findBySku("SKU001")).thenReturn(Optional.empty());
+        when(skuCache.findBySku("SKU001")).thenReturn(Optional.empty());
         when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
         Inventory result = inventoryService.addInventory(inventory);
         assertEquals("SKU001", result.getSku());
         verify(inventoryRepository).save(inventory);
+        verify(skuCache).invalidate("SKU001");
     }
 
     @Test
     void addInventoryDuplicateSku() {
-        when(inventoryRepository.findBySku("SKU001")).thenReturn(Optional.of(inventory));
+        when(skuCache.findBySku("SKU001")).thenReturn(Optional.of(inventory));
         assertThrows(BadRequestException.class, () -> inventoryService.addInventory(inventory));
         verify(inventoryRepository, never()).save(any());
     }
@@ -90,11 +121,50 @@ class InventoryServiceTest {
 
     @Test
     void updateInventorySuccess() {
+        inventory.setVersion(3L);
         when(inventoryRepository.findById("1")).thenReturn(Optional.of(inventory));
-        when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Inventory.class)))
+                .thenReturn(inventory);
         Inventory result = inventoryService.updateInventory("1", inventory);
         assertEquals("SKU001", result.getSku());
-        verify(inventoryRepository).save(inventory);
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class), eq(Inventory.class));
+        assertEquals(new Document("_id", "1").append("version", 3L), query.getValue().getQueryObject());
+        assertEquals(new Document("version", 1), update.getValue().getUpdateObject().get("$inc"));
+        assertEquals(100, ((Document) update.getValue().getUpdateObject().get("$set")).getInteger("quantity"));
+        verify(inventoryRepository, never()).save(any());
+        verify(skuCache, times(2)).invalidate("SKU001");
+        verify(lowStockAlerts).evaluate(inventory);
+        verify(lowStockAlerts, never()).remove(any());
+    }
+
+    @Test
+    void updateInventoryFailsWhenVersionMovedInBetween() {
+        inventory.setVersion(3L);
+        when(inventoryRepository.findById("1")).thenReturn(Optional.of(inventory));
+        // A reservation bumped the version after the read, so the conditional update matches nothing.
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Inventory.class)))
+                .thenReturn(null);
+        assertThrows(ConflictException.class, () -> inventoryService.updateInventory("1", inventory));
+        verify(inventoryRepository, never()).save(any());
+        verifyNoInteractions(skuCache, lowStockAlerts);
+    }
+
+    @Test
+    void updateInventoryRenamingSkuDropsOldLowStockAlert() {
+        Inventory existing = new Inventory();
+        existing.setId("1");
+        existing.setSku("OLD001");
+        when(inventoryRepository.findById("1")).thenReturn(Optional.of(existing));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Inventory.class)))
+                .thenReturn(inventory);
+        inventoryService.updateInventory("1", inventory);
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAndModify(query.capture(), any(Update.class), any(FindAndModifyOptions.class), eq(Inventory.class));
+        assertEquals(new Document("_id", "1").append("version", new Document("$exists", false)), query.getValue().getQueryObject());
+        verify(lowStockAlerts).remove("OLD001");
+        verify(lowStockAlerts).evaluate(inventory);
     }
 
     @Test
@@ -110,6 +180,8 @@ class InventoryServiceTest {
         when(deliveryRepository.findBySku("SKU001")).thenReturn(Collections.emptyList());
         inventoryService.deleteInventory("1");
         verify(inventoryRepository).deleteById("1");
+        verify(skuCache).invalidate("SKU001");
+        verify(lowStockAlerts).remove("SKU001");
     }
 
     @Test
@@ -124,31 +196,75 @@ class InventoryServiceTest {
     void uploadInventoryFileSuccess() throws IOException {
         String csvContent = "sku,name,category,damaged,perishable,expiryDate,quantity,lowStockThreshold\n" +
                 "SKU002,Mouse,Electronics,false,false,N/A,50,5";
+        ImportResult importResult = new ImportResult();
+        importResult.setInserted(1);
         when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(csvContent.getBytes()));
-        when(inventoryRepository.findBySku("SKU002")).thenReturn(Optional.empty());
-        when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
+        when(bulkImporter.importCsv(any(Reader.class))).thenReturn(importResult);
+        ImportResult result = inventoryService.uploadInventoryFile(multipartFile);
+        assertEquals(1, result.getInserted());
+        verify(bulkImporter).importCsv(any(Reader.class));
+        verify(inventoryRepository, never()).save(any());
+    }
+
+    @Test
+    void uploadInventoryFileDecodesGzippedNdjson() throws IOException {
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+            out.write("{\"sku\":\"SKU002\",\"quantity\":50,\"lowStockThreshold\":5}\n".getBytes(StandardCharsets.UTF_8));
+        }
+        when(multipartFile.getOriginalFilename()).thenReturn("inventory.ndjson.gz");
+        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(gzipped.toByteArray()));
+        when(bulkImporter.importRows(any(InventoryRowReader.class), any())).thenAnswer(invocation -> {
+            InventoryRowReader rows = invocation.getArgument(0);
+            assertTrue(rows.next());
+            assertEquals(50, rows.toInventory().getQuantity());
+            return new ImportResult();
+        });
+
         inventoryService.uploadInventoryFile(multipartFile);
-        verify(inventoryRepository).save(any());
+
+        verify(bulkImporter, never()).importCsv(any(Reader.class));
+    }
+
+    @Test
+    void uploadInventoryFileUnreadable() throws IOException {
+        when(multipartFile.getInputStream()).thenThrow(new IOException("stream closed"));
+        assertThrows(BadRequestException.class, () -> inventoryService.uploadInventoryFile(multipartFile));
+        verify(bulkImporter, never()).importCsv(any(Reader.class));
     }
 
     @Test
     void assignForDeliverySuccess() {
-        when(inventoryRepository.findBySku("SKU001")).thenReturn(Optional.of(inventory));
+        inventory.setQuantity(90);
+        when(stockReservationService.reserve("SKU001", 10)).thenReturn(inventory);
         when(deliveryRepository.save(any(Delivery.class))).thenReturn(delivery);
         inventoryService.assignForDelivery("SKU001", 10, "agent1", "John Doe", "123 Main St");
-        verify(inventoryRepository).save(inventory);
+        verify(stockReservationService).reserve("SKU001", 10);
         verify(deliveryRepository).save(any(Delivery.class));
-        assertEquals(90, inventory.getQuantity());
+        verify(inventoryRepository, never()).save(any());
+        verify(deliveryStatsService).recordChange(isNull(), argThat(d -> "PENDING".equals(d.getStatus()) && d.getQuantity() == 10));
+        verify(deliveryEventService).publishCreated(argThat((Delivery d) -> "PENDING".equals(d.getStatus())));
     }
 
     @Test
     void assignForDeliveryNotFound() {
-        when(inventoryRepository.findBySku("SKU001")).thenReturn(Optional.empty());
+        when(stockReservationService.reserve("SKU001", 10))
+                .thenThrow(new BadRequestException("Inventory item not found for SKU: SKU001"));
         assertThrows(BadRequestException.class, () ->
                 inventoryService.assignForDelivery("SKU001", 10, "agent1", "John Doe", "123 Main St"));
         verify(deliveryRepository, never()).save(any());
     }
 
+    @Test
+    void assignForDeliveryReleasesStockWhenDeliveryNotSaved() {
+        when(stockReservationService.reserve("SKU001", 10)).thenReturn(inventory);
+        when(deliveryRepository.save(any(Delivery.class))).thenThrow(new IllegalStateException("write failed"));
+        assertThrows(IllegalStateException.class, () ->
+                inventoryService.assignForDelivery("SKU001", 10, "agent1", "John Doe", "123 Main St"));
+        verify(stockReservationService).release("SKU001", 10);
+        verifyNoInteractions(deliveryStatsService);
+    }
+
     @Test
     void trackDeliveryBySku() {
         when(deliveryRepository.findBySku("SKU001")).thenReturn(Arrays.asList(delivery));
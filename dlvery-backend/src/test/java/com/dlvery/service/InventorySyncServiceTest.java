@@ -0,0 +1,213 @@
+package com.dlvery.service;
+
+import com.dlvery.dto.BatchResult;
+import com.dlvery.dto.ImportResult;
+import com.dlvery.model.Delivery;
+import com.dlvery.model.Inventory;
+import com.dlvery.model.InventoryFingerprint;
+import com.dlvery.util.CsvUtil;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.result.DeleteResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.commons.csv.CSVParser;
+import org.bson.BsonString;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventorySyncServiceTest {
+    private static final String HEADER = "sku,name,category,damaged,perishable,expiryDate,quantity,lowStockThreshold\n";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private BulkOperations inventoryOps;
+    @Mock
+    private BulkOperations fingerprintOps;
+    @Mock
+    private SkuCache skuCache;
+
+    @Mock
+    private LowStockAlertService lowStockAlerts;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @InjectMocks
+    private InventorySyncService syncService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(mongoTemplate.getConverter())
+                .thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext()));
+        lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Inventory.class)).thenReturn(inventoryOps);
+        lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, InventoryFingerprint.class)).thenReturn(fingerprintOps);
+        ReflectionTestUtils.setField(syncService, "deleteMissing", true);
+    }
+
+    @Test
+    void appliesOnlyNewChangedAndMissingSkus() {
+        knownFingerprints(
+                fingerprint("SKU001,Laptop,Electronics,false,false,N/A,100,10"),
+                fingerprint("SKU002,Mouse,Electronics,false,false,N/A,50,5"),
+                fingerprint("SKU003,Cable,Electronics,false,false,N/A,20,5"));
+        when(inventoryOps.execute()).thenReturn(result(1, 1));
+        when(mongoTemplate.remove(any(Query.class), eq(Inventory.class))).thenReturn(DeleteResult.acknowledged(1));
+        String csv = HEADER +
+                "SKU001,Laptop,Electronics,false,false,N/A,100,10\n" +
+                "SKU002,Mouse,Electronics,false,false,N/A,45,5\n" +
+                "SKU004,Keyboard,Electronics,false,false,N/A,30,5\n";
+
+        List<BatchResult> flushed = new ArrayList<>();
+        ImportResult result = syncService.sync(new StringReader(csv), flushed::add);
+
+        assertEquals(3, result.getRows());
+        assertEquals(1, result.getInserted());
+        assertEquals(1, result.getUpdated());
+        assertEquals(1, result.getUnchanged());
+        assertEquals(1, result.getDeleted());
+        assertEquals(2, flushed.size());
+        verify(inventoryOps).upsert(eq(Query.query(Criteria.where("sku").is("SKU002"))), any(Update.class));
+        verify(inventoryOps).upsert(eq(Query.query(Criteria.where("sku").is("SKU004"))), any(Update.class));
+        verify(inventoryOps, never()).upsert(eq(Query.query(Criteria.where("sku").is("SKU001"))), any(Update.class));
+        verify(fingerprintOps, times(2)).upsert(any(Query.class), any(Update.class));
+        verify(mongoTemplate).remove(Query.query(Criteria.where("sku").in(List.of("SKU003"))), Inventory.class);
+        verify(mongoTemplate).remove(Query.query(Criteria.where("_id").in(List.of("SKU003"))), InventoryFingerprint.class);
+        verify(skuCache).invalidateAll(List.of("SKU002", "SKU004"));
+        assertEquals(1.0, meterRegistry.get("inventory.import.rows").tag("result", "unchanged").counter().count());
+    }
+
+    @Test
+    void keepsMissingSkusThatDeliveriesReferTo() {
+        knownFingerprints(
+                fingerprint("SKU001,Laptop,Electronics,false,false,N/A,100,10"),
+                fingerprint("SKU003,Cable,Electronics,false,false,N/A,20,5"),
+                fingerprint("SKU005,Hub,Electronics,false,false,N/A,7,5"));
+        when(mongoTemplate.findDistinct(any(Query.class), eq("sku"), eq(Delivery.class), eq(String.class)))
+                .thenReturn(List.of("SKU003"));
+        when(mongoTemplate.remove(any(Query.class), eq(Inventory.class))).thenReturn(DeleteResult.acknowledged(1));
+
+        ImportResult result = syncService.sync(new StringReader(HEADER + "SKU001,Laptop,Electronics,false,false,N/A,100,10\n"),
+                batch -> { });
+
+        assertEquals(1, result.getDeleted());
+        assertEquals(1, result.getSkippedDeletes());
+        verify(mongoTemplate).remove(Query.query(Criteria.where("sku").in(List.of("SKU005"))), Inventory.class);
+        verify(mongoTemplate).remove(Query.query(Criteria.where("_id").in(List.of("SKU005"))), InventoryFingerprint.class);
+        verify(lowStockAlerts).removeAll(List.of("SKU005"));
+    }
+
+    @Test
+    void onePercentChurnWritesOnePercentOfRows() {
+        int rows = 10_000;
+        StringBuilder csv = new StringBuilder(HEADER);
+        List<InventoryFingerprint> known = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            String row = "SKU" + i + ",Item " + i + ",Category" + (i % 20) + ",false,false,2030-01-01," + (i % 500) + ",10";
+            known.add(fingerprint(row));
+            csv.append(i % 100 == 0 ? row.replace(",10", ",11") : row).append('\n');
+        }
+        knownFingerprints(known.toArray(new InventoryFingerprint[0]));
+        when(inventoryOps.execute()).thenAnswer(invocation -> result(0, 10));
+
+        ImportResult result = syncService.sync(new StringReader(csv.toString()), batch -> { });
+
+        assertEquals(rows, result.getRows());
+        assertEquals(100, result.getUpdated());
+        assertEquals(rows - 100, result.getUnchanged());
+        assertEquals(0, result.getDeleted());
+        verify(inventoryOps, times(100)).upsert(any(Query.class), any(Update.class));
+        verify(fingerprintOps, times(100)).upsert(any(Query.class), any(Update.class));
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(Inventory.class));
+    }
+
+    @Test
+    void malformedRowKeepsItsSkuFromBeingDeleted() {
+        knownFingerprints(
+                fingerprint("SKU001,Laptop,Electronics,false,false,N/A,100,10"),
+                fingerprint("SKU003,Cable,Electronics,false,false,N/A,20,5"));
+        String csv = HEADER +
+                "SKU001,Laptop,Electronics,false,false,N/A,100,10\n" +
+                "SKU003,Cable,Electronics,false,false,N/A,lots,5\n";
+
+        ImportResult result = syncService.sync(new StringReader(csv), batch -> { });
+
+        assertEquals(1, result.getUnchanged());
+        assertEquals(1, result.getMalformed());
+        assertEquals(3, result.getBatches().get(0).getMalformedRows().get(0).getLine());
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(Inventory.class));
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(Inventory.class));
+    }
+
+    @Test
+    void fileWithoutValidRowsDeletesNothing() {
+        knownFingerprints(fingerprint("SKU001,Laptop,Electronics,false,false,N/A,100,10"));
+
+        ImportResult result = syncService.sync(new StringReader(HEADER), batch -> { });
+
+        assertEquals(0, result.getRows());
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(Inventory.class));
+    }
+
+    @Test
+    void fingerprintDependsOnEveryField() {
+        long base = hash("SKU001,Laptop,Electronics,false,false,N/A,100,10");
+
+        assertEquals(base, hash("SKU001, Laptop ,Electronics,false,false,N/A,100,10"));
+        assertNotEquals(base, hash("SKU001,Laptop,Electronics,true,false,N/A,100,10"));
+        assertNotEquals(base, hash("SKU001,Laptop,Electronics,false,false,N/A,100,11"));
+        assertNotEquals(base, hash("SKU001,LaptopE,lectronics,false,false,N/A,100,10"));
+    }
+
+    private void knownFingerprints(InventoryFingerprint... fingerprints) {
+        when(mongoTemplate.stream(any(Query.class), eq(InventoryFingerprint.class))).thenReturn(Stream.of(fingerprints));
+    }
+
+    private static InventoryFingerprint fingerprint(String row) {
+        InventoryFingerprint fingerprint = new InventoryFingerprint();
+        fingerprint.setSku(row.substring(0, row.indexOf(',')));
+        fingerprint.setHash(hash(row));
+        return fingerprint;
+    }
+
+    private static long hash(String row) {
+        try (CSVParser parser = CsvUtil.openInventoryParser(new StringReader(HEADER + row + "\n"))) {
+            return InventorySyncService.fingerprint(CsvUtil.toInventory(parser.iterator().next()), InventorySyncService.sha256());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static BulkWriteResult result(int upserted, int matched) {
+        List<BulkWriteUpsert> upserts = new ArrayList<>();
+        for (int i = 0; i < upserted; i++) {
+            upserts.add(new BulkWriteUpsert(i, new BsonString("id" + i)));
+        }
+        return BulkWriteResult.acknowledged(0, matched, 0, 0, upserts, Collections.emptyList());
+    }
+}
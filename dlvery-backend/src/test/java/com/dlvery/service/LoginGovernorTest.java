@@ -0,0 +1,94 @@
+package com.dlvery.service;
+
+import com.dlvery.exception.ServiceUnavailableException;
+import com.dlvery.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoginGovernorTest {
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @InjectMocks
+    private LoginGovernor loginGovernor;
+
+    @AfterEach
+    void tearDown() {
+        loginGovernor.stop();
+    }
+
+    @Test
+    void loginRunsOnHashingExecutor() throws Exception {
+        loginGovernor.start();
+
+        String thread = loginGovernor.submit("agent1", "10.0.0.1", () -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+
+        assertTrue(thread.startsWith("login-hash-"), thread);
+    }
+
+    @Test
+    void perUserBucketThrottlesWithRetryAfter() {
+        ReflectionTestUtils.setField(loginGovernor, "perUserCapacity", 2L);
+        loginGovernor.start();
+        loginGovernor.submit("agent1", "10.0.0.1", () -> "ok");
+        loginGovernor.submit("agent1", "10.0.0.2", () -> "ok");
+
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+                () -> loginGovernor.submit("agent1", "10.0.0.3", () -> "ok"));
+        assertTrue(e.getRetryAfterSeconds() >= 1);
+        assertDoesNotThrow(() -> loginGovernor.submit("agent2", "10.0.0.3", () -> "ok"));
+        assertEquals(1.0, meterRegistry.find("auth.login.throttled").tag("limit", "user").counter().count());
+    }
+
+    @Test
+    void perIpBucketThrottlesAcrossUsers() {
+        ReflectionTestUtils.setField(loginGovernor, "perIpCapacity", 3L);
+        loginGovernor.start();
+        for (int i = 0; i < 3; i++) {
+            loginGovernor.submit("agent" + i, "10.0.0.1", () -> "ok");
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> loginGovernor.submit("agent9", "10.0.0.1", () -> "ok"));
+    }
+
+    @Test
+    void fullHashingQueueIsRejectedWith503() throws InterruptedException {
+        ReflectionTestUtils.setField(loginGovernor, "threads", 1);
+        ReflectionTestUtils.setField(loginGovernor, "queueCapacity", 1);
+        loginGovernor.start();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Object> running = loginGovernor.submit("a", "1", () -> {
+            started.countDown();
+            await(release);
+            return "ok";
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        loginGovernor.submit("b", "2", () -> "queued");
+
+        assertThrows(ServiceUnavailableException.class, () -> loginGovernor.submit("c", "3", () -> "rejected"));
+        release.countDown();
+        assertEquals("ok", running.join());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
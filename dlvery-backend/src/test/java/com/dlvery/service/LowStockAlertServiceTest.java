@@ -0,0 +1,140 @@
+package com.dlvery.service;
+
+import com.dlvery.controller.InventoryController;
+import com.dlvery.dto.LowStockAlert;
+import com.dlvery.model.Inventory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@ExtendWith(MockitoExtension.class)
+class LowStockAlertServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private LowStockAlertService lowStockAlertService;
+
+    @BeforeEach
+    void setUp() {
+        lowStockAlertService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        lowStockAlertService.stop();
+    }
+
+    @Test
+    void testOnlyTransitionsAreRaised() {
+        lowStockAlertService.evaluate(item("SKU002", 20, 5, 1L));
+        lowStockAlertService.evaluate(item("SKU002", 4, 5, 2L));
+        lowStockAlertService.evaluate(item("SKU001", 0, 0, 1L));
+        lowStockAlertService.evaluate(item("SKU002", 3, 5, 3L));
+
+        List<LowStockAlert> alerts = lowStockAlertService.getAlerts();
+        assertEquals(List.of("SKU001", "SKU002"), alerts.stream().map(LowStockAlert::getSku).toList());
+        assertEquals(3, alerts.get(1).getQuantity());
+        assertEquals(2.0, meterRegistry.get("inventory.low_stock.transitions").tag("type", "LOW").counter().count());
+        assertEquals(2.0, meterRegistry.get("inventory.low_stock.items").gauge().value());
+
+        lowStockAlertService.evaluate(item("SKU002", 50, 5, 4L));
+        lowStockAlertService.remove("SKU001");
+        lowStockAlertService.remove("SKU003");
+
+        assertTrue(lowStockAlertService.getAlerts().isEmpty());
+        assertEquals(1.0, meterRegistry.get("inventory.low_stock.transitions").tag("type", "CLEARED").counter().count());
+        assertEquals(1.0, meterRegistry.get("inventory.low_stock.transitions").tag("type", "REMOVED").counter().count());
+    }
+
+    @Test
+    void testOlderVersionDoesNotOverrideAlert() {
+        lowStockAlertService.evaluate(item("SKU001", 2, 5, 7L));
+        lowStockAlertService.evaluate(item("SKU001", 30, 5, 6L));
+
+        assertEquals(2, lowStockAlertService.getAlerts().get(0).getQuantity());
+    }
+
+    @Test
+    void testReconcileKeepsItemsWrittenDuringTheScan() {
+        lowStockAlertService.evaluate(item("SKU001", 1, 5, 1L));
+        lowStockAlertService.evaluate(item("SKU002", 1, 5, 1L));
+        when(mongoTemplate.stream(any(Query.class), eq(Inventory.class))).thenAnswer(invocation -> {
+            // Restocked after the scan read it as low.
+            lowStockAlertService.evaluate(item("SKU003", 40, 5, 2L));
+            return Stream.of(item("SKU002", 1, 5, 1L), item("SKU003", 2, 5, 1L), item("SKU004", 0, 3, 1L));
+        });
+
+        assertEquals(3, lowStockAlertService.reconcile());
+
+        assertEquals(List.of("SKU002", "SKU004"),
+                lowStockAlertService.getAlerts().stream().map(LowStockAlert::getSku).toList());
+        assertEquals(1.0, meterRegistry.get("inventory.low_stock.transitions").tag("type", "CLEARED").counter().count());
+    }
+
+    @Test
+    void testSubscriberGetsSnapshotThenTransitions() throws Exception {
+        lowStockAlertService.evaluate(item("SKU001", 1, 5, 1L));
+        InventoryController controller = new InventoryController();
+        ReflectionTestUtils.setField(controller, "lowStockAlertService", lowStockAlertService);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        MockHttpServletResponse response = mockMvc.perform(get("/api/inventory/low-stock/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+        lowStockAlertService.evaluate(item("SKU002", 0, 5, 1L));
+        lowStockAlertService.evaluate(item("SKU001", 9, 5, 2L));
+
+        String body = await(response, "\"quantity\":9");
+        assertTrue(body.indexOf("event:SNAPSHOT") < body.indexOf("event:LOW"));
+        assertTrue(body.indexOf("event:LOW") < body.indexOf("event:CLEARED"));
+        assertEquals(1, lowStockAlertService.getSubscriberCount());
+    }
+
+    private static String await(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = response.getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            content = response.getContentAsString();
+        }
+        assertTrue(content.contains(expected), content);
+        return content;
+    }
+
+    private static Inventory item(String sku, int quantity, int lowStockThreshold, Long version) {
+        Inventory item = new Inventory();
+        item.setSku(sku);
+        item.setQuantity(quantity);
+        item.setLowStockThreshold(lowStockThreshold);
+        item.setVersion(version);
+        return item;
+    }
+}
@@ -0,0 +1,90 @@
+package com.dlvery.service;
+
+import com.dlvery.dto.QueryPlan;
+import com.dlvery.model.AuditLog;
+import com.dlvery.model.Delivery;
+import com.dlvery.model.Inventory;
+import com.dlvery.model.User;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MongoIndexServiceTest {
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private IndexOperations indexOperations;
+    @InjectMocks
+    private MongoIndexService mongoIndexService;
+
+    @Test
+    void ensureIndexesCreatesDeclaredIndexesAndKeepsFailures() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        when(mongoTemplate.getConverter()).thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext));
+        when(mongoTemplate.indexOps(any(Class.class))).thenReturn(indexOperations);
+        List<String> keys = new ArrayList<>();
+        when(indexOperations.ensureIndex(any(IndexDefinition.class))).thenAnswer(invocation -> {
+            IndexDefinition index = invocation.getArgument(0);
+            keys.add(index.getIndexKeys().toJson());
+            if (index.getIndexKeys().containsKey("username")) {
+                throw new IllegalStateException("E11000 duplicate key");
+            }
+            return "ok";
+        });
+
+        List<String> failures = mongoIndexService.ensureIndexes();
+
+        assertTrue(keys.contains("{\"sku\": 1}"));
+        assertTrue(keys.contains("{\"agentId\": 1, \"status\": 1}"));
+        assertTrue(keys.contains("{\"status\": 1, \"deliveryDate\": 1}"));
+        assertTrue(keys.contains("{\"email\": 1}"));
+        assertTrue(keys.contains("{\"entity\": 1, \"_id\": 1}"));
+        assertEquals(1, failures.size());
+        assertTrue(failures.get(0).startsWith("users {\"username\": 1}"));
+        verify(mongoTemplate, atLeastOnce()).indexOps(Inventory.class);
+        verify(mongoTemplate, atLeastOnce()).indexOps(Delivery.class);
+        verify(mongoTemplate, atLeastOnce()).indexOps(User.class);
+        verify(mongoTemplate, atLeastOnce()).indexOps(AuditLog.class);
+    }
+
+    @Test
+    void winningPlanPrefersIndexScanInNestedStages() {
+        Document explain = Document.parse("{queryPlanner: {winningPlan: {stage: 'FETCH', inputStage: "
+                + "{stage: 'IXSCAN', indexName: 'agentId_status'}}}}");
+
+        QueryPlan plan = MongoIndexService.winningPlan(explain, "deliveries", "{}");
+
+        assertEquals("IXSCAN", plan.getStage());
+        assertEquals("agentId_status", plan.getIndexName());
+        assertFalse(plan.isCollectionScan());
+    }
+
+    @Test
+    void winningPlanDetectsCollectionScanInSbeLayout() {
+        Document explain = Document.parse("{queryPlanner: {winningPlan: {queryPlan: {stage: 'COLLSCAN'}}}}");
+
+        QueryPlan plan = MongoIndexService.winningPlan(explain, "deliveries", "{}");
+
+        assertTrue(plan.isCollectionScan());
+        assertEquals(QueryPlan.EXPLAIN, plan.getSource());
+    }
+}
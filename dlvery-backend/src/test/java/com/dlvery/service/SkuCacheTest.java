@@ -0,0 +1,122 @@
+package com.dlvery.service;
+
+import com.dlvery.model.Inventory;
+import com.dlvery.repository.InventoryRepository;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.mongodb.client.model.changestream.UpdateDescription;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SkuCacheTest {
+    @Mock
+    private InventoryRepository inventoryRepository;
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @InjectMocks
+    private SkuCache skuCache;
+    private Inventory inventory;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(skuCache, "maxSize", 2L);
+        skuCache.init();
+        inventory = new Inventory();
+        inventory.setSku("SKU001");
+    }
+
+    @Test
+    void repeatedLookupsHitTheCacheIncludingMisses() {
+        when(inventoryRepository.findBySku("SKU001")).thenReturn(Optional.of(inventory));
+        when(inventoryRepository.findBySku("NONE")).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(skuCache.findBySku("SKU001").isPresent());
+            assertTrue(skuCache.findBySku("NONE").isEmpty());
+        }
+
+        verify(inventoryRepository, times(1)).findBySku("SKU001");
+        verify(inventoryRepository, times(1)).findBySku("NONE");
+        assertEquals(4, skuCache.getStatistics().getHitCount());
+        assertEquals(2.0 / 3, skuCache.getStatistics().getHitRatio(), 1e-9);
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", "inventory.sku").functionCounter());
+    }
+
+    @Test
+    void invalidateForcesReload() {
+        when(inventoryRepository.findBySku("SKU001")).thenReturn(Optional.empty(), Optional.of(inventory));
+
+        assertTrue(skuCache.findBySku("SKU001").isEmpty());
+        skuCache.invalidate("SKU001");
+
+        assertTrue(skuCache.findBySku("SKU001").isPresent());
+        verify(inventoryRepository, times(2)).findBySku("SKU001");
+    }
+
+    @Test
+    void sizeLimitEvictsEntries() {
+        when(inventoryRepository.findBySku(anyString())).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 50; i++) {
+            skuCache.findBySku("SKU" + i);
+        }
+
+        assertTrue(skuCache.getStatistics().getSize() <= 2);
+        assertTrue(skuCache.getStatistics().getEvictionCount() > 0);
+    }
+
+    @Test
+    void changeStreamEventsEvictTheChangedSku() {
+        when(inventoryRepository.findBySku(anyString())).thenReturn(Optional.of(inventory));
+        skuCache.findBySku("SKU001");
+        skuCache.findBySku("SKU002");
+
+        skuCache.apply(event(OperationType.UPDATE, new Document("sku", "SKU001"), new BsonDocument("quantity", new BsonInt32(3))));
+        assertEquals(1, skuCache.getStatistics().getSize());
+
+        skuCache.apply(event(OperationType.DELETE, null, null));
+        assertEquals(0, skuCache.getStatistics().getSize());
+    }
+
+    @Test
+    void skuRenameClearsEverything() {
+        when(inventoryRepository.findBySku(anyString())).thenReturn(Optional.of(inventory));
+        skuCache.findBySku("OLD");
+
+        skuCache.apply(event(OperationType.UPDATE, new Document("sku", "NEW"), new BsonDocument("sku", new BsonString("NEW"))));
+
+        assertEquals(0, skuCache.getStatistics().getSize());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ChangeStreamDocument<Document> event(OperationType type, Document fullDocument, BsonDocument updatedFields) {
+        ChangeStreamDocument<Document> event = mock(ChangeStreamDocument.class);
+        when(event.getOperationType()).thenReturn(type);
+        when(event.getFullDocument()).thenReturn(fullDocument);
+        lenient().when(event.getUpdateDescription())
+                .thenReturn(updatedFields == null ? null : new UpdateDescription(List.of(), updatedFields));
+        return event;
+    }
+}
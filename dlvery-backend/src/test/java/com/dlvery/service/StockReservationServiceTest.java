@@ -0,0 +1,320 @@
+package com.dlvery.service;
+
+import com.dlvery.exception.BadRequestException;
+import com.dlvery.model.Inventory;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks the filters and updates sent to MongoDB, and that concurrent reservations in either mode never hand
+ * out more units than were in stock when each write only applies if its whole filter still matches.
+ */
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceTest {
+    private static final int INITIAL_STOCK = 500;
+    private static final int THREADS = 64;
+    private static final int ATTEMPTS = 400;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private SkuCache skuCache;
+    @Mock
+    private LowStockAlertService lowStockAlerts;
+    @InjectMocks
+    private StockReservationService reservationService;
+
+    @Test
+    void atomicReservationDecrementsOnlyWhenEnoughStockIsLeft() {
+        Inventory updated = item("1", 7, 5L);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Inventory.class)))
+                .thenReturn(updated);
+
+        assertSame(updated, reservationService.reserve("SKU001", 3));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), options.capture(), eq(Inventory.class));
+        assertEquals(new Document("sku", "SKU001").append("quantity", new Document("$gte", 3)), query.getValue().getQueryObject());
+        assertEquals(new Document("$inc", new Document("quantity", -3).append("version", 1)), update.getValue().getUpdateObject());
+        assertTrue(options.getValue().isReturnNew());
+        verify(skuCache).invalidate("SKU001");
+        verify(lowStockAlerts).evaluate(updated);
+    }
+
+    @Test
+    void atomicReservationRejectsInsufficientStock() {
+        when(mongoTemplate.exists(any(Query.class), eq(Inventory.class))).thenReturn(true);
+
+        BadRequestException e = assertThrows(BadRequestException.class, () -> reservationService.reserve("SKU001", 501));
+
+        assertEquals("Insufficient stock for SKU: SKU001", e.getMessage());
+        assertEquals(1, reservationService.getRejections());
+        verifyNoInteractions(skuCache, lowStockAlerts);
+    }
+
+    @Test
+    void atomicReservationRejectsUnknownSku() {
+        BadRequestException e = assertThrows(BadRequestException.class, () -> reservationService.reserve("MISSING", 1));
+
+        assertEquals("Inventory item not found for SKU: MISSING", e.getMessage());
+    }
+
+    @Test
+    void optimisticReservationIsConditionalOnTheReadState() {
+        ReflectionTestUtils.setField(reservationService, "mode", StockReservationService.OPTIMISTIC);
+        when(mongoTemplate.findOne(any(Query.class), eq(Inventory.class))).thenReturn(item("1", 10, 4L));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Inventory.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        Inventory reserved = reservationService.reserve("SKU001", 3);
+
+        assertEquals(7, reserved.getQuantity());
+        assertEquals(5L, reserved.getVersion());
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(Inventory.class));
+        assertEquals(new Document("_id", "1").append("quantity", 10).append("version", 4L), query.getValue().getQueryObject());
+        assertEquals(new Document("$inc", new Document("quantity", -3).append("version", 1)), update.getValue().getUpdateObject());
+    }
+
+    @Test
+    void optimisticReservationRetriesAfterAConflict() {
+        ReflectionTestUtils.setField(reservationService, "mode", StockReservationService.OPTIMISTIC);
+        when(mongoTemplate.findOne(any(Query.class), eq(Inventory.class))).thenReturn(item("1", 10, null), item("1", 8, 1L));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Inventory.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 0L, null), UpdateResult.acknowledged(1, 1L, null));
+
+        assertEquals(5, reservationService.reserve("SKU001", 3).getQuantity());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).updateFirst(query.capture(), any(Update.class), eq(Inventory.class));
+        assertEquals(new Document("_id", "1").append("quantity", 10).append("version", new Document("$exists", false)),
+                query.getAllValues().get(0).getQueryObject());
+        assertEquals(new Document("_id", "1").append("quantity", 8).append("version", 1L),
+                query.getAllValues().get(1).getQueryObject());
+        assertEquals(1, reservationService.getConflicts());
+    }
+
+    @Test
+    void releaseIncrementsStockAndVersion() {
+        Inventory released = item("1", 12, 6L);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Inventory.class)))
+                .thenReturn(released);
+
+        reservationService.release("SKU001", 2);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class), eq(Inventory.class));
+        assertEquals(new Document("sku", "SKU001"), query.getValue().getQueryObject());
+        assertEquals(new Document("$inc", new Document("quantity", 2).append("version", 1)), update.getValue().getUpdateObject());
+        verify(skuCache).invalidate("SKU001");
+        verify(lowStockAlerts).evaluate(released);
+    }
+
+    @Test
+    void concurrentAtomicReservationsNeverOversell() throws Exception {
+        FakeInventoryDocument document = backWith(new FakeInventoryDocument("1", "SKU001", INITIAL_STOCK));
+
+        int reserved = hammer();
+
+        assertTrue(reserved <= INITIAL_STOCK);
+        assertEquals(INITIAL_STOCK - reserved, document.quantity());
+        assertTrue(reservationService.getRejections() > 0);
+    }
+
+    @Test
+    void concurrentOptimisticReservationsNeverOversell() throws Exception {
+        ReflectionTestUtils.setField(reservationService, "mode", StockReservationService.OPTIMISTIC);
+        ReflectionTestUtils.setField(reservationService, "maxRetries", 1000);
+        FakeInventoryDocument document = backWith(new FakeInventoryDocument("1", "SKU001", INITIAL_STOCK));
+
+        int reserved = hammer();
+
+        assertTrue(reserved <= INITIAL_STOCK);
+        assertEquals(INITIAL_STOCK - reserved, document.quantity());
+        assertTrue(reservationService.getConflicts() > 0);
+    }
+
+    @Test
+    void reserveRejectsNonPositiveQuantity() {
+        assertThrows(BadRequestException.class, () -> reservationService.reserve("SKU001", 0));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    private FakeInventoryDocument backWith(FakeInventoryDocument document) {
+        lenient().when(mongoTemplate.exists(any(Query.class), eq(Inventory.class))).thenReturn(true);
+        lenient().when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Inventory.class)))
+                .thenAnswer(invocation -> document.findAndModify(invocation.getArgument(0), invocation.getArgument(1)));
+        lenient().when(mongoTemplate.findOne(any(Query.class), eq(Inventory.class)))
+                .thenAnswer(invocation -> document.find(invocation.getArgument(0)));
+        lenient().when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Inventory.class)))
+                .thenAnswer(invocation -> document.updateFirst(invocation.getArgument(0), invocation.getArgument(1)));
+        return document;
+    }
+
+    /** Runs {@link #ATTEMPTS} concurrent reservations of 1-3 units and returns the units successfully reserved. */
+    private int hammer() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            int quantity = 1 + (i % 3);
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    reservationService.reserve("SKU001", quantity);
+                    reserved.addAndGet(quantity);
+                } catch (BadRequestException e) {
+                    // insufficient stock is the expected outcome once the SKU runs dry
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return reserved.get();
+    }
+
+    private static Inventory item(String id, int quantity, Long version) {
+        return item(id, quantity, version, "SKU001");
+    }
+
+    private static Inventory item(String id, int quantity, Long version, String sku) {
+        Inventory item = new Inventory();
+        item.setId(id);
+        item.setSku(sku);
+        item.setQuantity(quantity);
+        item.setVersion(version);
+        return item;
+    }
+
+    /**
+     * Stands in for one MongoDB document. Reads see a committed state, and a write applies only if its whole
+     * filter matches the state it is applied to, by compare-and-set, so a read-then-write in the service can
+     * lose to a concurrent write exactly as it can against the server. Filter fields the fake does not know
+     * fail the test instead of being ignored.
+     */
+    private static class FakeInventoryDocument {
+        private final AtomicReference<State> state;
+
+        FakeInventoryDocument(String id, String sku, int quantity) {
+            state = new AtomicReference<>(new State(id, sku, quantity, null));
+        }
+
+        int quantity() {
+            return state.get().quantity;
+        }
+
+        Inventory find(Query query) {
+            State current = state.get();
+            return matches(query.getQueryObject(), current) ? current.toInventory() : null;
+        }
+
+        Inventory findAndModify(Query query, Update update) {
+            while (true) {
+                State current = state.get();
+                if (!matches(query.getQueryObject(), current)) {
+                    return null;
+                }
+                State next = current.apply(update);
+                if (state.compareAndSet(current, next)) {
+                    return next.toInventory();
+                }
+            }
+        }
+
+        UpdateResult updateFirst(Query query, Update update) {
+            while (true) {
+                State current = state.get();
+                if (!matches(query.getQueryObject(), current)) {
+                    return UpdateResult.acknowledged(0, 0L, null);
+                }
+                if (state.compareAndSet(current, current.apply(update))) {
+                    return UpdateResult.acknowledged(1, 1L, null);
+                }
+            }
+        }
+
+        private static boolean matches(Document filter, State current) {
+            for (Map.Entry<String, Object> condition : filter.entrySet()) {
+                Object expected = condition.getValue();
+                boolean matches = switch (condition.getKey()) {
+                    case "_id" -> expected.equals(current.id);
+                    case "sku" -> expected.equals(current.sku);
+                    case "quantity" -> expected instanceof Document range
+                            ? current.quantity >= range.getInteger("$gte")
+                            : expected.equals(current.quantity);
+                    case "version" -> expected instanceof Document exists
+                            ? exists.getBoolean("$exists") == (current.version != null)
+                            : expected.equals(current.version);
+                    default -> throw new IllegalArgumentException("Unsupported filter field: " + condition.getKey());
+                };
+                if (!matches) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class State {
+        private final String id;
+        private final String sku;
+        private final int quantity;
+        private final Long version;
+
+        State(String id, String sku, int quantity, Long version) {
+            this.id = id;
+            this.sku = sku;
+            this.quantity = quantity;
+            this.version = version;
+        }
+
+        State apply(Update update) {
+            Document inc = (Document) update.getUpdateObject().get("$inc");
+            long versionInc = inc.getInteger("version");
+            return new State(id, sku, quantity + inc.getInteger("quantity"), (version == null ? 0 : version) + versionInc);
+        }
+
+        Inventory toInventory() {
+            return item(id, quantity, version, sku);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.dlvery.service;
+
+import com.dlvery.model.User;
+import com.dlvery.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserCacheTest {
+    @Mock
+    private UserRepository userRepository;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @InjectMocks
+    private UserCache userCache;
+
+    private final User user = new User("agent1", "hash", "agent1@example.com", "DELIVERY", "a1");
+
+    @Test
+    void repeatedLookupsAreServedFromCacheUntilEvicted() {
+        userCache.init();
+        when(userRepository.findByUsername("agent1")).thenReturn(Optional.of(user));
+
+        User profile = userCache.findByUsername("agent1").orElseThrow();
+        assertNull(profile.getPassword());
+        assertEquals("DELIVERY", profile.getRole());
+        assertEquals("a1", profile.getAgentId());
+        for (int i = 0; i < 2; i++) {
+            assertSame(profile, userCache.findByUsername("agent1").orElseThrow());
+        }
+        verify(userRepository, times(1)).findByUsername("agent1");
+
+        userCache.evict("agent1");
+        userCache.findByUsername("agent1");
+        verify(userRepository, times(2)).findByUsername("agent1");
+        assertEquals(2, userCache.getStatistics().getHitCount());
+    }
+
+    @Test
+    void unknownUsersAreNotCached() {
+        userCache.init();
+        when(userRepository.findByUsername("new")).thenReturn(Optional.empty(), Optional.of(user));
+
+        assertTrue(userCache.findByUsername("new").isEmpty());
+        assertTrue(userCache.findByUsername("new").isPresent());
+    }
+
+    @Test
+    void zeroSizeDisablesCache() {
+        ReflectionTestUtils.setField(userCache, "maxSize", 0L);
+        userCache.init();
+        when(userRepository.findByUsername("agent1")).thenReturn(Optional.of(user));
+
+        userCache.findByUsername("agent1");
+        userCache.findByUsername("agent1");
+
+        verify(userRepository, times(2)).findByUsername("agent1");
+        verifyNoInteractions(meterRegistry);
+    }
+}
@@ -0,0 +1,92 @@
+package com.dlvery.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventBusTest {
+
+    @Test
+    void testPublishReachesOnlySubscribersOfTopic() {
+        EventBus<String> bus = new EventBus<>(Runnable::run, 10);
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+        bus.subscribe("agent1", new Recorder(first));
+        bus.subscribe("agent2", new Recorder(second));
+
+        bus.publish("agent1", "a");
+        bus.publish("agent2", "b");
+        bus.publish("agent3", "c");
+
+        assertEquals(List.of("a"), first);
+        assertEquals(List.of("b"), second);
+        assertEquals(2, bus.getSubscriberCount());
+    }
+
+    @Test
+    void testFullBufferDropsOldestAndReportsOverflow() {
+        Queue<Runnable> pending = new ArrayDeque<>();
+        EventBus<String> bus = new EventBus<>(pending::add, 2);
+        List<String> received = new ArrayList<>();
+        bus.subscribe("agent1", new Recorder(received));
+
+        for (String event : List.of("a", "b", "c", "d")) {
+            bus.publish("agent1", event);
+        }
+        assertEquals(1, pending.size(), "one drain is scheduled per subscriber");
+        pending.poll().run();
+
+        assertEquals(List.of("overflow:2", "c", "d"), received);
+        assertEquals(2, bus.getDropped());
+    }
+
+    @Test
+    void testFailingListenerIsUnsubscribed() {
+        EventBus<String> bus = new EventBus<>(Runnable::run, 10);
+        List<String> closed = new ArrayList<>();
+        EventBus<String>.Subscription subscription = bus.subscribe("agent1", new EventBus.Listener<>() {
+            @Override
+            public void onEvent(String event) throws Exception {
+                throw new java.io.IOException("client gone");
+            }
+
+            @Override
+            public void onOverflow(long dropped) {
+            }
+
+            @Override
+            public void onClose() {
+                closed.add("closed");
+            }
+        });
+
+        bus.publish("agent1", "a");
+
+        assertTrue(subscription.isClosed());
+        assertEquals(List.of("closed"), closed);
+        assertFalse(bus.hasSubscribers("agent1"));
+    }
+
+    private static class Recorder implements EventBus.Listener<String> {
+        private final List<String> received;
+
+        Recorder(List<String> received) {
+            this.received = received;
+        }
+
+        @Override
+        public void onEvent(String event) {
+            received.add(event);
+        }
+
+        @Override
+        public void onOverflow(long dropped) {
+            received.add("overflow:" + dropped);
+        }
+    }
+}
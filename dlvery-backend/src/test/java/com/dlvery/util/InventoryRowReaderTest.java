@@ -0,0 +1,76 @@
+package com.dlvery.util;
+
+import com.dlvery.model.Inventory;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryRowReaderTest {
+
+    @Test
+    void ndjsonRowsMapLikeCsvRows() throws Exception {
+        String ndjson = "{\"SKU\":\"SKU001\",\"name\":\" Laptop \",\"category\":\"Electronics\",\"damaged\":true,"
+                + "\"perishable\":false,\"expiryDate\":null,\"quantity\":100,\"lowStockThreshold\":\"10\",\"id\":\"x\",\"tags\":[1]}\n"
+                + "\n"
+                + "{\"sku\":\"SKU002\",\"quantity\":1.5,\"lowStockThreshold\":1}\n"
+                + "{\"sku\":\"SKU003\"\n"
+                + "[1,2]\n"
+                + "{\"sku\":\"SKU004\",\"quantity\":1,\"lowStockThreshold\":1} {}\n";
+
+        try (InventoryRowReader rows = InventoryRowReader.ndjson(new StringReader(ndjson))) {
+            assertTrue(rows.next());
+            assertEquals(1, rows.getLine());
+            Inventory item = rows.toInventory();
+            assertEquals("SKU001", item.getSku());
+            assertEquals("Laptop", item.getName());
+            assertTrue(item.isDamaged());
+            assertNull(item.getExpiryDate());
+            assertEquals(100, item.getQuantity());
+            assertEquals(10, item.getLowStockThreshold());
+
+            assertTrue(rows.next());
+            assertEquals(3, rows.getLine());
+            assertEquals("SKU002", rows.getSku());
+            assertEquals("Invalid quantity: '1.5'", assertThrows(IllegalArgumentException.class, rows::toInventory).getMessage());
+
+            assertTrue(rows.next());
+            assertEquals(4, rows.getLine());
+            assertNull(rows.getSku());
+            assertTrue(assertThrows(IllegalArgumentException.class, rows::toInventory).getMessage().startsWith("Invalid JSON"));
+
+            assertTrue(rows.next());
+            assertEquals("Line is not a JSON object", assertThrows(IllegalArgumentException.class, rows::toInventory).getMessage());
+
+            assertTrue(rows.next());
+            assertEquals(6, rows.getLine());
+            assertThrows(IllegalArgumentException.class, rows::toInventory);
+
+            assertFalse(rows.next());
+        }
+    }
+
+    @Test
+    void csvRowsKeepCommonsLineNumbers() throws Exception {
+        String csv = "sku,name,category,damaged,perishable,expiryDate,quantity,lowStockThreshold\n"
+                + "SKU001,Laptop,Electronics,false,false,N/A,100,10\n"
+                + "SKU002,Mouse,Electronics,false,false,N/A,lots,5\n";
+
+        try (InventoryRowReader rows = InventoryRowReader.csv(new StringReader(csv))) {
+            assertTrue(rows.next());
+            assertEquals(2, rows.getLine());
+            assertEquals(100, rows.toInventory().getQuantity());
+            assertTrue(rows.next());
+            assertEquals(3, rows.getLine());
+            assertEquals("SKU002", rows.getSku());
+            assertThrows(IllegalArgumentException.class, rows::toInventory);
+            assertFalse(rows.next());
+        }
+    }
+
+    @Test
+    void csvRejectsMissingColumns() {
+        assertThrows(IllegalArgumentException.class, () -> InventoryRowReader.csv(new StringReader("sku,name\nSKU001,Laptop\n")));
+    }
+}
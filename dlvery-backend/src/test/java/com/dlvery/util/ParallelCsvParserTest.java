@@ -0,0 +1,134 @@
+package com.dlvery.util;
+
+import com.dlvery.model.Inventory;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelCsvParserTest {
+    private static final String HEADER = "sku,name,category,damaged,perishable,expiryDate,quantity,lowStockThreshold\n";
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void matchesCommonsCsvAcrossSmallChunks() throws Exception {
+        StringBuilder csv = new StringBuilder("SKU,Name,Category,Damaged,Perishable,ExpiryDate,Quantity,LowStockThreshold\r\n");
+        for (int i = 0; i < 500; i++) {
+            switch (i % 5) {
+                case 0 -> csv.append("SKU").append(i).append(",\"Desk, oak\",Furniture,false,false,N/A,").append(i).append(",5\r\n");
+                case 1 -> csv.append("SKU").append(i).append(",\"Monitor 27\"\" IPS\",Electronics,true,false,N/A,").append(i).append(",5\n");
+                case 2 -> csv.append("SKU").append(i).append(",\"Two\nlines\",Misc,false,true,2030-01-01,").append(i).append(",5\n\n");
+                case 3 -> csv.append("SKU").append(i).append(",Cable 5\" long , Electronics ,false,false,N/A,").append(i).append(",5\n");
+                default -> csv.append("SKU").append(i).append(",Bad,Misc,false,false,N/A,lots,5\n");
+            }
+        }
+        Path file = write(csv.toString());
+
+        List<ParallelCsvParser.Row<Inventory>> rows = parseAll(file, 64);
+        List<ParallelCsvParser.Row<Inventory>> expected = commons(csv.toString());
+
+        assertEquals(expected.size(), rows.size());
+        rows.sort(Comparator.comparingLong(ParallelCsvParser.Row::getLine));
+        for (int i = 0; i < rows.size(); i++) {
+            ParallelCsvParser.Row<Inventory> row = rows.get(i);
+            ParallelCsvParser.Row<Inventory> want = expected.get(i);
+            assertEquals(want.getError(), row.getError());
+            if (want.getValue() != null) {
+                assertEquals(want.getValue().getSku(), row.getValue().getSku());
+                assertEquals(want.getValue().getName(), row.getValue().getName());
+                assertEquals(want.getValue().getCategory(), row.getValue().getCategory());
+                assertEquals(want.getValue().isDamaged(), row.getValue().isDamaged());
+                assertEquals(want.getValue().getQuantity(), row.getValue().getQuantity());
+            }
+        }
+        // Physical line of the record itself: SKU2 spans lines 4-5 and is followed by an empty line.
+        assertEquals("SKU3", rows.get(3).getValue().getSku());
+        assertEquals(7, rows.get(3).getLine());
+    }
+
+    @Test
+    void reportsUnterminatedQuoteAsTruncated() throws Exception {
+        Path file = write(HEADER + "SKU1,Desk,Furniture,false,false,N/A,1,5\nSKU2,\"Broken,Furniture,false,false,N/A,1,5\nSKU3,Chair,Furniture,false,false,N/A,1,5\n");
+        List<ParallelCsvParser.Chunk<Inventory>> chunks = new ArrayList<>();
+
+        new ParallelCsvParser(pool, 1 << 20).parse(file, CsvUtil::inventoryRowMapper, chunks::add);
+
+        assertEquals(1, chunks.size());
+        assertTrue(chunks.get(0).isTruncated());
+        assertEquals(2, chunks.get(0).getRows().size());
+        assertEquals(3, chunks.get(0).getRows().get(1).getLine());
+        assertNotNull(chunks.get(0).getRows().get(1).getError());
+    }
+
+    @Test
+    void rejectsMissingColumnsBeforeParsingRows() throws Exception {
+        Path file = write("sku,name\nSKU1,Desk\n");
+        List<ParallelCsvParser.Chunk<Inventory>> chunks = new ArrayList<>();
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new ParallelCsvParser(pool, 16).parse(file, CsvUtil::inventoryRowMapper, chunks::add));
+
+        assertTrue(e.getMessage().contains("quantity"), e.getMessage());
+        assertTrue(chunks.isEmpty());
+    }
+
+    @Test
+    void shortRowsAreRowErrors() throws Exception {
+        Path file = write(HEADER + "SKU1,Desk\n");
+
+        List<ParallelCsvParser.Row<Inventory>> rows = parseAll(file, 16);
+
+        assertEquals(1, rows.size());
+        assertEquals(2, rows.get(0).getLine());
+        assertNotNull(rows.get(0).getError());
+    }
+
+    private List<ParallelCsvParser.Row<Inventory>> parseAll(Path file, int chunkBytes) throws Exception {
+        List<ParallelCsvParser.Row<Inventory>> rows = new ArrayList<>();
+        new ParallelCsvParser(pool, chunkBytes).parse(file, CsvUtil::inventoryRowMapper, chunk -> rows.addAll(chunk.getRows()));
+        return rows;
+    }
+
+    private static List<ParallelCsvParser.Row<Inventory>> commons(String csv) throws Exception {
+        List<ParallelCsvParser.Row<Inventory>> rows = new ArrayList<>();
+        try (CSVParser parser = CsvUtil.openInventoryParser(new StringReader(csv))) {
+            for (var iterator = parser.iterator(); ; ) {
+                long line = parser.getCurrentLineNumber() + 1;
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                CSVRecord record = iterator.next();
+                try {
+                    rows.add(new ParallelCsvParser.Row<>(line, CsvUtil.toInventory(record), null));
+                } catch (IllegalArgumentException e) {
+                    rows.add(new ParallelCsvParser.Row<>(line, null, e.getMessage()));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private Path write(String content) throws Exception {
+        return Files.writeString(tempDir.resolve("inventory.csv"), content, StandardCharsets.UTF_8);
+    }
+}
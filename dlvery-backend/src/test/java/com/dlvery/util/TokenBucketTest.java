@@ -0,0 +1,22 @@
+package com.dlvery.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+    @Test
+    void refillsContinuouslyUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(1, 2, 0);
+
+        assertTrue(bucket.tryConsume(0));
+        assertFalse(bucket.tryConsume(TimeUnit.MILLISECONDS.toNanos(100)));
+        assertEquals(1, bucket.secondsUntilNextToken(TimeUnit.MILLISECONDS.toNanos(100)));
+        assertTrue(bucket.tryConsume(TimeUnit.MILLISECONDS.toNanos(500)));
+        // A long idle period does not bank more than the capacity.
+        assertTrue(bucket.tryConsume(TimeUnit.SECONDS.toNanos(60)));
+        assertFalse(bucket.tryConsume(TimeUnit.SECONDS.toNanos(60)));
+    }
+}
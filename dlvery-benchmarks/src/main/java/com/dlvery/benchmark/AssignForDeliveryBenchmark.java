@@ -0,0 +1,132 @@
+package com.dlvery.benchmark;
+
+import com.dlvery.model.Delivery;
+import com.dlvery.repository.DeliveryRepository;
+import com.dlvery.service.DeliveryEventService;
+import com.dlvery.service.DeliveryStatsService;
+import com.dlvery.service.InventoryServiceImpl;
+import com.dlvery.service.LowStockAlertService;
+import com.dlvery.service.SkuCache;
+import com.dlvery.service.StockReservationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code InventoryServiceImpl.assignForDelivery} end to end: the conditional stock decrement, SKU
+ * cache invalidation, low-stock evaluation, delivery save, rollup upsert and event publication. MongoDB is replaced by
+ * {@link InMemoryMongoTemplate} and a delivery repository that only assigns ids, so the result is the Java-side
+ * cost per assignment. Fewer {@code skus} means more threads contend on the same items; add
+ * {@code -t 8} to measure under concurrency.
+ * Run with {@code java -jar dlvery-benchmarks/target/benchmarks.jar AssignForDeliveryBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AssignForDeliveryBenchmark {
+    @Param({"1", "1000"})
+    public int skus;
+
+    private InventoryServiceImpl inventoryService;
+    private DeliveryEventService deliveryEventService;
+    private LowStockAlertService lowStockAlerts;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        InMemoryMongoTemplate mongoTemplate = new InMemoryMongoTemplate();
+        for (int i = 0; i < skus; i++) {
+            mongoTemplate.putInventory("SKU" + i, Integer.MAX_VALUE);
+        }
+
+        SkuCache skuCache = new SkuCache();
+        ReflectionTestUtils.setField(skuCache, "meterRegistry", meterRegistry);
+        skuCache.init();
+
+        lowStockAlerts = new LowStockAlertService();
+        ReflectionTestUtils.setField(lowStockAlerts, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(lowStockAlerts, "meterRegistry", meterRegistry);
+        lowStockAlerts.start();
+
+        StockReservationService reservations = new StockReservationService();
+        ReflectionTestUtils.setField(reservations, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(reservations, "skuCache", skuCache);
+        ReflectionTestUtils.setField(reservations, "lowStockAlerts", lowStockAlerts);
+
+        DeliveryStatsService stats = new DeliveryStatsService();
+        ReflectionTestUtils.setField(stats, "mongoTemplate", mongoTemplate);
+
+        DeliveryRepository deliveries = deliveryRepository();
+
+        deliveryEventService = new DeliveryEventService();
+        ReflectionTestUtils.setField(deliveryEventService, "deliveryRepository", deliveries);
+        ReflectionTestUtils.setField(deliveryEventService, "meterRegistry", meterRegistry);
+        deliveryEventService.start();
+
+        inventoryService = new InventoryServiceImpl();
+        ReflectionTestUtils.setField(inventoryService, "stockReservationService", reservations);
+        ReflectionTestUtils.setField(inventoryService, "deliveryRepository", deliveries);
+        ReflectionTestUtils.setField(inventoryService, "deliveryStatsService", stats);
+        ReflectionTestUtils.setField(inventoryService, "deliveryEventService", deliveryEventService);
+        ReflectionTestUtils.setField(inventoryService, "skuCache", skuCache);
+        ReflectionTestUtils.setField(inventoryService, "lowStockAlerts", lowStockAlerts);
+    }
+
+    @TearDown
+    public void tearDown() {
+        deliveryEventService.stop();
+        lowStockAlerts.stop();
+    }
+
+    /**
+     * A plain proxy rather than a Mockito mock, which would record every call for the whole run. Saved
+     * deliveries are given an id and not kept, so the heap stays flat however long the benchmark runs.
+     */
+    private static DeliveryRepository deliveryRepository() {
+        return (DeliveryRepository) Proxy.newProxyInstance(DeliveryRepository.class.getClassLoader(),
+                new Class<?>[]{DeliveryRepository.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "save":
+                            Delivery delivery = (Delivery) args[0];
+                            delivery.setId(new ObjectId().toHexString());
+                            return delivery;
+                        case "findByAgentId":
+                            return List.of();
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "InMemoryDeliveryRepository";
+                        default:
+                            throw new UnsupportedOperationException("Not on the benchmarked path: " + method.getName());
+                    }
+                });
+    }
+
+    @Benchmark
+    public void assignForDelivery() {
+        String sku = "SKU" + ThreadLocalRandom.current().nextInt(skus);
+        inventoryService.assignForDelivery(sku, 1, "agent1", "Customer", "1 Main Street");
+    }
+}
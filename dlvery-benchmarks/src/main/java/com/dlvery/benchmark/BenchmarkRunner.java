@@ -0,0 +1,45 @@
+package com.dlvery.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Accepts the usual JMH command line (benchmark regexps,
+ * {@code -f}, {@code -wi}, {@code -prof gc}, ...) and, unless {@code -rf}/{@code -rff} say otherwise,
+ * writes JSON results to {@code jmh-results/dlvery-<version>-<timestamp>.json} so runs of two
+ * versions can be diffed, e.g. with jmh.morethan.io.
+ */
+public class BenchmarkRunner {
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListProfilers()
+                || commandLine.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            File directory = new File("jmh-results");
+            directory.mkdirs();
+            options.result(new File(directory, "dlvery-" + version() + "-" + LocalDateTime.now().format(TIMESTAMP) + ".json").getPath());
+        }
+        new Runner(options.build()).run();
+    }
+
+    private static String version() {
+        String version = BenchmarkRunner.class.getPackage().getImplementationVersion();
+        return version != null ? version : "dev";
+    }
+}
@@ -0,0 +1,106 @@
+package com.dlvery.benchmark;
+
+import com.dlvery.dto.ImportResult;
+import com.dlvery.model.Inventory;
+import com.dlvery.service.InventoryBulkImporter;
+import com.dlvery.service.InventoryServiceImpl;
+import com.dlvery.service.LowStockAlertService;
+import com.dlvery.service.SkuCache;
+import com.dlvery.util.CsvUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inventory CSV ingestion: {@link CsvUtil#parseInventoryCsv} (parse only, whole file in memory) and
+ * {@code InventoryServiceImpl.uploadInventoryFile} (streaming parse, batching and bulk upserts) with
+ * MongoDB replaced by {@link InMemoryMongoTemplate}. The store is emptied before every upload so each
+ * one inserts all rows. Divide {@code rows} by the reported time for rows per second.
+ * Run with {@code java -jar dlvery-benchmarks/target/benchmarks.jar CsvImportBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CsvImportBenchmark {
+    @Param({"1000", "50000"})
+    public int rows;
+
+    private MockMultipartFile withoutHeader;
+    private MockMultipartFile withHeader;
+    private InMemoryMongoTemplate mongoTemplate;
+    private InventoryServiceImpl inventoryService;
+    private LowStockAlertService lowStockAlerts;
+
+    @Setup
+    public void setUp() {
+        StringBuilder body = new StringBuilder(rows * 64);
+        for (int i = 0; i < rows; i++) {
+            body.append("SKU").append(i).append(",Item ").append(i).append(",Category").append(i % 20)
+                    .append(',').append(i % 50 == 0).append(',').append(i % 3 == 0).append(",2030-01-01,")
+                    .append(i % 500).append(",10\n");
+        }
+        String header = String.join(",", CsvUtil.INVENTORY_HEADERS) + "\n";
+        withoutHeader = new MockMultipartFile("file", "inventory.csv", "text/csv", body.toString().getBytes(StandardCharsets.UTF_8));
+        withHeader = new MockMultipartFile("file", "inventory.csv", "text/csv", (header + body).getBytes(StandardCharsets.UTF_8));
+
+        mongoTemplate = new InMemoryMongoTemplate();
+        SkuCache skuCache = new SkuCache();
+        ReflectionTestUtils.setField(skuCache, "meterRegistry", new SimpleMeterRegistry());
+        skuCache.init();
+        lowStockAlerts = new LowStockAlertService();
+        ReflectionTestUtils.setField(lowStockAlerts, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(lowStockAlerts, "meterRegistry", new SimpleMeterRegistry());
+        lowStockAlerts.start();
+        InventoryBulkImporter importer = new InventoryBulkImporter();
+        ReflectionTestUtils.setField(importer, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(importer, "skuCache", skuCache);
+        ReflectionTestUtils.setField(importer, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(importer, "lowStockAlerts", lowStockAlerts);
+        inventoryService = new InventoryServiceImpl();
+        ReflectionTestUtils.setField(inventoryService, "bulkImporter", importer);
+    }
+
+    @Setup(Level.Invocation)
+    public void emptyStore() {
+        mongoTemplate.clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        lowStockAlerts.stop();
+    }
+
+    @Benchmark
+    public List<Inventory> parseInventoryCsv() throws Exception {
+        return CsvUtil.parseInventoryCsv(withoutHeader);
+    }
+
+    @Benchmark
+    public ImportResult uploadInventoryFile() {
+        ImportResult result = inventoryService.uploadInventoryFile(withHeader);
+        if (result.getInserted() != rows) {
+            throw new IllegalStateException("Expected " + rows + " inserts, got " + result.getInserted());
+        }
+        return result;
+    }
+}
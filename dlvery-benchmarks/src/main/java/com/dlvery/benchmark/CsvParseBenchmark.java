@@ -0,0 +1,105 @@
+package com.dlvery.benchmark;
+
+import com.dlvery.model.Inventory;
+import com.dlvery.util.CsvUtil;
+import com.dlvery.util.ParallelCsvParser;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Parse and map cost of a spooled inventory CSV, without any writes: commons-csv on one thread (the
+ * {@code importCsv} path) against {@link ParallelCsvParser} with {@code threads} workers (the
+ * {@code importFile} path). {@code threads} only affects {@code parallel}. Divide {@code rows} by the
+ * reported time for rows per second, and that by {@code threads} for rows per core.
+ * Run with {@code java -jar dlvery-benchmarks/target/benchmarks.jar CsvParseBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CsvParseBenchmark {
+    @Param({"200000"})
+    public int rows;
+
+    @Param({"1", "2", "4"})
+    public int threads;
+
+    @Param({"1048576"})
+    public int chunkBytes;
+
+    private Path file;
+    private ForkJoinPool pool;
+    private ParallelCsvParser parser;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("inventory-bench-", ".csv");
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(String.join(",", CsvUtil.INVENTORY_HEADERS) + "\n");
+            for (int i = 0; i < rows; i++) {
+                String name = i % 10 == 0 ? "\"Desk, oak " + i + "\"" : "Item " + i;
+                writer.write("SKU" + i + "," + name + ",Category" + (i % 20) + "," + (i % 50 == 0) + ","
+                        + (i % 3 == 0) + ",2030-01-01," + (i % 500) + ",10\n");
+            }
+        }
+        pool = new ForkJoinPool(threads);
+        parser = new ParallelCsvParser(pool, chunkBytes);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pool.shutdownNow();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long commonsCsv() throws IOException {
+        long parsed = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             CSVParser csv = CsvUtil.openInventoryParser(reader)) {
+            for (CSVRecord record : csv) {
+                Inventory item = CsvUtil.toInventory(record);
+                parsed += item.getQuantity() >= 0 ? 1 : 0;
+            }
+        }
+        return check(parsed);
+    }
+
+    @Benchmark
+    public long parallel() throws IOException {
+        LongAdder parsed = new LongAdder();
+        parser.parse(file, CsvUtil::inventoryRowMapper, chunk -> parsed.add(chunk.getRows().size()));
+        return check(parsed.sum());
+    }
+
+    private long check(long parsed) {
+        if (parsed != rows) {
+            throw new IllegalStateException("Expected " + rows + " rows, parsed " + parsed);
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,179 @@
+package com.dlvery.benchmark;
+
+import com.dlvery.model.Inventory;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory stand-in for the handful of {@link MongoTemplate} operations on the benchmarked paths:
+ * the conditional stock decrement ({@code findAndModify} with {@code quantity >= n}), stock release,
+ * rollup upserts and bulk inventory upserts. Inventory lives in a map keyed by SKU and is updated
+ * atomically per key, so the Java side of each path runs for real while the network round trip is
+ * left out. Anything else falls through to the real template and fails for lack of a database.
+ */
+public class InMemoryMongoTemplate extends MongoTemplate {
+    private final Map<String, Inventory> inventory = new ConcurrentHashMap<>();
+    private final AtomicLong writes = new AtomicLong();
+
+    public InMemoryMongoTemplate() {
+        super(databaseFactory());
+    }
+
+    private static MongoDatabaseFactory databaseFactory() {
+        MongoDatabaseFactory factory = Mockito.mock(MongoDatabaseFactory.class);
+        Mockito.when(factory.getExceptionTranslator()).thenReturn(new MongoExceptionTranslator());
+        return factory;
+    }
+
+    public void putInventory(String sku, int quantity) {
+        Inventory item = new Inventory();
+        item.setId(sku);
+        item.setSku(sku);
+        item.setName(sku);
+        item.setQuantity(quantity);
+        item.setVersion(0L);
+        inventory.put(sku, item);
+    }
+
+    public int inventorySize() {
+        return inventory.size();
+    }
+
+    public void clear() {
+        inventory.clear();
+    }
+
+    public long getWrites() {
+        return writes.get();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T findAndModify(Query query, UpdateDefinition update, FindAndModifyOptions options, Class<T> entityClass) {
+        Document filter = query.getQueryObject();
+        String sku = filter.getString("sku");
+        Object condition = filter.get("quantity");
+        int minimum = condition instanceof Document ? ((Document) condition).getInteger("$gte", 0) : 0;
+        int delta = increment(update, "quantity");
+        Inventory[] result = new Inventory[1];
+        inventory.computeIfPresent(sku, (key, current) -> {
+            if (current.getQuantity() < minimum) {
+                return current;
+            }
+            Inventory next = copy(current);
+            next.setQuantity(current.getQuantity() + delta);
+            next.setVersion(current.getVersion() == null ? 1L : current.getVersion() + 1);
+            result[0] = next;
+            return next;
+        });
+        writes.incrementAndGet();
+        return (T) result[0];
+    }
+
+    @Override
+    public boolean exists(Query query, Class<?> entityClass) {
+        return inventory.containsKey(query.getQueryObject().getString("sku"));
+    }
+
+    @Override
+    public UpdateResult updateFirst(Query query, UpdateDefinition update, Class<?> entityClass) {
+        int delta = increment(update, "quantity");
+        Inventory updated = inventory.computeIfPresent(query.getQueryObject().getString("sku"), (key, current) -> {
+            Inventory next = copy(current);
+            next.setQuantity(current.getQuantity() + delta);
+            return next;
+        });
+        writes.incrementAndGet();
+        return UpdateResult.acknowledged(updated == null ? 0 : 1, updated == null ? 0L : 1L, null);
+    }
+
+    @Override
+    public UpdateResult upsert(Query query, UpdateDefinition update, Class<?> entityClass) {
+        writes.incrementAndGet();
+        return UpdateResult.acknowledged(1, 1L, null);
+    }
+
+    @Override
+    public BulkOperations bulkOps(BulkOperations.BulkMode mode, Class<?> entityClass) {
+        // A plain proxy rather than a Mockito mock: Mockito records a stack trace per call, which would dominate.
+        List<Object[]> upserts = new ArrayList<>();
+        int[] inserts = new int[1];
+        return (BulkOperations) Proxy.newProxyInstance(BulkOperations.class.getClassLoader(),
+                new Class<?>[]{BulkOperations.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "upsert":
+                            upserts.add(args);
+                            return proxy;
+                        case "insert":
+                            inserts[0] += args[0] instanceof List ? ((List<?>) args[0]).size() : 1;
+                            return proxy;
+                        case "execute":
+                            return execute(entityClass, upserts, inserts[0]);
+                        default:
+                            return proxy;
+                    }
+                });
+    }
+
+    private BulkWriteResult execute(Class<?> entityClass, List<Object[]> upserts, int inserted) {
+        writes.addAndGet(upserts.size() + inserted);
+        List<BulkWriteUpsert> created = new ArrayList<>();
+        int matched = 0;
+        for (int i = 0; i < upserts.size(); i++) {
+            if (entityClass != Inventory.class) {
+                created.add(new BulkWriteUpsert(i, new BsonString(String.valueOf(i))));
+                continue;
+            }
+            String sku = ((Query) upserts.get(i)[0]).getQueryObject().getString("sku");
+            Document onInsert = (Document) ((UpdateDefinition) upserts.get(i)[1]).getUpdateObject().get("$setOnInsert");
+            Inventory item = new Inventory();
+            item.setSku(sku);
+            item.setQuantity(onInsert == null ? 0 : onInsert.getInteger("quantity", 0));
+            if (inventory.putIfAbsent(sku, item) == null) {
+                created.add(new BulkWriteUpsert(i, new BsonString(sku)));
+            } else {
+                matched++;
+            }
+        }
+        return BulkWriteResult.acknowledged(inserted, matched, 0, matched, created, List.of());
+    }
+
+    private static int increment(UpdateDefinition update, String field) {
+        Object inc = update.getUpdateObject().get("$inc");
+        if (inc instanceof Document) {
+            Object value = ((Document) inc).get(field);
+            return value instanceof Number ? ((Number) value).intValue() : 0;
+        }
+        return 0;
+    }
+
+    private static Inventory copy(Inventory source) {
+        Inventory copy = new Inventory();
+        copy.setId(source.getId());
+        copy.setSku(source.getSku());
+        copy.setName(source.getName());
+        copy.setCategory(source.getCategory());
+        copy.setQuantity(source.getQuantity());
+        copy.setLowStockThreshold(source.getLowStockThreshold());
+        copy.setVersion(source.getVersion());
+        return copy;
+    }
+}
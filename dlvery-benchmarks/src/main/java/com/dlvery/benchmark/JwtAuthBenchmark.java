@@ -0,0 +1,88 @@
+package com.dlvery.benchmark;
+
+import com.dlvery.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT authentication cost: the old filter path (three verifications, each rebuilding the
+ * key and parser) against the single-pass claims API with and without the verified-claims cache.
+ * Token generation is measured alongside for the login path.
+ * Run from the IDE or with {@code java -jar dlvery-benchmarks/target/benchmarks.jar JwtAuthBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtAuthBenchmark {
+    private static final String SECRET = "qwertyuiopasdfghjklzxcvbnm-1234567890";
+
+    private JwtUtil cached;
+    private JwtUtil uncached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cached = jwtUtil(10000);
+        uncached = jwtUtil(0);
+        token = cached.generateToken("agent1", "DELIVERY");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cached.generateToken("agent1", "DELIVERY");
+    }
+
+    @Benchmark
+    public void legacyThreeParses(Blackhole blackhole) {
+        for (int i = 0; i < 3; i++) {
+            blackhole.consume(Jwts.parser()
+                    .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload());
+        }
+    }
+
+    @Benchmark
+    public Claims singlePassUncached() {
+        return uncached.parseClaims(token);
+    }
+
+    @Benchmark
+    public Claims singlePassCached() {
+        return cached.parseClaims(token);
+    }
+
+    static JwtUtil jwtUtil(long cacheSize) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheMaxSize", cacheSize);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtAuthBenchmark.class.getSimpleName()).build()).run();
+    }
+}
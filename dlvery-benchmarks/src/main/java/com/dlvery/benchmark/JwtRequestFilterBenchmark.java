@@ -0,0 +1,83 @@
+package com.dlvery.benchmark;
+
+import com.dlvery.security.JwtRequestFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of {@link JwtRequestFilter}: an authenticated API call (claims parsed, or served
+ * from the verified-claims cache when {@code claimsCacheSize > 0}), a public endpoint that skips
+ * verification, and a request carrying an invalid token. Each invocation uses a fresh mock request
+ * and clears the security context afterwards, as the servlet container would.
+ * Run with {@code java -jar dlvery-benchmarks/target/benchmarks.jar JwtRequestFilterBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtRequestFilterBenchmark {
+    private static final FilterChain CHAIN = (request, response) -> { };
+
+    @Param({"0", "10000"})
+    public long claimsCacheSize;
+
+    private JwtRequestFilter filter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        filter = new JwtRequestFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", JwtAuthBenchmark.jwtUtil(claimsCacheSize));
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+        filter.initMetrics();
+        token = JwtAuthBenchmark.jwtUtil(0).generateToken("agent1", "DELIVERY");
+    }
+
+    @Benchmark
+    public Authentication authenticatedRequest() throws Exception {
+        return filter("/api/delivery/agent", "Bearer " + token);
+    }
+
+    @Benchmark
+    public Authentication publicEndpoint() throws Exception {
+        return filter("/api/health", null);
+    }
+
+    @Benchmark
+    public Authentication invalidToken() throws Exception {
+        return filter("/api/delivery/agent", "Bearer " + token.substring(0, token.length() - 4) + "AAAA");
+    }
+
+    private Authentication filter(String uri, String authorization) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
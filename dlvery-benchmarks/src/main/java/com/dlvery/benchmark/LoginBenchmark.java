@@ -0,0 +1,117 @@
+package com.dlvery.benchmark;
+
+import com.dlvery.dto.UserDTO;
+import com.dlvery.model.User;
+import com.dlvery.repository.UserRepository;
+import com.dlvery.security.JwtUtil;
+import com.dlvery.service.AuthService;
+import com.dlvery.service.CustomUserDetailsService;
+import com.dlvery.service.UserCache;
+import com.dlvery.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Login throughput through {@link AuthService} with and without the user cache. The repository is a
+ * stub that parks for {@code repositoryLatencyMicros} per lookup to stand in for a MongoDB round trip;
+ * a login does two lookups: authentication always reads the repository, and the profile lookup for the
+ * response is served from the cache once warm.
+ * BCrypt verification still runs on every login and dominates at the default cost of 10.
+ * Run with {@code java -jar dlvery-benchmarks/target/benchmarks.jar LoginBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class LoginBenchmark {
+    @Param({"4", "10"})
+    public int bcryptCost;
+
+    @Param({"500"})
+    public long repositoryLatencyMicros;
+
+    private AuthService cached;
+    private AuthService uncached;
+    private UserDTO credentials;
+
+    @Setup
+    public void setUp() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(bcryptCost);
+        User user = new User("agent1", encoder.encode("secret"), "agent1@example.com", "DELIVERY", "a1");
+        user.setId("u1");
+        UserRepository repository = Mockito.mock(UserRepository.class, Mockito.withSettings().stubOnly());
+        Mockito.when(repository.findByUsername("agent1")).thenAnswer(invocation -> {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(repositoryLatencyMicros));
+            return Optional.of(user);
+        });
+        cached = authService(repository, encoder, 10000);
+        uncached = authService(repository, encoder, 0);
+        credentials = new UserDTO();
+        credentials.setUsername("agent1");
+        credentials.setPassword("secret");
+    }
+
+    @Benchmark
+    public AuthService.AuthResponse loginCached() {
+        return cached.login(credentials);
+    }
+
+    @Benchmark
+    public AuthService.AuthResponse loginUncached() {
+        return uncached.login(credentials);
+    }
+
+    private static AuthService authService(UserRepository repository, BCryptPasswordEncoder encoder, long cacheSize) {
+        UserCache userCache = new UserCache();
+        ReflectionTestUtils.setField(userCache, "userRepository", repository);
+        ReflectionTestUtils.setField(userCache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(userCache, "maxSize", cacheSize);
+        userCache.init();
+
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService();
+        ReflectionTestUtils.setField(userDetailsService, "userCache", userCache);
+        ReflectionTestUtils.setField(userDetailsService, "userRepository", repository);
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(userDetailsService);
+        provider.setPasswordEncoder(encoder);
+
+        UserService userService = new UserService();
+        ReflectionTestUtils.setField(userService, "userRepository", repository);
+        ReflectionTestUtils.setField(userService, "passwordEncoder", encoder);
+        ReflectionTestUtils.setField(userService, "userCache", userCache);
+
+        AuthService authService = new AuthService();
+        ReflectionTestUtils.setField(authService, "authenticationManager", new ProviderManager(provider));
+        ReflectionTestUtils.setField(authService, "userService", userService);
+        ReflectionTestUtils.setField(authService, "jwtUtil", JwtAuthBenchmark.jwtUtil(0));
+        return authService;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LoginBenchmark.class.getSimpleName()).build()).run();
+    }
+}
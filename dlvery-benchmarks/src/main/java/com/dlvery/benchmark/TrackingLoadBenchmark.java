@@ -0,0 +1,105 @@
+package com.dlvery.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load test for the tracking reads against a running instance: {@code connections}
+ * requests are kept in flight for {@code seconds}, first against the blocking MVC endpoint
+ * {@code /api/inventory/track/sku/{sku}}, then against the reactive one
+ * {@code /api/inventory/track/reactive/sku/{sku}}. Reports throughput, error count and latency percentiles.
+ * <p>
+ * Run with {@code java -cp dlvery-benchmarks/target/benchmarks.jar com.dlvery.benchmark.TrackingLoadBenchmark <baseUrl> <jwt> <sku> [connections] [seconds]},
+ * e.g. {@code http://localhost:8080 eyJ... SKU001 5000 30}. The OS open-file limit must allow the
+ * connection count on both sides; Tomcat accepts up to {@code server.tomcat.max-connections} (8192 by default).
+ */
+public class TrackingLoadBenchmark {
+    private static final int MAX_LATENCY_MS = 60_000;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("usage: TrackingLoadBenchmark <baseUrl> <jwt> <sku> [connections] [seconds]");
+            System.exit(1);
+        }
+        String baseUrl = args[0];
+        String token = args[1];
+        String sku = args[2];
+        int connections = args.length > 3 ? Integer.parseInt(args[3]) : 5000;
+        int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 30;
+
+        System.out.printf("connections=%d seconds=%d%n", connections, seconds);
+        System.out.printf("%-10s %10s %8s %8s %8s %8s%n", "endpoint", "req/s", "errors", "p50ms", "p99ms", "maxms");
+        run("blocking", URI.create(baseUrl + "/api/inventory/track/sku/" + sku), token, connections, seconds);
+        run("reactive", URI.create(baseUrl + "/api/inventory/track/reactive/sku/" + sku), token, connections, seconds);
+    }
+
+    private static void run(String name, URI uri, String token, int connections, int seconds) throws InterruptedException {
+        ExecutorService callbacks = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(callbacks)
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+
+        Semaphore inFlight = new Semaphore(connections);
+        LongAdder completed = new LongAdder();
+        LongAdder errors = new LongAdder();
+        AtomicLongArray histogram = new AtomicLongArray(MAX_LATENCY_MS + 1);
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+        while (System.nanoTime() < deadline) {
+            if (!inFlight.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                continue;
+            }
+            long sent = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+                if (failure != null || response.statusCode() != 200) {
+                    errors.increment();
+                } else {
+                    completed.increment();
+                    int millis = (int) Math.min(MAX_LATENCY_MS, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sent));
+                    histogram.incrementAndGet(millis);
+                }
+                inFlight.release();
+            });
+        }
+        inFlight.acquire(connections);
+        double elapsed = (System.nanoTime() - start) / 1_000_000_000d;
+        callbacks.shutdown();
+
+        long[] counts = new long[histogram.length()];
+        Arrays.setAll(counts, histogram::get);
+        System.out.printf("%-10s %10.0f %8d %8d %8d %8d%n", name, completed.sum() / elapsed, errors.sum(),
+                percentile(counts, completed.sum(), 0.50), percentile(counts, completed.sum(), 0.99),
+                percentile(counts, completed.sum(), 1.0));
+    }
+
+    private static int percentile(long[] counts, long total, double fraction) {
+        long target = (long) Math.ceil(total * fraction);
+        long seen = 0;
+        for (int millis = 0; millis < counts.length; millis++) {
+            seen += counts[millis];
+            if (seen >= target && target > 0) {
+                return millis;
+            }
+        }
+        return 0;
+    }
+}
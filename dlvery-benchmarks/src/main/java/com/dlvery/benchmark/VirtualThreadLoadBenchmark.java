@@ -0,0 +1,124 @@
+package com.dlvery.benchmark;
+
+import com.dlvery.util.ThreadFactories;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load test for the request-handling thread model. A burst of {@code requests} handlers is offered at
+ * once; each one holds a small response buffer and blocks for {@code latencyMs} to stand in for a
+ * MongoDB round trip, as the repository-backed controllers do. Three modes are compared:
+ * <ul>
+ *   <li>{@code platform}: a fixed pool of {@code poolSize} platform threads, as Tomcat's default 200 workers;</li>
+ *   <li>{@code platform-per-request}: one platform thread per request, the memory cost of matching virtual concurrency;</li>
+ *   <li>{@code virtual}: one virtual thread per request, as with {@code spring.threads.virtual.enabled=true}
+ *       (needs Java 21, skipped otherwise).</li>
+ * </ul>
+ * Reported per mode: peak concurrent in-flight requests, wall time, throughput, and heap and resident
+ * memory growth per in-flight request at the peak.
+ * Run with {@code java -cp dlvery-benchmarks/target/benchmarks.jar com.dlvery.benchmark.VirtualThreadLoadBenchmark [requests] [latencyMs] [poolSize]}.
+ */
+public class VirtualThreadLoadBenchmark {
+    private static final int RESPONSE_BYTES = 2048;
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        long latencyMs = args.length > 1 ? Long.parseLong(args[1]) : 50;
+        int poolSize = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        System.out.printf("requests=%d latencyMs=%d poolSize=%d java=%s%n",
+                requests, latencyMs, poolSize, System.getProperty("java.version"));
+        System.out.printf("%-22s %10s %10s %12s %14s %14s%n",
+                "mode", "inFlight", "wallMs", "req/s", "heapB/req", "rssB/req");
+
+        ExecutorService pool = Executors.newFixedThreadPool(poolSize, ThreadFactories.named("platform-", false));
+        try {
+            run("platform", pool, requests, latencyMs);
+        } finally {
+            pool.shutdown();
+        }
+        run("platform-per-request", perRequest(ThreadFactories.named("request-", false)), requests, latencyMs);
+        if (ThreadFactories.virtualThreadsSupported()) {
+            run("virtual", perRequest(ThreadFactories.named("virtual-", true)), requests, latencyMs);
+        } else {
+            System.out.printf("%-22s skipped: virtual threads need Java 21 (build with -Pjava21)%n", "virtual");
+        }
+    }
+
+    private static Executor perRequest(ThreadFactory factory) {
+        return task -> factory.newThread(task).start();
+    }
+
+    private static void run(String mode, Executor executor, int requests, long latencyMs) throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapBase = memory.getHeapMemoryUsage().getUsed();
+        long rssBase = residentBytes();
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peakInFlight = new AtomicInteger();
+        long[] peaks = {heapBase, rssBase};
+        CountDownLatch done = new CountDownLatch(requests);
+
+        Thread sampler = new Thread(() -> {
+            while (done.getCount() > 0) {
+                peaks[0] = Math.max(peaks[0], memory.getHeapMemoryUsage().getUsed());
+                peaks[1] = Math.max(peaks[1], residentBytes());
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+            }
+        }, "load-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            executor.execute(() -> {
+                peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    byte[] response = new byte[RESPONSE_BYTES];
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(latencyMs));
+                    response[0] = 1;
+                } finally {
+                    inFlight.decrementAndGet();
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long wallNanos = System.nanoTime() - start;
+        sampler.join();
+
+        int peak = Math.max(1, peakInFlight.get());
+        System.out.printf("%-22s %10d %10d %12.0f %14d %14s%n",
+                mode, peak, TimeUnit.NANOSECONDS.toMillis(wallNanos),
+                requests / (wallNanos / 1_000_000_000d),
+                (peaks[0] - heapBase) / peak,
+                rssBase < 0 ? "n/a" : String.valueOf((peaks[1] - rssBase) / peak));
+    }
+
+    /** Resident set size from /proc (Linux only); -1 where unavailable. */
+    private static long residentBytes() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Not Linux; resident memory is reported as n/a.
+        }
+        return -1;
+    }
+}
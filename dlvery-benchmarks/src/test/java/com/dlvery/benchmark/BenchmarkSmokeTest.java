@@ -0,0 +1,89 @@
+package com.dlvery.benchmark;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Runs every fixture's setup and each benchmark method once with the first value of every {@code @Param},
+ * so a fixture that no longer wires a collaborator fails the build instead of the next benchmark run.
+ */
+class BenchmarkSmokeTest {
+    private static final String BLACKHOLE_CHALLENGE =
+            "Today's password is swordfish. I understand instantiating Blackholes directly is dangerous.";
+
+    @ParameterizedTest
+    @ValueSource(classes = {AssignForDeliveryBenchmark.class, CsvImportBenchmark.class, CsvParseBenchmark.class,
+            JwtAuthBenchmark.class, JwtRequestFilterBenchmark.class, LoginBenchmark.class})
+    void setUpAndOneInvocation(Class<?> benchmarkClass) throws Throwable {
+        Object fixture = benchmarkClass.getDeclaredConstructor().newInstance();
+        for (Field field : benchmarkClass.getDeclaredFields()) {
+            Param param = field.getAnnotation(Param.class);
+            if (param != null) {
+                field.setAccessible(true);
+                field.set(fixture, convert(field.getType(), param.value()[0]));
+            }
+        }
+        Blackhole blackhole = new Blackhole(BLACKHOLE_CHALLENGE);
+        try {
+            invokeSetups(fixture, Level.Trial);
+            for (Method method : benchmarkClass.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(Benchmark.class)) {
+                    invokeSetups(fixture, Level.Iteration);
+                    invokeSetups(fixture, Level.Invocation);
+                    invoke(fixture, method, blackhole);
+                }
+            }
+        } finally {
+            for (Method method : benchmarkClass.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(TearDown.class)) {
+                    invoke(fixture, method, blackhole);
+                }
+            }
+            blackhole.evaporate("Yes, I am Stephen Hawking, and know a thing or two about black holes.");
+        }
+    }
+
+    private static void invokeSetups(Object fixture, Level level) throws Throwable {
+        for (Method method : fixture.getClass().getDeclaredMethods()) {
+            Setup setup = method.getAnnotation(Setup.class);
+            if (setup != null && setup.value() == level) {
+                invoke(fixture, method, null);
+            }
+        }
+    }
+
+    private static void invoke(Object fixture, Method method, Blackhole blackhole) throws Throwable {
+        try {
+            if (method.getParameterCount() == 1) {
+                method.invoke(fixture, blackhole);
+            } else {
+                method.invoke(fixture);
+            }
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Object convert(Class<?> type, String value) {
+        if (type == int.class) {
+            return Integer.parseInt(value);
+        }
+        if (type == long.class) {
+            return Long.parseLong(value);
+        }
+        if (type == boolean.class) {
+            return Boolean.parseBoolean(value);
+        }
+        return value;
+    }
+}